@@ -2,8 +2,12 @@ package com.assignment.eaglebank;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableRetry
+@EnableScheduling
 public class EaglebankApplication {
 
 	public static void main(String[] args) {
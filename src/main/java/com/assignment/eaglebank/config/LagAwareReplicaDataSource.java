@@ -0,0 +1,60 @@
+package com.assignment.eaglebank.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connections for read-only transactions. Hands out replica connections while the replica is within
+ * its lag bound and falls back to the primary when it is lagging or refuses a connection, so a
+ * read-only transaction never fails just because the replica is unavailable.
+ */
+public class LagAwareReplicaDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(LagAwareReplicaDataSource.class);
+
+    private static final String READ_ONLY_CONNECTIONS = "eaglebank.datasource.read_only.connections";
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter replicaConnections;
+    private final Counter primaryConnections;
+
+    public LagAwareReplicaDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor lagMonitor,
+                                     MeterRegistry meterRegistry) {
+        super(replica);
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+        this.replicaConnections = Counter.builder(READ_ONLY_CONNECTIONS)
+                .description("Connections handed to read-only transactions, by the pool that served them")
+                .tag("pool", "replica")
+                .register(meterRegistry);
+        this.primaryConnections = Counter.builder(READ_ONLY_CONNECTIONS)
+                .description("Connections handed to read-only transactions, by the pool that served them")
+                .tag("pool", "primary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (lagMonitor.isReplicaUsable()) {
+            try {
+                Connection connection = obtainTargetDataSource().getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                logger.warn("Read replica refused a connection, using the primary until the next lag check: {}",
+                        e.getMessage());
+                lagMonitor.markUnusable();
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+}
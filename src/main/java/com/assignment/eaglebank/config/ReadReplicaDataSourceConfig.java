@@ -0,0 +1,76 @@
+package com.assignment.eaglebank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends @Transactional(readOnly = true) work to a read replica and everything else to the primary.
+ * The application DataSource is a LazyConnectionDataSourceProxy over the primary pool: the physical
+ * connection is only fetched on the first statement, after the transaction has marked it read-only,
+ * and read-only connections come from the replica while it is within its lag bound.
+ * Both pools are beans, so each reports its own hikaricp.* metrics tagged with its pool name.
+ * Off by default; when off the single auto-configured DataSource is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eaglebank.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+            @Value("${eaglebank.datasource.replica.url}") String url,
+            @Value("${eaglebank.datasource.replica.username:}") String username,
+            @Value("${eaglebank.datasource.replica.password:}") String password,
+            @Value("${eaglebank.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${eaglebank.datasource.replica.connection-timeout-ms:250}") long connectionTimeoutMs) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        // Fail fast so a replica that stops answering falls back to the primary instead of stalling reads
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${eaglebank.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new LagAwareReplicaDataSource(replica, primary, replicaLagMonitor, meterRegistry));
+        return dataSource;
+    }
+}
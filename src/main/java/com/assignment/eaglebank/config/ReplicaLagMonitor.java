@@ -0,0 +1,121 @@
+package com.assignment.eaglebank.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/**
+ * Tracks how far the read replica is behind the primary using a heartbeat row. Each check reads the
+ * heartbeat the replica has received, then writes a new one to the primary, so the measured lag is the
+ * replication delay plus at most one check interval.
+ * Between checks the last measurement is aged by the time since it was taken, so a replica that stops
+ * replicating, or a monitor that stops running, drops out once the bound is passed. A replica whose
+ * heartbeat cannot be read at all (unreachable, or no schema yet) is never used.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String HEARTBEAT_TABLE = "replica_heartbeat";
+
+    private static final long UNKNOWN = -1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final Clock clock;
+
+    private volatile Measurement measurement = new Measurement(UNKNOWN, 0);
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis, MeterRegistry meterRegistry) {
+        this(primary, replica, maxLagMillis, meterRegistry, Clock.systemUTC());
+    }
+
+    ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis, MeterRegistry meterRegistry, Clock clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+        this.clock = clock;
+        Gauge.builder("eaglebank.datasource.replica.lag", this, ReplicaLagMonitor::lagMillis)
+                .description("Replica lag in milliseconds at the last check, NaN if the replica could not be read")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void createHeartbeatTable() {
+        primary.execute("CREATE TABLE IF NOT EXISTS " + HEARTBEAT_TABLE
+                + " (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        checkLag();
+    }
+
+    /**
+     * Measure the replica's lag from the heartbeat it has received, then write the next heartbeat.
+     */
+    @Scheduled(fixedDelayString = "${eaglebank.datasource.replica.lag-check-interval-ms:1000}",
+               initialDelayString = "${eaglebank.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        boolean wasUsable = isReplicaUsable();
+        long now = clock.millis();
+
+        long lag;
+        try {
+            Long beat = replica.query("SELECT beat_millis FROM " + HEARTBEAT_TABLE + " WHERE id = 1",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            lag = beat == null ? UNKNOWN : Math.max(0, now - beat);
+        } catch (DataAccessException e) {
+            logger.debug("Could not read replica heartbeat", e);
+            lag = UNKNOWN;
+        }
+        measurement = new Measurement(lag, now);
+
+        try {
+            primary.update("MERGE INTO " + HEARTBEAT_TABLE + " KEY (id) VALUES (1, ?)", now);
+        } catch (DataAccessException e) {
+            logger.warn("Could not write replica heartbeat to the primary: {}", e.getMessage());
+        }
+
+        boolean usable = isReplicaUsable();
+        if (usable != wasUsable) {
+            if (usable) {
+                logger.info("Read replica in use, lag {} ms", lag);
+            } else {
+                logger.warn("Read replica not in use, lag {}; read-only transactions go to the primary",
+                        lag == UNKNOWN ? "unknown" : lag + " ms");
+            }
+        }
+    }
+
+    /**
+     * Whether read-only transactions may use the replica: its last measured lag, plus the time since
+     * it was measured, is within the bound.
+     */
+    public boolean isReplicaUsable() {
+        Measurement current = measurement;
+        return current.lagMillis() != UNKNOWN
+                && current.lagMillis() + (clock.millis() - current.measuredAtMillis()) <= maxLagMillis;
+    }
+
+    /**
+     * Stop using the replica until the next check, e.g. after it refused a connection.
+     */
+    public void markUnusable() {
+        measurement = new Measurement(UNKNOWN, clock.millis());
+    }
+
+    double lagMillis() {
+        long lag = measurement.lagMillis();
+        return lag == UNKNOWN ? Double.NaN : lag;
+    }
+
+    private record Measurement(long lagMillis, long measuredAtMillis) {
+    }
+}
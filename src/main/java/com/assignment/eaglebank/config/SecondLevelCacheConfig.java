@@ -0,0 +1,97 @@
+package com.assignment.eaglebank.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for users and accounts, held in local Caffeine-backed JCache regions.
+ * Entities use the READ_WRITE strategy: an entry is locked while a transaction changes the row and
+ * replaced with the committed state once it commits, so a read that starts after a payment commits
+ * never sees the old balance. Rows changed by bulk JPQL statements evict their whole region.
+ * Only primary key lookups (findById and the lookups built on it) are served from the cache; the
+ * query cache is not used, since any write to a table would invalidate every cached query over it.
+ * The cache is local to each instance, so writes made elsewhere are only seen once the entry expires.
+ * Each region is bounded in size and time to live and reports cache.gets, cache.puts and cache.evictions
+ * tagged with its name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eaglebank.cache.second-level.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    public static final String USERS_REGION = "users";
+    public static final String ACCOUNTS_REGION = "accounts";
+
+    @Value("${eaglebank.cache.second-level.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${eaglebank.cache.second-level.users.ttl-ms:600000}")
+    private long usersTtlMs;
+
+    @Value("${eaglebank.cache.second-level.accounts.max-size:10000}")
+    private long accountsMaxSize;
+
+    @Value("${eaglebank.cache.second-level.accounts.ttl-ms:60000}")
+    private long accountsTtlMs;
+
+    public SecondLevelCacheConfig(@Value("${eaglebank.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        // Reads served by a lagging replica would be cached and then returned to read-write transactions
+        if (replicaEnabled) {
+            throw new IllegalStateException("eaglebank.cache.second-level.enabled and eaglebank.datasource.replica.enabled "
+                    + "cannot both be set: rows read from the replica would be cached for transactions on the primary");
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(MeterRegistry meterRegistry) {
+        // A manager of its own per application context, so contexts in the same JVM never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("eaglebank-second-level-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        monitor(meterRegistry, createRegion(cacheManager, USERS_REGION, usersMaxSize, usersTtlMs));
+        monitor(meterRegistry, createRegion(cacheManager, ACCOUNTS_REGION, accountsMaxSize, accountsTtlMs));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            // Every region is created above with its limits, so an unconfigured one is a mapping mistake
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static Cache<Object, Object> createRegion(CacheManager cacheManager, String name, long maxSize, long ttlMs) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)))
+                // Hibernate stores its own disassembled copy of each entity, so entries need no further copying
+                .setStoreByValue(false)
+                .setStatisticsEnabled(true);
+        return cacheManager.createCache(name, configuration);
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, Cache<Object, Object> region) {
+        JCacheMetrics.monitor(meterRegistry, region, Tags.empty());
+    }
+}
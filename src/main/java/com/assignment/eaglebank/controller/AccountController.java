@@ -1,6 +1,7 @@
 package com.assignment.eaglebank.controller;
 
 import com.assignment.eaglebank.api.AccountApi;
+import com.assignment.eaglebank.model.AccountBalanceResponse;
 import com.assignment.eaglebank.model.BankAccountResponse;
 import com.assignment.eaglebank.model.CreateBankAccountRequest;
 import com.assignment.eaglebank.model.ListBankAccountsResponse;
@@ -14,6 +15,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.OffsetDateTime;
+
 
 /**
  * Controller for account management operations
@@ -59,6 +62,16 @@ public class AccountController implements AccountApi {
         return ResponseEntity.ok(response);
     }
 
+    @Override
+    public ResponseEntity<AccountBalanceResponse> fetchAccountBalance(String accountNumber, OffsetDateTime asOf) {
+        logger.debug("Fetching balance of account {} as of {}", accountNumber, asOf);
+        
+        String authenticatedUserId = getAuthenticatedUserId();
+        AccountBalanceResponse response = bankAccountService.getBalance(authenticatedUserId, accountNumber, asOf);
+        
+        return ResponseEntity.ok(response);
+    }
+
     @Override
     public ResponseEntity<BankAccountResponse> updateAccountByAccountNumber(String accountNumber, 
                                                                            UpdateBankAccountRequest updateBankAccountRequest) {
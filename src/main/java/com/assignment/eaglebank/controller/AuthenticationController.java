@@ -3,11 +3,19 @@ package com.assignment.eaglebank.controller;
 import com.assignment.eaglebank.api.AuthApi;
 import com.assignment.eaglebank.model.AuthenticationRequest;
 import com.assignment.eaglebank.model.AuthenticationResponse;
+import com.assignment.eaglebank.model.LogoutRequest;
+import com.assignment.eaglebank.model.RefreshTokenRequest;
+import com.assignment.eaglebank.security.LoginRateLimiter;
+import com.assignment.eaglebank.security.TokenPrincipal;
 import com.assignment.eaglebank.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * REST controller for authentication operations
@@ -19,9 +27,11 @@ public class AuthenticationController implements AuthApi {
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationController.class);
     
     private final UserService userService;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public AuthenticationController(UserService userService) {
+    public AuthenticationController(UserService userService, LoginRateLimiter loginRateLimiter) {
         this.userService = userService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     /**
@@ -34,6 +44,9 @@ public class AuthenticationController implements AuthApi {
     public ResponseEntity<AuthenticationResponse> authenticateUser(AuthenticationRequest authenticationRequest) {
         logger.info("Processing authentication request for email: {}", authenticationRequest.getEmail());
         
+        // Throttle before touching the database or the password hasher
+        loginRateLimiter.checkLogin(authenticationRequest.getEmail(), clientAddress());
+        
         // Validate credentials and get authentication response
         AuthenticationResponse response = userService.validateCredentials(
             authenticationRequest.getEmail(), 
@@ -44,4 +57,43 @@ public class AuthenticationController implements AuthApi {
         
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Exchange a refresh token for a new token pair
+     * 
+     * @param refreshTokenRequest Refresh token issued at login or by a previous refresh
+     * @return ResponseEntity containing the new tokens and user ID
+     */
+    @Override
+    public ResponseEntity<AuthenticationResponse> refreshAuthToken(RefreshTokenRequest refreshTokenRequest) {
+        AuthenticationResponse response = userService.refreshTokens(refreshTokenRequest.getRefreshToken());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Revoke the caller's access token and, when supplied, its refresh token
+     * 
+     * @param logoutRequest Optional refresh token to revoke as well
+     * @return ResponseEntity with no content
+     */
+    @Override
+    public ResponseEntity<Void> logoutUser(LogoutRequest logoutRequest) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getCredentials() instanceof TokenPrincipal accessToken)) {
+            throw new IllegalStateException("User not authenticated");
+        }
+        
+        userService.logout(accessToken, logoutRequest != null ? logoutRequest.getRefreshToken() : null);
+        
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Address of the client calling the current request, looked up per call so the controller
+     * does not need a request-scoped proxy injected
+     */
+    private String clientAddress() {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest().getRemoteAddr();
+    }
+}
@@ -1,18 +1,36 @@
 package com.assignment.eaglebank.controller;
 
 import com.assignment.eaglebank.api.TransactionApi;
+import com.assignment.eaglebank.model.BatchTransactionRequest;
+import com.assignment.eaglebank.model.BatchTransactionResponse;
 import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.CreateTransferRequest;
 import com.assignment.eaglebank.model.ListTransactionsResponse;
+import com.assignment.eaglebank.model.PaymentIntentResponse;
 import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.service.IdempotencyService;
+import com.assignment.eaglebank.service.PaymentIntentService;
+import com.assignment.eaglebank.service.PaymentSequencer;
 import com.assignment.eaglebank.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Optional;
+
 
 /**
  * Controller for transaction management operations
@@ -22,33 +40,129 @@ public class TransactionController implements TransactionApi {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
+    static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final PaymentService paymentService;
+    private final Optional<PaymentSequencer> paymentSequencer;
+    private final IdempotencyService idempotencyService;
+    private final PaymentIntentService paymentIntentService;
+    private final ObjectMapper objectMapper;
 
-    public TransactionController(PaymentService paymentService) {
+    public TransactionController(PaymentService paymentService, Optional<PaymentSequencer> paymentSequencer,
+                                 IdempotencyService idempotencyService, PaymentIntentService paymentIntentService,
+                                 ObjectMapper objectMapper) {
         this.paymentService = paymentService;
+        this.paymentSequencer = paymentSequencer;
+        this.idempotencyService = idempotencyService;
+        this.paymentIntentService = paymentIntentService;
+        this.objectMapper = objectMapper;
     }
 
     @Override
     public ResponseEntity<TransactionResponse> createTransaction(String accountNumber, 
-                                                               CreateTransactionRequest createTransactionRequest) {
+                                                               CreateTransactionRequest createTransactionRequest,
+                                                               String idempotencyKey) {
         logger.info("Creating transaction for account: {}", accountNumber);
         
         String authenticatedUserId = getAuthenticatedUserId();
-        TransactionResponse response = paymentService.processTransaction(authenticatedUserId, accountNumber, createTransactionRequest);
+        if (idempotencyKey == null) {
+            TransactionResponse response = paymentSequencer
+                .map(sequencer -> sequencer.processTransaction(authenticatedUserId, accountNumber, createTransactionRequest))
+                .orElseGet(() -> paymentService.processTransaction(authenticatedUserId, accountNumber, createTransactionRequest));
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+        
+        IdempotencyService.IdempotentResponse result = idempotencyService.processTransaction(authenticatedUserId,
+            accountNumber, idempotencyKey, createTransactionRequest);
+        ResponseEntity.BodyBuilder created = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            created.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return created.body(result.response());
+    }
+
+    @Override
+    public ResponseEntity<PaymentIntentResponse> createPaymentIntent(String accountNumber,
+                                                                     CreateTransactionRequest createTransactionRequest) {
+        logger.info("Submitting payment intent for account: {}", accountNumber);
+        
+        String authenticatedUserId = getAuthenticatedUserId();
+        PaymentIntentResponse response = paymentIntentService.submitPaymentIntent(authenticatedUserId, accountNumber,
+            createTransactionRequest);
+        
+        return ResponseEntity.accepted()
+            .location(URI.create("/v1/accounts/" + accountNumber + "/payment-intents/" + response.getId()))
+            .body(response);
+    }
+
+    @Override
+    public ResponseEntity<PaymentIntentResponse> fetchPaymentIntent(String accountNumber, String intentId) {
+        logger.debug("Fetching payment intent {} for account: {}", intentId, accountNumber);
+        
+        String authenticatedUserId = getAuthenticatedUserId();
+        PaymentIntentResponse response = paymentIntentService.retrievePaymentIntent(authenticatedUserId, accountNumber, intentId);
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<TransactionResponse> createTransfer(String accountNumber,
+                                                            CreateTransferRequest createTransferRequest) {
+        logger.info("Creating transfer from account: {}", accountNumber);
+        
+        String authenticatedUserId = getAuthenticatedUserId();
+        TransactionResponse response = paymentService.processTransfer(authenticatedUserId, accountNumber, createTransferRequest);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @Override
-    public ResponseEntity<ListTransactionsResponse> listAccountTransaction(String accountNumber) {
+    public ResponseEntity<BatchTransactionResponse> createTransactionBatch(BatchTransactionRequest batchTransactionRequest) {
+        logger.info("Creating batch of {} transactions", batchTransactionRequest.getTransactions().size());
+        
+        String authenticatedUserId = getAuthenticatedUserId();
+        BatchTransactionResponse response = paymentService.processTransactionBatch(authenticatedUserId,
+            batchTransactionRequest.getTransactions());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<ListTransactionsResponse> listAccountTransaction(String accountNumber, String cursor, Integer limit) {
         logger.debug("Listing transactions for account: {}", accountNumber);
         
         String authenticatedUserId = getAuthenticatedUserId();
-        ListTransactionsResponse response = paymentService.getTransactionHistory(authenticatedUserId, accountNumber);
+        ListTransactionsResponse response = paymentService.getTransactionHistory(authenticatedUserId, accountNumber, cursor, limit);
         
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Streams the full transaction history as newline-delimited JSON when the client sends
+     * Accept: application/x-ndjson. Each line is written as soon as its row is read.
+     */
+    @GetMapping(value = "/v1/accounts/{accountNumber}/transactions", produces = NDJSON_MEDIA_TYPE)
+    public void exportAccountTransactions(@PathVariable("accountNumber") String accountNumber,
+                                          HttpServletResponse response) throws IOException {
+        logger.debug("Exporting transactions for account: {}", accountNumber);
+        
+        String authenticatedUserId = getAuthenticatedUserId();
+        ObjectWriter writer = objectMapper.writerFor(TransactionResponse.class);
+        OutputStream body = response.getOutputStream();
+        response.setContentType(NDJSON_MEDIA_TYPE);
+        
+        paymentService.exportTransactionHistory(authenticatedUserId, accountNumber, transaction -> {
+            try {
+                body.write(writer.writeValueAsBytes(transaction));
+                body.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        body.flush();
+    }
+
     @Override
     public ResponseEntity<TransactionResponse> fetchAccountTransactionByID(String accountNumber, String transactionId) {
         logger.debug("Fetching transaction {} for account: {}", transactionId, accountNumber);
@@ -5,6 +5,9 @@ import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,6 +15,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Account entity representing a bank account
@@ -21,10 +25,33 @@ import java.util.List;
     @Index(name = "idx_account_user", columnList = "user_id"),
     @Index(name = "idx_account_number", columnList = "account_number", unique = true)
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accounts")
 public class AccountEntity {
 
+    /**
+     * Name of the database sequence account numbers are drawn from.
+     */
+    public static final String ACCOUNT_NUMBER_SEQUENCE = "account_number_seq";
+
+    /**
+     * Account numbers reserved per sequence call, matching the JDBC batch size so a batch of
+     * new accounts costs one sequence round trip. With the pooled-lo optimizer each call
+     * returns the low end of a block of this many numbers.
+     */
+    public static final int ACCOUNT_NUMBER_ALLOCATION_SIZE = 50;
+
+    /**
+     * Highest balance an account may hold, as enforced by the balance column's validation.
+     */
+    public static final BigDecimal MAX_BALANCE = new BigDecimal("10000.00");
+
+    // Sequence-backed so the number is known at persist time and inserts can be JDBC batched,
+    // which IDENTITY prevents. Numbers left unused in a block when an instance stops are skipped.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ACCOUNT_NUMBER_SEQUENCE)
+    @SequenceGenerator(name = ACCOUNT_NUMBER_SEQUENCE, sequenceName = ACCOUNT_NUMBER_SEQUENCE,
+        allocationSize = ACCOUNT_NUMBER_ALLOCATION_SIZE)
     @Column(name = "account_number", nullable = false, updatable = false, unique = true)
     private Long accountNumber;
 
@@ -63,6 +90,16 @@ public class AccountEntity {
     @Column(name = "updated_timestamp", nullable = false)
     private OffsetDateTime updatedTimestamp;
 
+    // Transactions posted since the last balance checkpoint; kept on the account row, which every posting updates anyway
+    @ColumnDefault("0")
+    @Column(name = "transactions_since_checkpoint", nullable = false)
+    private int transactionsSinceCheckpoint;
+
+    // Optimistic locking guard against lost balance updates
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Relationships
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<TransactionEntity> transactions = new ArrayList<>();
@@ -82,10 +119,52 @@ public class AccountEntity {
      */
     @Transient
     public String getFormattedAccountNumber() {
+        return formatAccountNumber(accountNumber);
+    }
+
+    /**
+     * Format a numeric account number as per API spec (01XXXXXX format)
+     */
+    public static String formatAccountNumber(Long accountNumber) {
         if (accountNumber == null) {
             return null;
         }
-        return String.format("01%06d", accountNumber);
+        // Equivalent to String.format("01%06d", accountNumber) without the formatter overhead
+        String digits = Long.toString(accountNumber);
+        StringBuilder formatted = new StringBuilder(2 + Math.max(6, digits.length())).append("01");
+        for (int i = digits.length(); i < 6; i++) {
+            formatted.append('0');
+        }
+        return formatted.append(digits).toString();
+    }
+
+    /**
+     * Parse a formatted account number (01XXXXXX format) back into the numeric account number.
+     * Only the canonical rendering produced by {@link #getFormattedAccountNumber()} is accepted,
+     * so callers can look accounts up by primary key instead of matching on the formatted string.
+     */
+    public static Optional<Long> parseFormattedAccountNumber(String formattedAccountNumber) {
+        if (formattedAccountNumber == null
+                || formattedAccountNumber.length() < 8
+                || formattedAccountNumber.length() > 20
+                || !formattedAccountNumber.startsWith("01")) {
+            return Optional.empty();
+        }
+
+        // Numbers above 999999 are rendered without zero padding
+        if (formattedAccountNumber.length() > 8 && formattedAccountNumber.charAt(2) == '0') {
+            return Optional.empty();
+        }
+
+        long accountNumber = 0;
+        for (int i = 2; i < formattedAccountNumber.length(); i++) {
+            char digit = formattedAccountNumber.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return Optional.empty();
+            }
+            accountNumber = accountNumber * 10 + (digit - '0');
+        }
+        return Optional.of(accountNumber);
     }
 
     /**
@@ -95,6 +174,13 @@ public class AccountEntity {
         return this.balance.compareTo(amount) >= 0;
     }
 
+    /**
+     * Check if the account can be credited with the amount without going over the maximum balance
+     */
+    public boolean canReceive(BigDecimal amount) {
+        return this.balance.add(amount).compareTo(MAX_BALANCE) <= 0;
+    }
+
     /**
      * Credit amount to account
      */
@@ -118,6 +204,18 @@ public class AccountEntity {
         this.balance = this.balance.subtract(amount);
     }
 
+    /**
+     * Count a posted transaction towards the next balance checkpoint. Returns true, and starts
+     * counting again, once the given number of transactions have been posted since the last one.
+     */
+    public boolean countTowardsCheckpoint(int checkpointInterval) {
+        if (++this.transactionsSinceCheckpoint < checkpointInterval) {
+            return false;
+        }
+        this.transactionsSinceCheckpoint = 0;
+        return true;
+    }
+
     // Getters and Setters
     public Long getAccountNumber() {
         return accountNumber;
@@ -191,6 +289,22 @@ public class AccountEntity {
         this.updatedTimestamp = updatedTimestamp;
     }
 
+    public int getTransactionsSinceCheckpoint() {
+        return transactionsSinceCheckpoint;
+    }
+
+    public void setTransactionsSinceCheckpoint(int transactionsSinceCheckpoint) {
+        this.transactionsSinceCheckpoint = transactionsSinceCheckpoint;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<TransactionEntity> getTransactions() {
         return transactions;
     }
@@ -0,0 +1,90 @@
+package com.assignment.eaglebank.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * An account's balance straight after one of its transactions was posted, written every so many
+ * transactions so a past balance can be worked out from the nearest checkpoint instead of the whole history.
+ * The transaction is identified by its (created timestamp, id) position, the order transactions are listed in.
+ */
+@Entity
+@Table(name = "balance_checkpoints", indexes = {
+    @Index(name = "idx_balance_checkpoint_account_position",
+           columnList = "account_number, checkpoint_timestamp DESC, transaction_id DESC")
+})
+public class BalanceCheckpointEntity {
+
+    /**
+     * Name of the database sequence checkpoint IDs are drawn from.
+     */
+    public static final String BALANCE_CHECKPOINT_SEQUENCE = "balance_checkpoint_seq";
+
+    // Sequence-backed, like outbox events, so checkpoints are inserted as JDBC batches with the rest of the flush
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = BALANCE_CHECKPOINT_SEQUENCE)
+    @SequenceGenerator(name = BALANCE_CHECKPOINT_SEQUENCE, sequenceName = BALANCE_CHECKPOINT_SEQUENCE, allocationSize = 50)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false, updatable = false)
+    private Long accountNumber;
+
+    @Column(name = "balance", nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal balance;
+
+    /**
+     * The last transaction included in the balance
+     */
+    @Column(name = "transaction_id", nullable = false, updatable = false, length = 50)
+    private String transactionId;
+
+    /**
+     * When the last transaction included in the balance was created
+     */
+    @Column(name = "checkpoint_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime checkpointTimestamp;
+
+    // Constructors
+    public BalanceCheckpointEntity() {}
+
+    public BalanceCheckpointEntity(TransactionEntity transaction, BigDecimal balance) {
+        this.accountNumber = transaction.getAccount().getAccountNumber();
+        this.balance = balance;
+        this.transactionId = transaction.getId();
+        this.checkpointTimestamp = transaction.getCreatedTimestamp();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAccountNumber() {
+        return accountNumber;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public OffsetDateTime getCheckpointTimestamp() {
+        return checkpointTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "BalanceCheckpointEntity{" +
+                "accountNumber=" + accountNumber +
+                ", balance=" + balance +
+                ", transactionId='" + transactionId + '\'' +
+                ", checkpointTimestamp=" + checkpointTimestamp +
+                '}';
+    }
+}
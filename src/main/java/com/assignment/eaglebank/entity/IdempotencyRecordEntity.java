@@ -0,0 +1,102 @@
+package com.assignment.eaglebank.entity;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Stored result of a transaction created with an Idempotency-Key. The primary key is the key scoped
+ * to its user, so two requests racing with the same key cannot both commit a payment.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+})
+public class IdempotencyRecordEntity {
+
+    @Id
+    @Column(name = "scoped_key", length = 200, nullable = false, updatable = false)
+    private String scopedKey;
+
+    @Column(name = "request_fingerprint", length = 64, nullable = false, updatable = false)
+    private String requestFingerprint;
+
+    @Column(name = "response_body", length = 4000, nullable = false, updatable = false)
+    private String responseBody;
+
+    @Column(name = "created_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime createdTimestamp;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private OffsetDateTime expiresAt;
+
+    // Constructors
+    public IdempotencyRecordEntity() {}
+
+    public IdempotencyRecordEntity(String scopedKey, String requestFingerprint, String responseBody,
+                                   OffsetDateTime createdTimestamp, OffsetDateTime expiresAt) {
+        this.scopedKey = scopedKey;
+        this.requestFingerprint = requestFingerprint;
+        this.responseBody = responseBody;
+        this.createdTimestamp = createdTimestamp;
+        this.expiresAt = expiresAt;
+    }
+
+    // Business methods
+    /**
+     * Check if this record is past its retention period and may be purged
+     */
+    public boolean isExpired(OffsetDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    // Getters and Setters
+    public String getScopedKey() {
+        return scopedKey;
+    }
+
+    public void setScopedKey(String scopedKey) {
+        this.scopedKey = scopedKey;
+    }
+
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+
+    public void setRequestFingerprint(String requestFingerprint) {
+        this.requestFingerprint = requestFingerprint;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public OffsetDateTime getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    public void setCreatedTimestamp(OffsetDateTime createdTimestamp) {
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(OffsetDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotencyRecordEntity{" +
+                "scopedKey='" + scopedKey + '\'' +
+                ", createdTimestamp=" + createdTimestamp +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -0,0 +1,100 @@
+package com.assignment.eaglebank.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Event waiting to be delivered to downstream systems, written in the same database transaction as
+ * the change it describes and deleted once every sink has accepted it
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEventEntity {
+
+    /**
+     * Name of the database sequence event IDs are drawn from.
+     */
+    public static final String OUTBOX_EVENT_SEQUENCE = "outbox_event_seq";
+
+    // Sequence-backed, like account numbers, so events are inserted as JDBC batches with the rest of the flush
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = OUTBOX_EVENT_SEQUENCE)
+    @SequenceGenerator(name = OUTBOX_EVENT_SEQUENCE, sequenceName = OUTBOX_EVENT_SEQUENCE, allocationSize = 50)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, updatable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false, updatable = false, length = 50)
+    private String aggregateId;
+
+    @Column(name = "payload", nullable = false, updatable = false, length = 4000)
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime createdTimestamp;
+
+    // Constructors
+    public OutboxEventEntity() {}
+
+    public OutboxEventEntity(String eventType, String aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(String aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public OffsetDateTime getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    public void setCreatedTimestamp(OffsetDateTime createdTimestamp) {
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEventEntity{" +
+                "id=" + id +
+                ", eventType='" + eventType + '\'' +
+                ", aggregateId='" + aggregateId + '\'' +
+                ", createdTimestamp=" + createdTimestamp +
+                '}';
+    }
+}
@@ -0,0 +1,166 @@
+package com.assignment.eaglebank.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Deposit or withdrawal accepted for background settlement. Stays PENDING until a settlement worker
+ * posts it, in the same database transaction that marks it COMPLETED, or REJECTED with the reason.
+ * The account is referenced by number rather than by association so settlement workers can split
+ * the pending intents between them by account number.
+ */
+@Entity
+@Table(name = "payment_intents", indexes = {
+    @Index(name = "idx_payment_intent_status_created", columnList = "status, created_timestamp")
+})
+public class PaymentIntentEntity {
+
+    @Id
+    @Column(name = "id", length = 50, nullable = false, updatable = false)
+    private String id;
+
+    @Column(name = "account_number", nullable = false, updatable = false)
+    private Long accountNumber;
+
+    @Column(name = "user_id", nullable = false, updatable = false, length = 50)
+    private String userId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @DecimalMax(value = "10000.00", message = "Amount cannot exceed £10,000")
+    @Column(name = "amount", nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "currency", nullable = false, updatable = false, length = 3)
+    private String currency = "GBP";
+
+    @NotNull(message = "Transaction type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 20)
+    private TransactionType type;
+
+    @Column(name = "reference", updatable = false, length = 255)
+    private String reference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PaymentIntentStatus status = PaymentIntentStatus.PENDING;
+
+    /**
+     * The transaction posted for a COMPLETED intent
+     */
+    @Column(name = "transaction_id", length = 50)
+    private String transactionId;
+
+    /**
+     * Why a REJECTED intent was not posted
+     */
+    @Column(name = "failure_reason", length = 255)
+    private String failureReason;
+
+    @Column(name = "created_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime createdTimestamp;
+
+    @Column(name = "settled_timestamp")
+    private OffsetDateTime settledTimestamp;
+
+    // Constructors
+    public PaymentIntentEntity() {}
+
+    public PaymentIntentEntity(Long accountNumber, String userId, BigDecimal amount, String currency,
+                               TransactionType type, String reference, OffsetDateTime createdTimestamp) {
+        this.id = "pit-" + UUID.randomUUID().toString().replace("-", "");
+        this.accountNumber = accountNumber;
+        this.userId = userId;
+        this.amount = amount;
+        this.currency = currency;
+        this.type = type;
+        this.reference = reference;
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    // Business methods
+    public void complete(String transactionId, OffsetDateTime settledTimestamp) {
+        this.status = PaymentIntentStatus.COMPLETED;
+        this.transactionId = transactionId;
+        this.settledTimestamp = settledTimestamp;
+    }
+
+    public void reject(String failureReason, OffsetDateTime settledTimestamp) {
+        this.status = PaymentIntentStatus.REJECTED;
+        this.failureReason = failureReason != null && failureReason.length() > 255
+            ? failureReason.substring(0, 255)
+            : failureReason;
+        this.settledTimestamp = settledTimestamp;
+    }
+
+    public boolean isPending() {
+        return status == PaymentIntentStatus.PENDING;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public Long getAccountNumber() {
+        return accountNumber;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public PaymentIntentStatus getStatus() {
+        return status;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public OffsetDateTime getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    public OffsetDateTime getSettledTimestamp() {
+        return settledTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentIntentEntity{" +
+                "id='" + id + '\'' +
+                ", accountNumber=" + accountNumber +
+                ", type=" + type +
+                ", amount=" + amount +
+                ", status=" + status +
+                '}';
+    }
+}
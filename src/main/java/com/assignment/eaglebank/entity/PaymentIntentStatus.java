@@ -0,0 +1,36 @@
+package com.assignment.eaglebank.entity;
+
+/**
+ * Enum representing where a payment submitted for background settlement has got to
+ */
+public enum PaymentIntentStatus {
+    /**
+     * Accepted and waiting to be settled
+     */
+    PENDING("pending"),
+
+    /**
+     * Settled and posted as a transaction
+     */
+    COMPLETED("completed"),
+
+    /**
+     * Settled without posting, for example for insufficient funds
+     */
+    REJECTED("rejected");
+
+    private final String value;
+
+    PaymentIntentStatus(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
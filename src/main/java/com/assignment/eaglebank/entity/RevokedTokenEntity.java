@@ -0,0 +1,95 @@
+package com.assignment.eaglebank.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Revoked JWT, kept until the token would have expired anyway.
+ * Always new until loaded or persisted, so saving a revocation is a plain INSERT: revoking a token twice,
+ * from any instance, fails on the primary key instead of being merged into the existing row.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_token_expires", columnList = "expires_at"),
+    @Index(name = "idx_revoked_token_revoked", columnList = "revoked_timestamp")
+})
+public class RevokedTokenEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_id", length = 36, nullable = false, updatable = false)
+    private String tokenId;
+
+    @Column(name = "user_id", length = 50, nullable = false, updatable = false)
+    private String userId;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private OffsetDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "revoked_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime revokedTimestamp;
+
+    @Transient
+    private boolean persisted;
+
+    // Constructors
+    public RevokedTokenEntity() {}
+
+    public RevokedTokenEntity(String tokenId, String userId, OffsetDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    @Override
+    public String getId() {
+        return tokenId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    // Getters and Setters
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(OffsetDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public OffsetDateTime getRevokedTimestamp() {
+        return revokedTimestamp;
+    }
+
+    public void setRevokedTimestamp(OffsetDateTime revokedTimestamp) {
+        this.revokedTimestamp = revokedTimestamp;
+    }
+}
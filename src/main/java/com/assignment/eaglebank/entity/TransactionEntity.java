@@ -4,7 +4,6 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -15,7 +14,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "transactions", indexes = {
-    @Index(name = "idx_transaction_account", columnList = "account_number"),
+    @Index(name = "idx_transaction_account_created_id", columnList = "account_number, created_timestamp, id"),
     @Index(name = "idx_transaction_created", columnList = "created_timestamp")
 })
 public class TransactionEntity {
@@ -46,7 +45,20 @@ public class TransactionEntity {
     @JoinColumn(name = "account_number", nullable = false, foreignKey = @ForeignKey(name = "fk_transaction_account"))
     private AccountEntity account;
 
-    @CreationTimestamp
+    /**
+     * Shared by the two legs of a transfer; null for deposits and withdrawals
+     */
+    @Column(name = "transfer_id", length = 50)
+    private String transferId;
+
+    /**
+     * The other account of a transfer leg; null for deposits and withdrawals
+     */
+    @Column(name = "counterparty_account_number")
+    private Long counterpartyAccountNumber;
+
+    // Assigned when the transaction is applied rather than generated on insert, so the stored value matches
+    // the response and the position recorded by a balance checkpoint
     @Column(name = "created_timestamp", nullable = false, updatable = false)
     private OffsetDateTime createdTimestamp;
 
@@ -65,6 +77,9 @@ public class TransactionEntity {
         if (this.id == null) {
             this.id = "tan-" + UUID.randomUUID().toString().replace("-", "");
         }
+        if (this.createdTimestamp == null) {
+            this.createdTimestamp = OffsetDateTime.now();
+        }
     }
 
     // Business methods
@@ -90,6 +105,13 @@ public class TransactionEntity {
         return TransactionType.WITHDRAWAL.equals(type);
     }
 
+    /**
+     * Check if this transaction is one leg of a transfer
+     */
+    public boolean isTransfer() {
+        return transferId != null;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -139,6 +161,22 @@ public class TransactionEntity {
         this.account = account;
     }
 
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
+    }
+
+    public Long getCounterpartyAccountNumber() {
+        return counterpartyAccountNumber;
+    }
+
+    public void setCounterpartyAccountNumber(Long counterpartyAccountNumber) {
+        this.counterpartyAccountNumber = counterpartyAccountNumber;
+    }
+
     public OffsetDateTime getCreatedTimestamp() {
         return createdTimestamp;
     }
@@ -155,6 +193,7 @@ public class TransactionEntity {
                 ", currency='" + currency + '\'' +
                 ", type=" + type +
                 ", reference='" + reference + '\'' +
+                ", transferId='" + transferId + '\'' +
                 ", accountNumber=" + (account != null ? account.getFormattedAccountNumber() : null) +
                 ", createdTimestamp=" + createdTimestamp +
                 '}';
@@ -12,7 +12,17 @@ public enum TransactionType {
     /**
      * Withdrawal transaction - removes money from account
      */
-    WITHDRAWAL("withdrawal");
+    WITHDRAWAL("withdrawal"),
+    
+    /**
+     * Debit leg of a transfer - removes money from the paying account
+     */
+    TRANSFER_OUT("transfer_out"),
+    
+    /**
+     * Credit leg of a transfer - adds money to the receiving account
+     */
+    TRANSFER_IN("transfer_in");
 
     private final String value;
 
@@ -24,6 +34,13 @@ public enum TransactionType {
         return value;
     }
 
+    /**
+     * Whether this type adds money to the account it is posted to
+     */
+    public boolean isCredit() {
+        return this == DEPOSIT || this == TRANSFER_IN;
+    }
+
     public static TransactionType fromValue(String value) {
         for (TransactionType type : TransactionType.values()) {
             if (type.value.equals(value)) {
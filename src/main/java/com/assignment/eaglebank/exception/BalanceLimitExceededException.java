@@ -0,0 +1,11 @@
+package com.assignment.eaglebank.exception;
+
+/**
+ * Exception thrown when a payment would take an account's balance over the maximum it may hold.
+ */
+public class BalanceLimitExceededException extends BusinessRuleViolationException {
+    
+    public BalanceLimitExceededException(String message) {
+        super(message);
+    }
+}
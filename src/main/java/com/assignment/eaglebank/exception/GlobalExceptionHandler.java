@@ -3,8 +3,12 @@ package com.assignment.eaglebank.exception;
 import com.assignment.eaglebank.model.BadRequestErrorResponse;
 import com.assignment.eaglebank.model.BadRequestErrorResponseDetailsInner;
 import com.assignment.eaglebank.model.ErrorResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -78,12 +82,60 @@ public class GlobalExceptionHandler {
                     .body(buildSimpleErrorResponse(businessException.getMessage()));
         }
         
+        if (businessException instanceof BalanceLimitExceededException) {
+            log.warn("Balance limit exceeded [{}]: {}", correlationId, businessException.getMessage());
+            return ResponseEntity
+                    .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(buildSimpleErrorResponse(businessException.getMessage()));
+        }
+        
         log.warn("Business rule violation [{}]: {}", correlationId, businessException.getMessage());
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .body(buildSimpleErrorResponse(businessException.getMessage()));
     }
 
+    /**
+     * Handles concurrent modifications that could not be resolved by retrying or waiting for a lock
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> processConcurrencyConflicts(ConcurrencyFailureException concurrencyException) {
+        String correlationId = generateCorrelationId();
+        log.warn("Concurrent modification conflict [{}]: {}", correlationId, concurrencyException.getMessage());
+        
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(buildSimpleErrorResponse("The account was modified concurrently. Please retry the request."));
+    }
+
+    /**
+     * Handles requests shed because a bounded resource is saturated
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> processOverload(ServiceOverloadedException overloadException) {
+        String correlationId = generateCorrelationId();
+        log.warn("Request shed under load [{}]: {}", correlationId, overloadException.getMessage());
+        
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildSimpleErrorResponse(overloadException.getMessage()));
+    }
+
+    /**
+     * Handles callers that exceeded a rate limit
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> processRateLimitExceeded(RateLimitExceededException rateLimitException) {
+        String correlationId = generateCorrelationId();
+        log.warn("Rate limit exceeded [{}]: {}", correlationId, rateLimitException.getMessage());
+        
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimitException.getRetryAfterSeconds()))
+                .body(buildSimpleErrorResponse(rateLimitException.getMessage()));
+    }
+
     /**
      * Handles resource not found scenarios
      */
@@ -101,7 +153,8 @@ public class GlobalExceptionHandler {
      * Handles malformed requests and validation errors
      */
     @ExceptionHandler({HttpMessageNotReadableException.class, MethodArgumentNotValidException.class, 
-                      MethodArgumentTypeMismatchException.class, IllegalArgumentException.class})
+                      MethodArgumentTypeMismatchException.class, ConstraintViolationException.class,
+                      IllegalArgumentException.class})
     public ResponseEntity<?> processMalformedRequests(Exception malformedRequest) {
         String correlationId = generateCorrelationId();
         
@@ -135,6 +188,20 @@ public class GlobalExceptionHandler {
                            "Invalid format for parameter: " + typeMismatch.getName(), "type_mismatch")));
         }
         
+        // Handle path and query parameter constraint violations
+        if (malformedRequest instanceof ConstraintViolationException constraintViolation) {
+            log.warn("Parameter validation failed [{}]: {} violation(s)", correlationId, 
+                    constraintViolation.getConstraintViolations().size());
+            
+            List<BadRequestErrorResponseDetailsInner> validationDetails = constraintViolation
+                    .getConstraintViolations()
+                    .stream()
+                    .map(violation -> createValidationDetail(parameterName(violation), violation.getMessage(), "constraint_violation"))
+                    .collect(Collectors.toList());
+            
+            return createDetailedBadRequestResponse("Request validation failed", validationDetails);
+        }
+        
         // Handle credential validation (special case for IllegalArgumentException)
         if (malformedRequest instanceof IllegalArgumentException illegalArg) {
             if (illegalArg.getMessage() != null && illegalArg.getMessage().contains("Invalid credentials")) {
@@ -204,6 +271,12 @@ public class GlobalExceptionHandler {
         );
     }
     
+    private String parameterName(ConstraintViolation<?> violation) {
+        // Property paths look like "listAccountTransaction.limit"; keep only the parameter name
+        String path = violation.getPropertyPath().toString();
+        return path.substring(path.lastIndexOf('.') + 1);
+    }
+    
     private String generateCorrelationId() {
         return UUID.randomUUID().toString().substring(0, 8);
     }
@@ -0,0 +1,19 @@
+package com.assignment.eaglebank.exception;
+
+/**
+ * Exception thrown when a caller exceeds a request rate limit.
+ * For example, too many login attempts for one email address.
+ */
+public class RateLimitExceededException extends ApplicationException {
+    
+    private final long retryAfterSeconds;
+    
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
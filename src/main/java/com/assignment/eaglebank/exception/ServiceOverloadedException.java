@@ -0,0 +1,12 @@
+package com.assignment.eaglebank.exception;
+
+/**
+ * Exception thrown when a request is shed because a bounded resource is saturated.
+ * For example, when the password hashing queue is full.
+ */
+public class ServiceOverloadedException extends ApplicationException {
+    
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
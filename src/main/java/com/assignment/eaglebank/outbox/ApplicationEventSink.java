@@ -0,0 +1,31 @@
+package com.assignment.eaglebank.outbox;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each event to in-process listeners (@EventListener methods taking an OutboxEvent).
+ * Listeners run on the dispatcher thread, after the payment has committed, so they add nothing to
+ * payment latency; a listener that throws fails the batch and it is delivered again.
+ */
+@Component
+public class ApplicationEventSink implements OutboxEventSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "application";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,68 @@
+package com.assignment.eaglebank.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events as newline-delimited JSON to a local file, for local development and tests.
+ * Each batch is forced to disk before it is reported delivered. Enabled by setting
+ * eaglebank.outbox.file-sink.path.
+ */
+@Component
+@ConditionalOnProperty(name = "eaglebank.outbox.file-sink.path")
+public class FileEventSink implements OutboxEventSink {
+
+    private final Path path;
+    private final ObjectWriter writer;
+
+    public FileEventSink(@Value("${eaglebank.outbox.file-sink.path}") Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.writer = objectMapper.writerFor(OutboxEvent.class);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (OutboxEvent event : events) {
+                lines.write(writer.writeValueAsBytes(event));
+                lines.write('\n');
+            }
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise outbox events", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append outbox events to " + path, e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.assignment.eaglebank.outbox;
+
+import com.assignment.eaglebank.entity.OutboxEventEntity;
+import com.assignment.eaglebank.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Drains the outbox in the background, oldest events first, and hands each batch to every sink.
+ * A batch is read, delivered and deleted in one database transaction with its rows locked, so it is
+ * removed only once all sinks have accepted it and a second instance does not pick it up meanwhile.
+ * If a sink fails, or the instance stops before the delete commits, the batch is delivered again on
+ * a later poll: delivery is at-least-once and sinks should discard event IDs they have already seen.
+ * Events are delivered in ID order, which follows creation order within an instance but not across
+ * instances drawing blocks from the same sequence.
+ */
+@Component
+@ConditionalOnProperty(name = "eaglebank.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer lag;
+    private final int batchSize;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            List<OutboxEventSink> sinks,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${eaglebank.outbox.batch-size:200}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lag = Timer.builder("eaglebank.outbox.lag")
+                .description("Time from an event being committed to the outbox until every sink has accepted it")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Delivers batches until the outbox is empty or a batch fails. Failures are logged and counted
+     * against the sink; the failed batch stays in the outbox for the next poll.
+     * Returns the number of events delivered.
+     */
+    @Scheduled(fixedDelayString = "${eaglebank.outbox.poll-interval-ms:200}",
+               initialDelayString = "${eaglebank.outbox.poll-interval-ms:200}")
+    public int dispatchPending() {
+        int delivered = 0;
+        try {
+            int batch;
+            do {
+                batch = dispatchBatch();
+                delivered += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Outbox dispatch stopped after {} events, will retry on the next poll: {}", delivered, e.getMessage());
+        }
+        return delivered;
+    }
+
+    private int dispatchBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<OutboxEventEntity> batch = outboxEventRepository.findNextBatchForUpdate(Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            List<OutboxEvent> events = batch.stream().map(OutboxEvent::of).toList();
+            for (OutboxEventSink sink : sinks) {
+                deliver(sink, events);
+            }
+            OffsetDateTime deliveredAt = OffsetDateTime.now();
+            events.forEach(event -> lag.record(Duration.between(event.createdTimestamp(), deliveredAt)));
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+
+    private void deliver(OutboxEventSink sink, List<OutboxEvent> events) {
+        try {
+            sink.deliver(events);
+        } catch (RuntimeException e) {
+            Counter.builder("eaglebank.outbox.dispatch.failures")
+                    .description("Outbox batches a sink failed to accept")
+                    .tag("sink", sink.name())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        }
+        Counter.builder("eaglebank.outbox.events.dispatched")
+                .description("Outbox events accepted by a sink, including repeat deliveries")
+                .tag("sink", sink.name())
+                .register(meterRegistry)
+                .increment(events.size());
+    }
+}
@@ -0,0 +1,17 @@
+package com.assignment.eaglebank.outbox;
+
+import com.assignment.eaglebank.entity.OutboxEventEntity;
+
+import java.time.OffsetDateTime;
+
+/**
+ * An outbox event as handed to sinks. The ID is unique per event and stays the same when an event
+ * is delivered again, so sinks can discard duplicates.
+ */
+public record OutboxEvent(long id, String eventType, String aggregateId, String payload, OffsetDateTime createdTimestamp) {
+
+    static OutboxEvent of(OutboxEventEntity entity) {
+        return new OutboxEvent(entity.getId(), entity.getEventType(), entity.getAggregateId(), entity.getPayload(),
+                entity.getCreatedTimestamp());
+    }
+}
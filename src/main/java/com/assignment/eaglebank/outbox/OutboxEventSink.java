@@ -0,0 +1,23 @@
+package com.assignment.eaglebank.outbox;
+
+import java.util.List;
+
+/**
+ * Destination the outbox dispatcher delivers events to. Every sink bean receives every event.
+ * Delivery is at-least-once: a batch is only removed from the outbox once all sinks have accepted it,
+ * so a sink sees a batch again, possibly with newer events added, after any sink fails or the instance stops
+ * part way through.
+ */
+public interface OutboxEventSink {
+
+    /**
+     * Short name used to tag this sink's metrics
+     */
+    String name();
+
+    /**
+     * Deliver a batch of events, oldest first. Returning normally means the sink has accepted all of them;
+     * throwing leaves the whole batch in the outbox for the next attempt.
+     */
+    void deliver(List<OutboxEvent> events);
+}
@@ -0,0 +1,30 @@
+package com.assignment.eaglebank.outbox;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.TransactionEntity;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Payload of a transaction.created event. Account numbers use the API's 01XXXXXX format; the transfer
+ * fields are only set on the two legs of a transfer.
+ */
+public record TransactionEvent(String transactionId, String accountNumber, String userId, String type,
+                               BigDecimal amount, String currency, String reference, String transferId,
+                               String counterpartyAccountNumber, OffsetDateTime createdTimestamp) {
+
+    static TransactionEvent of(TransactionEntity transaction) {
+        return new TransactionEvent(
+                transaction.getId(),
+                transaction.getAccount().getFormattedAccountNumber(),
+                transaction.getUserId(),
+                transaction.getType().getValue(),
+                transaction.getAmount(),
+                transaction.getCurrency(),
+                transaction.getReference(),
+                transaction.getTransferId(),
+                AccountEntity.formatAccountNumber(transaction.getCounterpartyAccountNumber()),
+                transaction.getCreatedTimestamp());
+    }
+}
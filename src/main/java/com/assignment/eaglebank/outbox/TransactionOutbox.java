@@ -0,0 +1,55 @@
+package com.assignment.eaglebank.outbox;
+
+import com.assignment.eaglebank.entity.OutboxEventEntity;
+import com.assignment.eaglebank.entity.TransactionEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records a transaction.created event for each new transaction in the caller's database transaction,
+ * so the event is written if and only if the transaction commits. The row is persisted without a flush
+ * and goes out in the same JDBC batches as the rest of the commit; delivery happens later on the
+ * dispatcher thread.
+ */
+@Component
+public class TransactionOutbox {
+
+    public static final String TRANSACTION_CREATED = "transaction.created";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectWriter writer;
+    private final boolean enabled;
+
+    public TransactionOutbox(ObjectMapper objectMapper, @Value("${eaglebank.outbox.enabled:true}") boolean enabled) {
+        this.writer = objectMapper.writerFor(TransactionEvent.class);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Add an event for a transaction that is about to be persisted in the current database transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transactionCreated(TransactionEntity transaction) {
+        if (!enabled) {
+            return;
+        }
+        entityManager.persist(new OutboxEventEntity(TRANSACTION_CREATED, transaction.getId(), payload(transaction)));
+    }
+
+    private String payload(TransactionEntity transaction) {
+        try {
+            return writer.writeValueAsString(TransactionEvent.of(transaction));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise event for transaction " + transaction.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.assignment.eaglebank.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * An account's stored balance next to the signed sum and number of its transactions
+ */
+public record AccountLedgerTotals(Long accountNumber, BigDecimal balance, BigDecimal transactionSum, Long transactions) {
+
+    /**
+     * Whether the stored balance differs from what the transactions add up to
+     */
+    public boolean isDiscrepant() {
+        return balance.compareTo(transactionSum) != 0;
+    }
+}
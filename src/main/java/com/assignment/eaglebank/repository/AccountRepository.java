@@ -1,11 +1,15 @@
 package com.assignment.eaglebank.repository;
 
 import com.assignment.eaglebank.entity.AccountEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,10 +20,60 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
 
     /**
-     * Find account by formatted account number (01XXXXXX format)
+     * Find account by formatted account number (01XXXXXX format).
+     * The formatted number is converted to the numeric primary key once so the lookup is served by the
+     * primary key index rather than a scan over a computed expression.
      */
-    @Query("SELECT a FROM AccountEntity a WHERE CONCAT('01', LPAD(CAST(a.accountNumber AS string), 6, '0')) = :formattedAccountNumber")
-    Optional<AccountEntity> findByFormattedAccountNumber(@Param("formattedAccountNumber") String formattedAccountNumber);
+    default Optional<AccountEntity> findByFormattedAccountNumber(String formattedAccountNumber) {
+        return AccountEntity.parseFormattedAccountNumber(formattedAccountNumber)
+                .flatMap(this::findById);
+    }
+
+    /**
+     * Find account by account number and take a row-level write lock (SELECT ... FOR UPDATE)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AccountEntity a WHERE a.accountNumber = :accountNumber")
+    Optional<AccountEntity> findByIdForUpdate(@Param("accountNumber") Long accountNumber);
+
+    /**
+     * Find several accounts and lock their rows, always in account number order so that concurrent
+     * batches touching overlapping accounts cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AccountEntity a WHERE a.accountNumber IN :accountNumbers ORDER BY a.accountNumber")
+    List<AccountEntity> findAllByIdForUpdate(@Param("accountNumbers") Collection<Long> accountNumbers);
+
+    /**
+     * Delete an account with a single statement, without loading its cascaded transactions collection.
+     * The version condition turns the delete into a no-op if the account changed since it was read.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AccountEntity a WHERE a.accountNumber = :accountNumber AND a.version = :version")
+    int deleteByAccountNumberAndVersion(@Param("accountNumber") Long accountNumber, @Param("version") Long version);
+
+    /**
+     * Find the lowest account number, served by the primary key index
+     */
+    @Query("SELECT MIN(a.accountNumber) FROM AccountEntity a")
+    Optional<Long> findMinAccountNumber();
+
+    /**
+     * Find the highest account number, served by the primary key index
+     */
+    @Query("SELECT MAX(a.accountNumber) FROM AccountEntity a")
+    Optional<Long> findMaxAccountNumber();
+
+    /**
+     * Total every account in the key range [from, to) against its transactions. Balances and sums are read
+     * by the same statement, so they come from the same snapshot, and at most to - from rows are returned.
+     */
+    @Query("SELECT new com.assignment.eaglebank.repository.AccountLedgerTotals(a.accountNumber, a.balance, " +
+           "COALESCE(SUM(" + TransactionRepository.SIGNED_AMOUNT + "), 0), COUNT(t)) " +
+           "FROM AccountEntity a LEFT JOIN a.transactions t " +
+           "WHERE a.accountNumber >= :from AND a.accountNumber < :to " +
+           "GROUP BY a.accountNumber, a.balance")
+    List<AccountLedgerTotals> findLedgerTotals(@Param("from") Long from, @Param("to") Long to);
 
     /**
      * Find all accounts for a specific user
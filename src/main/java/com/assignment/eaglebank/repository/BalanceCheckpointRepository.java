@@ -0,0 +1,28 @@
+package com.assignment.eaglebank.repository;
+
+import com.assignment.eaglebank.entity.BalanceCheckpointEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for BalanceCheckpointEntity operations
+ */
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpointEntity, Long> {
+
+    /**
+     * Find the newest checkpoints of an account taken at or before the given time, newest first.
+     * Served by the first entry of the descending (account, timestamp, transaction) index range.
+     */
+    @Query("SELECT c FROM BalanceCheckpointEntity c WHERE c.accountNumber = :accountNumber " +
+           "AND c.checkpointTimestamp <= :asOf ORDER BY c.checkpointTimestamp DESC, c.transactionId DESC")
+    List<BalanceCheckpointEntity> findLatestAtOrBefore(@Param("accountNumber") Long accountNumber,
+                                                       @Param("asOf") OffsetDateTime asOf,
+                                                       Limit limit);
+}
@@ -0,0 +1,24 @@
+package com.assignment.eaglebank.repository;
+
+import com.assignment.eaglebank.entity.IdempotencyRecordEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for IdempotencyRecordEntity operations
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecordEntity, String> {
+
+    /**
+     * Find the keys of records that expired before the given time, served by the expiry index
+     */
+    @Query("SELECT r.scopedKey FROM IdempotencyRecordEntity r WHERE r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<String> findExpiredKeys(@Param("now") OffsetDateTime now, Limit limit);
+}
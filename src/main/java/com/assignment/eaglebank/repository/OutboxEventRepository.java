@@ -0,0 +1,26 @@
+package com.assignment.eaglebank.repository;
+
+import com.assignment.eaglebank.entity.OutboxEventEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEventEntity operations
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Find the oldest pending events and lock their rows, so another instance draining the outbox
+     * at the same time waits for them to be delivered and deleted instead of delivering them again
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEventEntity e ORDER BY e.id")
+    List<OutboxEventEntity> findNextBatchForUpdate(Limit limit);
+}
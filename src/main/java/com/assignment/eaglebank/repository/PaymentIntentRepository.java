@@ -0,0 +1,41 @@
+package com.assignment.eaglebank.repository;
+
+import com.assignment.eaglebank.entity.PaymentIntentEntity;
+import com.assignment.eaglebank.entity.PaymentIntentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for PaymentIntentEntity operations
+ */
+@Repository
+public interface PaymentIntentRepository extends JpaRepository<PaymentIntentEntity, String> {
+
+    /**
+     * Find the oldest pending intents in one settlement partition and lock their rows. Partitions split
+     * intents by account number, so workers settling different partitions never wait on each other's
+     * intent or account rows, and another instance settling the same partition waits instead of
+     * settling them twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM PaymentIntentEntity i WHERE i.status = com.assignment.eaglebank.entity.PaymentIntentStatus.PENDING " +
+           "AND MOD(i.accountNumber, :partitions) = :partition ORDER BY i.createdTimestamp, i.id")
+    List<PaymentIntentEntity> findPendingForUpdate(@Param("partitions") int partitions,
+                                                   @Param("partition") int partition,
+                                                   Limit limit);
+
+    /**
+     * Find an intent by ID and owning user
+     */
+    Optional<PaymentIntentEntity> findByIdAndUserId(String id, String userId);
+
+    long countByStatus(PaymentIntentStatus status);
+}
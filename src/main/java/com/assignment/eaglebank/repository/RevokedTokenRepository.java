@@ -0,0 +1,41 @@
+package com.assignment.eaglebank.repository;
+
+import com.assignment.eaglebank.entity.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for RevokedTokenEntity operations
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    /**
+     * Token ids of revocations that still matter, selected as a single column so rebuilding
+     * the in-memory revocation list does not materialise entities
+     */
+    @Query("SELECT r.tokenId FROM RevokedTokenEntity r WHERE r.expiresAt > :now")
+    List<String> findUnexpiredTokenIds(@Param("now") OffsetDateTime now);
+
+    /**
+     * Token ids revoked after the given time whose tokens have not expired, so an instance can pick up
+     * revocations made by the others without reloading every row
+     */
+    @Query("SELECT r.tokenId FROM RevokedTokenEntity r WHERE r.revokedTimestamp > :since AND r.expiresAt > :now")
+    List<String> findTokenIdsRevokedSince(@Param("since") OffsetDateTime since, @Param("now") OffsetDateTime now);
+
+    /**
+     * Drop revocations of tokens that have expired anyway
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedTokenEntity r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
@@ -1,13 +1,20 @@
 package com.assignment.eaglebank.repository;
 
 import com.assignment.eaglebank.entity.TransactionEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for TransactionEntity operations
@@ -16,10 +23,64 @@ import java.util.Optional;
 public interface TransactionRepository extends JpaRepository<TransactionEntity, String> {
 
     /**
-     * Find all transactions for a specific account ordered by creation timestamp desc
+     * A transaction's effect on its account's balance, matching TransactionType.isCredit()
      */
-    @Query("SELECT t FROM TransactionEntity t WHERE t.account.accountNumber = :accountNumber ORDER BY t.createdTimestamp DESC")
-    List<TransactionEntity> findByAccountNumberOrderByCreatedTimestampDesc(@Param("accountNumber") Long accountNumber);
+    String SIGNED_AMOUNT = "CASE WHEN t.type IN (com.assignment.eaglebank.entity.TransactionType.DEPOSIT, " +
+           "com.assignment.eaglebank.entity.TransactionType.TRANSFER_IN) THEN t.amount ELSE -t.amount END";
+
+    /**
+     * Check whether an account has any transactions, served by the account index without loading rows
+     */
+    boolean existsByAccountAccountNumber(Long accountNumber);
+
+    /**
+     * Find the newest transactions for a specific account, ordered by (createdTimestamp, id) desc
+     */
+    @Query("SELECT t FROM TransactionEntity t WHERE t.account.accountNumber = :accountNumber " +
+           "ORDER BY t.createdTimestamp DESC, t.id DESC")
+    List<TransactionEntity> findFirstPageByAccountNumber(@Param("accountNumber") Long accountNumber, Limit limit);
+
+    /**
+     * Find the transactions for a specific account that come after the given keyset position
+     */
+    @Query("SELECT t FROM TransactionEntity t WHERE t.account.accountNumber = :accountNumber " +
+           "AND (t.createdTimestamp < :createdTimestamp OR (t.createdTimestamp = :createdTimestamp AND t.id < :id)) " +
+           "ORDER BY t.createdTimestamp DESC, t.id DESC")
+    List<TransactionEntity> findPageByAccountNumberAfter(@Param("accountNumber") Long accountNumber,
+                                                         @Param("createdTimestamp") OffsetDateTime createdTimestamp,
+                                                         @Param("id") String id,
+                                                         Limit limit);
+
+    /**
+     * Stream all transactions for a specific account, ordered by (createdTimestamp, id) desc.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM TransactionEntity t WHERE t.account.accountNumber = :accountNumber " +
+           "ORDER BY t.createdTimestamp DESC, t.id DESC")
+    Stream<TransactionEntity> streamByAccountNumber(@Param("accountNumber") Long accountNumber);
+
+    /**
+     * Sum an account's transactions up to and including the given time, credits positive and debits negative
+     */
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM TransactionEntity t " +
+           "WHERE t.account.accountNumber = :accountNumber AND t.createdTimestamp <= :asOf")
+    BigDecimal sumSignedAmountsUpTo(@Param("accountNumber") Long accountNumber,
+                                    @Param("asOf") OffsetDateTime asOf);
+
+    /**
+     * Sum an account's transactions after the given keyset position and up to and including the given time,
+     * credits positive and debits negative. The plain timestamp bounds let the database read only the
+     * index range between the two positions; the keyset condition then drops the rows at the start position.
+     */
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM TransactionEntity t " +
+           "WHERE t.account.accountNumber = :accountNumber " +
+           "AND t.createdTimestamp >= :createdTimestamp AND t.createdTimestamp <= :asOf " +
+           "AND (t.createdTimestamp > :createdTimestamp OR t.id > :id)")
+    BigDecimal sumSignedAmountsBetween(@Param("accountNumber") Long accountNumber,
+                                       @Param("createdTimestamp") OffsetDateTime createdTimestamp,
+                                       @Param("id") String id,
+                                       @Param("asOf") OffsetDateTime asOf);
 
     /**
      * Find transaction by ID and verify it belongs to a specific user (for security)
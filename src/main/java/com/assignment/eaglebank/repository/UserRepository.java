@@ -2,9 +2,11 @@ package com.assignment.eaglebank.repository;
 
 import com.assignment.eaglebank.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -15,9 +17,12 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<UserEntity, String> {
 
     /**
-     * Find user by ID and not deleted
+     * Find user by ID and not deleted. Looks the user up by primary key so the second-level cache can
+     * answer it; the deleted flag is part of the cached state, so a soft delete is seen straight away.
      */
-    Optional<UserEntity> findByIdAndDeletedFalse(String id);
+    default Optional<UserEntity> findByIdAndDeletedFalse(String id) {
+        return findById(id).filter(user -> !user.isDeleted());
+    }
 
     /**
      * Find user by email and not deleted
@@ -34,4 +39,12 @@ public interface UserRepository extends JpaRepository<UserEntity, String> {
      */
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM AccountEntity a WHERE a.user.id = :userId")
     boolean hasAccounts(@Param("userId") String userId);
-} 
\ No newline at end of file
+
+    /**
+     * Replace the password hash, only if it is still the one that was read
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :currentHash")
+    int updatePasswordHash(@Param("id") String id, @Param("currentHash") String currentHash, @Param("newHash") String newHash);
+}
@@ -0,0 +1,120 @@
+package com.assignment.eaglebank.security;
+
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder decorator that runs hashing and verification on a small dedicated pool instead of
+ * the request thread, so a burst of logins can only ever occupy that many cores.
+ * Work beyond the queue capacity, or work that waited in the queue longer than the allowed wait,
+ * is rejected with a {@link ServiceOverloadedException} rather than queued without bound.
+ */
+public class BoundedHashingPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final Timer queueWaitTimer;
+    private final Counter queueFullRejections;
+    private final Counter queueTimeoutRejections;
+
+    public BoundedHashingPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                         Duration maxQueueWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password-hashing", Collections.emptyList()).bindTo(meterRegistry);
+
+        this.queueWaitTimer = Timer.builder("eaglebank.auth.password.queue.wait")
+                .description("Time a hashing request waited for a free hashing thread")
+                .register(meterRegistry);
+        this.queueFullRejections = rejectionCounter(meterRegistry, "queue_full");
+        this.queueTimeoutRejections = rejectionCounter(meterRegistry, "queue_timeout");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Supplier<T> hashing) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+                // The caller has most likely given up by now; don't spend a core on it
+                if (waited > maxQueueWaitNanos) {
+                    queueTimeoutRejections.increment();
+                    throw overloaded();
+                }
+                return hashing.get();
+            });
+        } catch (RejectedExecutionException e) {
+            queueFullRejections.increment();
+            throw overloaded();
+        }
+
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        }
+    }
+
+    private static ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("Authentication is temporarily overloaded. Please retry shortly.");
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("eaglebank.auth.password.rejections")
+                .description("Hashing requests shed because the hashing pool was saturated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.assignment.eaglebank.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder with a fixed cost that treats any stored hash of a different cost, higher or lower,
+ * as needing re-encoding. Use {@link #calibrate} to pick the cost from the hardware at startup.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Measure this machine and return an encoder with the highest cost, between minStrength and
+     * maxStrength, whose hash time still fits the budget.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(Duration budget, int minStrength, int maxStrength) {
+        int strength = calibrateStrength(budget, minStrength, maxStrength, cost -> {
+            BCryptPasswordEncoder probe = new BCryptPasswordEncoder(cost);
+            long start = System.nanoTime();
+            probe.encode("calibration-probe");
+            return System.nanoTime() - start;
+        });
+        logger.info("Calibrated BCrypt cost {} for a {} ms hashing budget", strength, budget.toMillis());
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    static int calibrateStrength(Duration budget, int minStrength, int maxStrength, IntToLongFunction hashNanos) {
+        // Each cost step doubles the work, so time the cheapest cost and extrapolate upwards
+        hashNanos.applyAsLong(minStrength);
+        long nanos = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            nanos = Math.min(nanos, hashNanos.applyAsLong(minStrength));
+        }
+
+        if (nanos > budget.toNanos()) {
+            logger.warn("BCrypt cost {} takes {} ms, over the {} ms budget; using it anyway",
+                    minStrength, Duration.ofNanos(nanos).toMillis(), budget.toMillis());
+            return minStrength;
+        }
+
+        int strength = minStrength;
+        while (strength < maxStrength && nanos * 2 <= budget.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            logger.warn("Stored password hash is not a BCrypt hash; leaving it as is");
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -0,0 +1,53 @@
+package com.assignment.eaglebank.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordEncoder decorator that times hashing and verification, so the cost of BCrypt on
+ * user creation and login is visible separately from the rest of the request.
+ */
+public class InstrumentedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchedTimer;
+    private final Timer mismatchedTimer;
+
+    public InstrumentedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("eaglebank.auth.password.encode")
+                .description("Time to hash a password")
+                .register(meterRegistry);
+        this.matchedTimer = verificationTimer(meterRegistry, "matched");
+        this.mismatchedTimer = verificationTimer(meterRegistry, "mismatched");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchedTimer : mismatchedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("eaglebank.auth.password.verify")
+                .description("Time to verify a password against its stored hash")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.assignment.eaglebank.security;
+
+import com.assignment.eaglebank.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Throttles login attempts per client address and per email before any database or hashing work,
+ * so credential stuffing is turned away for the cost of a map lookup.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter addressLimiter;
+    private final TokenBucketRateLimiter emailLimiter;
+    private final Counter allowed;
+    private final Counter throttledByAddress;
+    private final Counter throttledByEmail;
+
+    public LoginRateLimiter(@Value("${eaglebank.login-rate-limit.enabled:true}") boolean enabled,
+                            @Value("${eaglebank.login-rate-limit.per-ip.capacity:30}") int addressCapacity,
+                            @Value("${eaglebank.login-rate-limit.per-ip.refill-interval-ms:1000}") long addressRefillMs,
+                            @Value("${eaglebank.login-rate-limit.per-email.capacity:5}") int emailCapacity,
+                            @Value("${eaglebank.login-rate-limit.per-email.refill-interval-ms:12000}") long emailRefillMs,
+                            @Value("${eaglebank.login-rate-limit.max-entries:100000}") int maxEntries,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.addressLimiter = new TokenBucketRateLimiter(addressCapacity, Duration.ofMillis(addressRefillMs), STRIPES, maxEntries);
+        this.emailLimiter = new TokenBucketRateLimiter(emailCapacity, Duration.ofMillis(emailRefillMs), STRIPES, maxEntries);
+
+        this.allowed = attemptCounter(meterRegistry, "allowed", "none");
+        this.throttledByAddress = attemptCounter(meterRegistry, "throttled", "ip");
+        this.throttledByEmail = attemptCounter(meterRegistry, "throttled", "email");
+        bucketGauge(meterRegistry, addressLimiter, "ip");
+        bucketGauge(meterRegistry, emailLimiter, "email");
+    }
+
+    /**
+     * Take a login attempt for the client address and email, throwing if either is over its limit.
+     */
+    public void checkLogin(String email, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+
+        long wait = addressLimiter.tryAcquire(clientAddress);
+        if (wait > 0) {
+            throttledByAddress.increment();
+            throw new RateLimitExceededException("Too many login attempts from this address", retryAfterSeconds(wait));
+        }
+
+        if (email != null) {
+            wait = emailLimiter.tryAcquire(email.toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                throttledByEmail.increment();
+                throw new RateLimitExceededException("Too many login attempts for this account", retryAfterSeconds(wait));
+            }
+        }
+
+        allowed.increment();
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, Duration.ofNanos(waitNanos).toSeconds() + 1);
+    }
+
+    private static Counter attemptCounter(MeterRegistry meterRegistry, String result, String limitedBy) {
+        return Counter.builder("eaglebank.auth.login.attempts")
+                .description("Login attempts checked by the rate limiter")
+                .tag("result", result)
+                .tag("limited_by", limitedBy)
+                .register(meterRegistry);
+    }
+
+    private static void bucketGauge(MeterRegistry meterRegistry, TokenBucketRateLimiter limiter, String key) {
+        Gauge.builder("eaglebank.auth.login.rate_limit.buckets", limiter, TokenBucketRateLimiter::size)
+                .description("Login rate limit buckets currently tracked")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
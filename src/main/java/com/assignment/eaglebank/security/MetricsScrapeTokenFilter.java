@@ -0,0 +1,50 @@
+package com.assignment.eaglebank.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates the metrics scraper by a static bearer token, configured with eaglebank.metrics.scrape-token.
+ * Only requests presenting that token get the scrape authority; customer JWTs never do, so signing up and
+ * logging in does not give access to internal metrics. With no token configured, nobody can scrape.
+ * Not a bean, so it only runs in the metrics filter chain rather than on every request.
+ */
+public class MetricsScrapeTokenFilter extends OncePerRequestFilter {
+
+    public static final String SCRAPE_AUTHORITY = "METRICS_SCRAPE";
+
+    private static final String SCRAPER = "metrics-scraper";
+
+    private final byte[] scrapeToken;
+
+    public MetricsScrapeTokenFilter(String scrapeToken) {
+        this.scrapeToken = scrapeToken == null ? new byte[0] : scrapeToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String authorizationHeader = request.getHeader("Authorization");
+        if (scrapeToken.length > 0 && authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            byte[] presented = authorizationHeader.substring(7).getBytes(StandardCharsets.UTF_8);
+            // Constant-time comparison, so response timing does not reveal how much of the token matched
+            if (MessageDigest.isEqual(presented, scrapeToken)) {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        SCRAPER, null, List.of(new SimpleGrantedAuthority(SCRAPE_AUTHORITY))));
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,13 +1,17 @@
 package com.assignment.eaglebank.security;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -16,8 +20,10 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Security configuration for the Eagle Bank application
@@ -26,13 +32,48 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
     private final TokenAuthenticationFilter tokenAuthenticationFilter;
 
+    @Value("${eaglebank.password-hashing.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${eaglebank.password-hashing.bcrypt.budget-ms:250}")
+    private long bcryptBudgetMs;
+
+    @Value("${eaglebank.password-hashing.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${eaglebank.password-hashing.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
     public SecurityConfig(TokenAuthenticationFilter tokenAuthenticationFilter) {
         this.tokenAuthenticationFilter = tokenAuthenticationFilter;
     }
 
+    /**
+     * The metrics scrape endpoint has its own chain, ahead of the API chain, and only accepts the static
+     * scrape token. Customer JWTs are not checked here, so a customer token is refused like no token at all.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http,
+                                                  @Value("${eaglebank.metrics.scrape-token:}") String scrapeToken) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(authz -> authz
+                .anyRequest().hasAuthority(MetricsScrapeTokenFilter.SCRAPE_AUTHORITY)
+            )
+            .addFilterBefore(new MetricsScrapeTokenFilter(scrapeToken), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             // CORS configuration
@@ -49,6 +90,7 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers(HttpMethod.POST, "/v1/users").permitAll()
                 .requestMatchers(HttpMethod.POST, "/v1/auth/login").permitAll()
+                .requestMatchers(HttpMethod.POST, "/v1/auth/refresh").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 
                 // H2 Console access (for development)
@@ -57,7 +99,7 @@ public class SecurityConfig {
                 // OpenAPI and Swagger UI
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/swagger-resources/**", "/webjars/**").permitAll()
                 
-                // Health check endpoint
+                // Health check; the metrics scrape endpoint is secured by metricsFilterChain
                 .requestMatchers("/actuator/health").permitAll()
                 
                 // Error handling
@@ -120,8 +162,38 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * BCrypt runs on a bounded hashing pool, so login and sign-up bursts cannot take every request thread
+     * and core away from the rest of the API.
+     * Hashes are stored with a {bcrypt} id prefix so the algorithm can change later; hashes from before
+     * the prefix are still accepted and get re-encoded on the next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${eaglebank.password-hashing.threads:2}") int threads,
+                                           @Value("${eaglebank.password-hashing.queue-capacity:32}") int queueCapacity,
+                                           @Value("${eaglebank.password-hashing.max-queue-wait-ms:1000}") long maxQueueWaitMs) {
+        CalibratedBCryptPasswordEncoder bcryptPasswordEncoder = bcryptPasswordEncoder(meterRegistry);
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcryptPasswordEncoder));
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcryptPasswordEncoder);
+
+        return new BoundedHashingPasswordEncoder(
+                new InstrumentedPasswordEncoder(delegatingEncoder, meterRegistry),
+                threads, queueCapacity, Duration.ofMillis(maxQueueWaitMs), meterRegistry);
+    }
+
+    /**
+     * BCrypt cost: a fixed strength when configured, otherwise the highest cost that fits the
+     * per-hash budget on this machine. Instances sharing a database should agree on the cost,
+     * otherwise each login re-encodes the hash to whichever instance served it.
+     */
+    private CalibratedBCryptPasswordEncoder bcryptPasswordEncoder(MeterRegistry meterRegistry) {
+        CalibratedBCryptPasswordEncoder encoder = bcryptStrength > 0
+                ? new CalibratedBCryptPasswordEncoder(bcryptStrength)
+                : CalibratedBCryptPasswordEncoder.calibrate(Duration.ofMillis(bcryptBudgetMs), bcryptMinStrength, bcryptMaxStrength);
+        Gauge.builder("eaglebank.auth.password.bcrypt.strength", encoder, CalibratedBCryptPasswordEncoder::getStrength)
+                .description("BCrypt cost used for new password hashes")
+                .register(meterRegistry);
+        return encoder;
     }
 } 
\ No newline at end of file
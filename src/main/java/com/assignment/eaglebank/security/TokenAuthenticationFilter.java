@@ -14,11 +14,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter that processes JWT tokens from HTTP requests.
- * This filter extracts and validates JWT tokens from the Authorization header.
+ * This filter extracts and validates JWT tokens from the Authorization header, then rejects revoked
+ * tokens using the in-memory revocation list. The verified token is kept as the credentials so
+ * logout can revoke it.
  */
 @Component
 public class TokenAuthenticationFilter extends OncePerRequestFilter {
@@ -26,7 +29,12 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(TokenAuthenticationFilter.class);
     
     @Autowired
-    private TokenManager tokenManager;
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -34,37 +42,26 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String userId = null;
-        String jwt = null;
-        
-        // Extract JWT token from Authorization header
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                userId = tokenManager.getUserIdFromToken(jwt);
-                logger.debug("Extracted user ID from JWT: {}", userId);
-            } catch (Exception e) {
-                logger.warn("Invalid JWT token: {}", e.getMessage());
-            }
-        }
-        
-        // If token is valid and user is not already authenticated
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                if (tokenManager.verifyAuthToken(jwt)) {
-                    // Create authentication token
-                    UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(userId, null, new ArrayList<>());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // Set authentication in security context
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.debug("Successfully authenticated user: {}", userId);
-                } else {
-                    logger.warn("JWT token validation failed for user: {}", userId);
-                }
-            } catch (Exception e) {
-                logger.error("Error validating JWT token for user {}: {}", userId, e.getMessage());
+        // Verify the JWT once and authenticate if the user is not already authenticated
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            // Revocation is checked after the cache, as cached principals may have been revoked since
+            Optional<TokenPrincipal> principal = verifiedTokenCache.validate(jwt);
+            if (principal.isPresent() && tokenRevocationList.isRevoked(principal.get().tokenId())) {
+                logger.warn("Revoked JWT token");
+            } else if (principal.isPresent()) {
+                String userId = principal.get().userId();
+                // Create authentication token
+                UsernamePasswordAuthenticationToken authToken = 
+                    new UsernamePasswordAuthenticationToken(userId, principal.get(), Collections.emptyList());
+                authToken.setDetails(authenticationDetailsSource.buildDetails(request));
+                
+                // Set authentication in security context
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                logger.debug("Successfully authenticated user: {}", userId);
+            } else {
+                logger.warn("Invalid JWT token");
             }
         }
         
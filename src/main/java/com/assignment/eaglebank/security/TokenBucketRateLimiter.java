@@ -0,0 +1,115 @@
+package com.assignment.eaglebank.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, spread over lock stripes so callers on different keys rarely contend.
+ * Each bucket is a single timestamp (GCRA): the time at which it would be full again. A bucket that has
+ * refilled completely is indistinguishable from a new one, so each stripe drops its least recently used
+ * bucket whenever that one is full, or once the stripe is at capacity, which bounds memory under a flood
+ * of distinct keys.
+ */
+public class TokenBucketRateLimiter {
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long nanosPerToken;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoTime;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillInterval, int stripes, int maxEntries) {
+        this(capacity, refillInterval, stripes, maxEntries, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, Duration refillInterval, int stripes, int maxEntries, LongSupplier nanoTime) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a power of two");
+        }
+
+        this.nanosPerToken = refillInterval.toNanos();
+        try {
+            this.burstToleranceNanos = Math.multiplyExact(capacity - 1L, nanosPerToken);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Capacity times refill interval is too large", e);
+        }
+        this.nanoTime = nanoTime;
+        this.stripeMask = stripes - 1;
+        this.stripes = new Stripe[stripes];
+        int maxEntriesPerStripe = Math.max(1, maxEntries / stripes);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(maxEntriesPerStripe);
+        }
+    }
+
+    /**
+     * Take one token for the key.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(String key) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & stripeMask];
+        long now = nanoTime.getAsLong();
+
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                stripe.now = now;
+                stripe.put(key, new Bucket(now + nanosPerToken));
+                return 0;
+            }
+
+            long fullAt = Math.max(bucket.fullAt, now);
+            long wait = fullAt - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            bucket.fullAt = fullAt + nanosPerToken;
+            return 0;
+        }
+    }
+
+    /**
+     * Number of buckets currently tracked.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class Bucket {
+
+        private long fullAt;
+
+        private Bucket(long fullAt) {
+            this.fullAt = fullAt;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+
+        private final int maxEntries;
+        private long now;
+
+        private Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxEntries || eldest.getValue().fullAt <= now;
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.assignment.eaglebank.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Utility class for JWT token operations including generation, validation, and extraction.
+ * The signing key and parser are built once at startup and shared, as both are immutable and thread-safe.
+ * Access tokens are short-lived; refresh tokens live longer and are only accepted by the refresh endpoint.
+ * Every token carries a unique jti so it can be revoked before it expires.
  */
 @Component
 public class TokenManager {
@@ -19,25 +26,89 @@ public class TokenManager {
     @Value("${eaglebank.jwt.secret}")
     private String secret;
     
+    private static final String TOKEN_TYPE_CLAIM = "token_type";
+    private static final String ACCESS_TOKEN_TYPE = "access";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+    
     @Value("${eaglebank.jwt.expiration}")
     private Long expiration;
     
+    @Value("${eaglebank.jwt.refresh-expiration:604800000}")
+    private Long refreshExpiration;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
     
     public String createAuthToken(String userId, String email) {
+        return createToken(userId, email, ACCESS_TOKEN_TYPE, expiration);
+    }
+    
+    public String createRefreshToken(String userId, String email) {
+        return createToken(userId, email, REFRESH_TOKEN_TYPE, refreshExpiration);
+    }
+    
+    public long getAuthTokenLifetimeSeconds() {
+        return Duration.ofMillis(expiration).toSeconds();
+    }
+    
+    private String createToken(String userId, String email, String tokenType, long lifetimeMillis) {
         return Jwts.builder()
                 .issuer("Eagle Bank")
+                .id(UUID.randomUUID().toString())
                 .subject(userId)
                 .claim("userId", userId)
                 .claim("email", email)
+                .claim(TOKEN_TYPE_CLAIM, tokenType)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .expiration(new Date(System.currentTimeMillis() + lifetimeMillis))
                 .signWith(getSigningKey())
                 .compact();
     }
     
+    /**
+     * Verify the access token signature and expiry with a single parse and return its principal.
+     * Returns empty if the token is malformed, tampered with, expired, a refresh token or missing required claims.
+     */
+    public Optional<TokenPrincipal> validateAuthToken(String token) {
+        return validateToken(token, ACCESS_TOKEN_TYPE);
+    }
+    
+    /**
+     * Verify a refresh token the same way. Revocation is checked by the caller.
+     */
+    public Optional<TokenPrincipal> validateRefreshToken(String token) {
+        return validateToken(token, REFRESH_TOKEN_TYPE);
+    }
+    
+    private Optional<TokenPrincipal> validateToken(String token, String tokenType) {
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            String userId = claims.get("userId", String.class);
+            String tokenId = claims.getId();
+            Date expiresAt = claims.getExpiration();
+            if (userId == null || tokenId == null || expiresAt == null
+                    || !tokenType.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+                return Optional.empty();
+            }
+            return Optional.of(new TokenPrincipal(userId, claims.get("email", String.class), expiresAt.toInstant(), tokenId));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+    
     public String getUserIdFromToken(String token) {
         return extractClaim(token, claims -> claims.get("userId", String.class));
     }
@@ -61,9 +132,7 @@ public class TokenManager {
     
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return jwtParser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (JwtException e) {
@@ -80,11 +149,6 @@ public class TokenManager {
     }
     
     public Boolean verifyAuthToken(String token) {
-        try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return validateAuthToken(token).isPresent();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.assignment.eaglebank.security;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by a verified JWT, along with the token's unique id (jti) used for revocation.
+ */
+public record TokenPrincipal(String userId, String email, Instant expiresAt, String tokenId) {
+}
@@ -0,0 +1,186 @@
+package com.assignment.eaglebank.security;
+
+import com.assignment.eaglebank.entity.RevokedTokenEntity;
+import com.assignment.eaglebank.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory list of revoked token ids, checked on every authenticated request without touching the database.
+ * A Bloom filter answers the common "not revoked" case from a compact bitset; only ids it reports as possibly
+ * revoked are confirmed against the exact set, which rules out false positives.
+ * Revocations are inserted into the database first, where the primary key lets only one request revoke a
+ * given token across all instances, and the list can be rebuilt at startup from a single-column query over
+ * unexpired rows. The filter is rebuilt from the database, dropping expired ids, once it holds more ids than
+ * it was sized for. Revocations made by other instances are loaded every refresh interval, so logging out on
+ * one instance ends the session on all of them within that interval; {@link #revoke} refuses them straight away.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    // Allowance for clock skew between instances and for revocations committed after a refresh started
+    private static final Duration REFRESH_LOOKBACK = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final Clock clock;
+    private final Counter falsePositives;
+
+    private volatile Snapshot snapshot;
+    private volatile OffsetDateTime lastRefresh;
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${eaglebank.jwt.revocation.expected-revocations:100000}") int expectedRevocations,
+                               @Value("${eaglebank.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                               MeterRegistry meterRegistry) {
+        this(revokedTokenRepository, expectedRevocations, falsePositiveRate, meterRegistry, Clock.systemUTC());
+    }
+
+    TokenRevocationList(RevokedTokenRepository revokedTokenRepository, int expectedRevocations,
+                        double falsePositiveRate, MeterRegistry meterRegistry, Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.lastRefresh = OffsetDateTime.now(clock);
+        this.snapshot = new Snapshot(new BloomFilter(expectedRevocations, falsePositiveRate),
+                ConcurrentHashMap.newKeySet(), expectedRevocations);
+        this.falsePositives = Counter.builder("eaglebank.auth.token.revocation.false_positives")
+                .description("Revocation checks where the Bloom filter matched but the token was not revoked")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.auth.token.revocations", this, TokenRevocationList::size)
+                .description("Revoked, unexpired token ids held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the token id has been revoked. Never touches the database.
+     */
+    public boolean isRevoked(String tokenId) {
+        Snapshot current = snapshot;
+        if (!current.filter().mightContain(tokenId)) {
+            return false;
+        }
+        if (current.tokenIds().contains(tokenId)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Persist and apply a revocation. Returns false if the token was already revoked, here or by another
+     * instance, so callers can make single-use tokens fail for every presenter after the first.
+     * The database insert is the arbiter and runs outside the lock; only the in-memory update is serialised.
+     */
+    public boolean revoke(TokenPrincipal principal) {
+        if (snapshot.tokenIds().contains(principal.tokenId())) {
+            return false;
+        }
+
+        boolean revoked;
+        try {
+            revokedTokenRepository.saveAndFlush(new RevokedTokenEntity(principal.tokenId(), principal.userId(),
+                    principal.expiresAt().atOffset(ZoneOffset.UTC)));
+            revoked = true;
+        } catch (DataIntegrityViolationException e) {
+            // The primary key already exists: another request or instance revoked the token first
+            logger.debug("Token {} was already revoked", principal.tokenId());
+            revoked = false;
+        }
+        apply(principal.tokenId());
+        return revoked;
+    }
+
+    /**
+     * Pick up revocations made by other instances since the last refresh or rebuild, so a token revoked
+     * anywhere is refused here within one refresh interval. Looks back a little further than the last
+     * refresh, as revocation times come from each instance's own clock and a revocation may commit after
+     * the refresh that should have seen it; ids already held are skipped. Returns the number of ids added.
+     */
+    @Scheduled(fixedDelayString = "${eaglebank.jwt.revocation.refresh-interval-ms:5000}",
+               initialDelayString = "${eaglebank.jwt.revocation.refresh-interval-ms:5000}")
+    public int refresh() {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        List<String> tokenIds = revokedTokenRepository.findTokenIdsRevokedSince(lastRefresh.minus(REFRESH_LOOKBACK), now);
+        lastRefresh = now;
+
+        int added = 0;
+        for (String tokenId : tokenIds) {
+            if (apply(tokenId)) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            logger.debug("Picked up {} revocations made by other instances", added);
+        }
+        return added;
+    }
+
+    private synchronized boolean apply(String tokenId) {
+        Snapshot current = snapshot;
+        // Exact set first, so a reader that sees the filter bits also finds the id
+        if (!current.tokenIds().add(tokenId)) {
+            return false;
+        }
+        current.filter().put(tokenId);
+
+        if (current.tokenIds().size() > current.capacity()) {
+            rebuild();
+        }
+        return true;
+    }
+
+    /**
+     * Reload unexpired revocations from the database into a freshly sized filter.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        lastRefresh = now;
+        int purged = revokedTokenRepository.deleteExpired(now);
+        List<String> tokenIds = revokedTokenRepository.findUnexpiredTokenIds(now);
+
+        // Leave headroom so a steady stream of logouts does not trigger a rebuild straight away
+        int capacity = Math.max(expectedRevocations, tokenIds.size() * 2);
+        BloomFilter filter = new BloomFilter(capacity, falsePositiveRate);
+        Set<String> exact = ConcurrentHashMap.newKeySet(capacity);
+        for (String tokenId : tokenIds) {
+            exact.add(tokenId);
+            filter.put(tokenId);
+        }
+        snapshot = new Snapshot(filter, exact, capacity);
+
+        logger.info("Loaded {} revoked tokens ({} expired purged) into a {} KiB revocation filter in {} ms",
+                tokenIds.size(), purged, filter.bitCount() / 8 / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int size() {
+        return snapshot.tokenIds().size();
+    }
+
+    private record Snapshot(BloomFilter filter, Set<String> tokenIds, int capacity) {
+    }
+}
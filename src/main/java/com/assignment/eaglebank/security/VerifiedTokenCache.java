@@ -0,0 +1,150 @@
+package com.assignment.eaglebank.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of successfully verified JWTs so a token reused across many requests is only
+ * HMAC-verified once. Entries are keyed by the SHA-256 digest of the token, so raw bearer tokens
+ * are never held in memory, and each entry expires at the token's exp claim.
+ * Only valid tokens are cached; the expiry is re-checked on every hit so a token is never
+ * accepted past its exp, even if eviction has not caught up yet.
+ * Validation latency is timed by result and by whether the signature had to be verified,
+ * and the cache's hit, miss and eviction counts are published as cache metrics.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final TokenManager tokenManager;
+    private final Clock clock;
+    private final Cache<String, TokenPrincipal> cache;
+    private final Timer cachedValidTimer;
+    private final Timer cachedExpiredTimer;
+    private final Timer verifiedValidTimer;
+    private final Timer verifiedInvalidTimer;
+
+    @Autowired
+    public VerifiedTokenCache(TokenManager tokenManager,
+                              @Value("${eaglebank.jwt.cache.enabled:false}") boolean enabled,
+                              @Value("${eaglebank.jwt.cache.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this(tokenManager, enabled, maxSize, meterRegistry, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(TokenManager tokenManager, boolean enabled, long maxSize, MeterRegistry meterRegistry,
+                       Clock clock, Ticker ticker) {
+        this.tokenManager = tokenManager;
+        this.clock = clock;
+        this.cache = enabled ? Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String digest, TokenPrincipal principal) -> timeToExpiry(principal)))
+                .ticker(ticker)
+                .recordStats()
+                .build() : null;
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-tokens");
+        }
+        this.cachedValidTimer = validationTimer(meterRegistry, "cache", "valid");
+        this.cachedExpiredTimer = validationTimer(meterRegistry, "cache", "expired");
+        this.verifiedValidTimer = validationTimer(meterRegistry, "signature", "valid");
+        this.verifiedInvalidTimer = validationTimer(meterRegistry, "signature", "invalid");
+    }
+
+    /**
+     * Validate the token, serving previously verified tokens from the cache.
+     * Returns empty if the token is invalid or expired.
+     */
+    public Optional<TokenPrincipal> validate(String token) {
+        long start = System.nanoTime();
+        if (cache == null) {
+            return verify(token, start);
+        }
+
+        String digest = digest(token);
+        TokenPrincipal cached = cache.getIfPresent(digest);
+        if (cached != null) {
+            if (isUnexpired(cached)) {
+                cachedValidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return Optional.of(cached);
+            }
+            cache.invalidate(digest);
+            cachedExpiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+
+        Optional<TokenPrincipal> principal = verify(token, start);
+        principal.filter(this::isUnexpired).ifPresent(verified -> cache.put(digest, verified));
+        return principal;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Hit, miss and eviction counts since startup, or empty stats when the cache is disabled.
+     */
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    public long estimatedSize() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    private Optional<TokenPrincipal> verify(String token, long start) {
+        Optional<TokenPrincipal> principal = tokenManager.validateAuthToken(token);
+        (principal.isPresent() ? verifiedValidTimer : verifiedInvalidTimer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return principal;
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String source, String result) {
+        return Timer.builder("eaglebank.auth.token.validation")
+                .description("Time to validate a bearer token")
+                .tag("source", source)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private boolean isUnexpired(TokenPrincipal principal) {
+        return principal.expiresAt().isAfter(clock.instant());
+    }
+
+    private Duration timeToExpiry(TokenPrincipal principal) {
+        Duration remaining = Duration.between(clock.instant(), principal.expiresAt());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        return Base64.getEncoder().withoutPadding()
+                .encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
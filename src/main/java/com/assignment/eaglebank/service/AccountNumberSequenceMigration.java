@@ -0,0 +1,68 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings the account number sequence in line with account numbers that already exist, so a
+ * database whose accounts were numbered by the old IDENTITY column keeps its numbers and new
+ * accounts carry on above the highest one. Creates the sequence if it is missing and moves it
+ * forward if it is at or below the highest account number; a sequence that is already ahead is
+ * left alone. Runs at startup, before Hibernate has reserved any block of numbers.
+ * The sequence statements are H2 specific, matching the configured dialect.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class AccountNumberSequenceMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountNumberSequenceMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountNumberSequenceMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void migrateOnStartup() {
+        migrate();
+    }
+
+    /**
+     * Align the sequence and return the next account number it will hand out.
+     */
+    public long migrate() {
+        long highest = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(account_number), 0) FROM accounts", Long.class);
+        Long next = nextSequenceValue();
+
+        if (next == null) {
+            jdbcTemplate.execute("CREATE SEQUENCE " + AccountEntity.ACCOUNT_NUMBER_SEQUENCE
+                    + " START WITH " + (highest + 1)
+                    + " INCREMENT BY " + AccountEntity.ACCOUNT_NUMBER_ALLOCATION_SIZE);
+            logger.info("Created account number sequence starting at {}", highest + 1);
+            return highest + 1;
+        }
+        if (next <= highest) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + AccountEntity.ACCOUNT_NUMBER_SEQUENCE
+                    + " RESTART WITH " + (highest + 1));
+            logger.info("Moved account number sequence from {} to {} past existing accounts", next, highest + 1);
+            return highest + 1;
+        }
+        return next;
+    }
+
+    private Long nextSequenceValue() {
+        return jdbcTemplate.query("""
+                SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+                WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = ?
+                """,
+                rs -> rs.next() ? rs.getLong(1) : null,
+                AccountEntity.ACCOUNT_NUMBER_SEQUENCE.toUpperCase());
+    }
+}
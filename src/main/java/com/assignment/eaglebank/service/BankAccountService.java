@@ -1,15 +1,20 @@
 package com.assignment.eaglebank.service;
 
 import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.BalanceCheckpointEntity;
 import com.assignment.eaglebank.entity.UserEntity;
 import com.assignment.eaglebank.exception.ResourceNotFoundException;
 import com.assignment.eaglebank.exception.AccessDeniedException;
 import com.assignment.eaglebank.exception.BusinessRuleViolationException;
 import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.BalanceCheckpointRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
 import com.assignment.eaglebank.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +24,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 // Import generated OpenAPI models
+import com.assignment.eaglebank.model.AccountBalanceResponse;
 import com.assignment.eaglebank.model.BankAccountResponse;
 import com.assignment.eaglebank.model.CreateBankAccountRequest;
 import com.assignment.eaglebank.model.UpdateBankAccountRequest;
@@ -39,6 +45,12 @@ public class BankAccountService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+    
     /**
      * Opens a new bank account for the authenticated user.
      */
@@ -95,6 +107,40 @@ public class BankAccountService {
         return convertToResponse(account);
     }
     
+    /**
+     * Gets an account's balance, now or as of a point in time.
+     * A past balance starts from the newest checkpoint at or before that time and adds only the
+     * transactions posted after the checkpoint, so it reads at most a checkpoint interval of
+     * transactions however long the history is. Without a checkpoint it sums the history from the start.
+     */
+    @Transactional(readOnly = true)
+    public AccountBalanceResponse getBalance(String userId, String accountNumber, OffsetDateTime asOf) {
+        logger.info("Getting balance of account {} as of {} for user: {}", accountNumber, asOf, userId);
+        
+        AccountEntity account = validateAccountAccess(userId, accountNumber);
+        BigDecimal balance = asOf == null
+            ? account.getBalance()
+            : balanceAsOf(account.getAccountNumber(), asOf);
+        
+        AccountBalanceResponse response = new AccountBalanceResponse();
+        response.setAccountNumber(account.getFormattedAccountNumber());
+        response.setBalance(balance.doubleValue());
+        response.setCurrency(AccountBalanceResponse.CurrencyEnum.fromValue(account.getCurrency()));
+        response.setAsOf(asOf == null ? OffsetDateTime.now() : asOf);
+        return response;
+    }
+    
+    private BigDecimal balanceAsOf(Long accountNumber, OffsetDateTime asOf) {
+        List<BalanceCheckpointEntity> checkpoints = balanceCheckpointRepository.findLatestAtOrBefore(
+            accountNumber, asOf, Limit.of(1));
+        if (checkpoints.isEmpty()) {
+            return transactionRepository.sumSignedAmountsUpTo(accountNumber, asOf);
+        }
+        BalanceCheckpointEntity checkpoint = checkpoints.get(0);
+        return checkpoint.getBalance().add(transactionRepository.sumSignedAmountsBetween(accountNumber,
+            checkpoint.getCheckpointTimestamp(), checkpoint.getTransactionId(), asOf));
+    }
+    
     /**
      * Modifies an existing account.
      */
@@ -125,8 +171,8 @@ public class BankAccountService {
         
         AccountEntity account = validateAccountAccess(userId, accountNumber);
         
-        // Check if account has transactions
-        if (account.getTransactions() != null && !account.getTransactions().isEmpty()) {
+        // Check if account has transactions with an existence query rather than loading the collection
+        if (transactionRepository.existsByAccountAccountNumber(account.getAccountNumber())) {
             throw new BusinessRuleViolationException("Cannot close account with existing transactions");
         }
         
@@ -135,7 +181,11 @@ public class BankAccountService {
             throw new BusinessRuleViolationException("Cannot close account with non-zero balance");
         }
         
-        accountRepository.delete(account);
+        // Bulk delete so the cascaded transactions collection is never initialised; a concurrent
+        // payment bumps the version and makes the delete match no rows
+        if (accountRepository.deleteByAccountNumberAndVersion(account.getAccountNumber(), account.getVersion()) == 0) {
+            throw new OptimisticLockingFailureException("Account " + accountNumber + " was modified while being closed");
+        }
         logger.info("Closed account: {}", accountNumber);
     }
     
@@ -156,7 +206,7 @@ public class BankAccountService {
     /**
      * Converts AccountEntity to BankAccountResponse.
      */
-    private BankAccountResponse convertToResponse(AccountEntity account) {
+    BankAccountResponse convertToResponse(AccountEntity account) {
         BankAccountResponse response = new BankAccountResponse();
         response.setAccountNumber(account.getFormattedAccountNumber());
         response.setSortCode(BankAccountResponse.SortCodeEnum.fromValue(account.getSortCode()));
@@ -0,0 +1,297 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.IdempotencyRecordEntity;
+import com.assignment.eaglebank.exception.BusinessRuleViolationException;
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Makes transaction creation safe to retry with an Idempotency-Key.
+ * The first request with a key posts the payment and stores its response, in the payment's own database
+ * transaction, under the key scoped to the user; repeats of it get the stored response back without
+ * posting again. Recent responses are also held in a bounded in-memory cache, so most replays are
+ * answered without a database round trip. A duplicate arriving while the first is still running waits
+ * for it rather than racing it; across instances the primary key on the stored record lets only one of
+ * them commit. Only successful results are stored: a request that failed can be retried with the same key.
+ * Reusing a key for a different request is rejected. Records are kept for the configured TTL and purged
+ * in batches in the background.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PaymentService paymentService;
+    private final Optional<PaymentSequencer> paymentSequencer;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Duration ttl;
+    private final long inFlightWaitMs;
+    private final int purgeBatchSize;
+    private final Cache<String, StoredResult> recentResults;
+    private final ConcurrentMap<String, CompletableFuture<StoredResult>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(PaymentService paymentService,
+                              Optional<PaymentSequencer> paymentSequencer,
+                              IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${eaglebank.idempotency.ttl-ms:86400000}") long ttlMs,
+                              @Value("${eaglebank.idempotency.cache.max-size:10000}") long cacheMaxSize,
+                              @Value("${eaglebank.idempotency.in-flight-wait-ms:10000}") long inFlightWaitMs,
+                              @Value("${eaglebank.idempotency.purge-batch-size:500}") int purgeBatchSize) {
+        this(paymentService, paymentSequencer, idempotencyRecordRepository, objectMapper, meterRegistry,
+                Clock.systemUTC(), ttlMs, cacheMaxSize, inFlightWaitMs, purgeBatchSize);
+    }
+
+    IdempotencyService(PaymentService paymentService, Optional<PaymentSequencer> paymentSequencer,
+                       IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry, Clock clock, long ttlMs, long cacheMaxSize, long inFlightWaitMs,
+                       int purgeBatchSize) {
+        this.paymentService = paymentService;
+        this.paymentSequencer = paymentSequencer;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.inFlightWaitMs = inFlightWaitMs;
+        this.purgeBatchSize = purgeBatchSize;
+        this.recentResults = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recentResults, "idempotency-keys");
+    }
+
+    /**
+     * Processes a transaction at most once per user and Idempotency-Key, returning the original
+     * response, flagged as replayed, for repeats.
+     */
+    public IdempotentResponse processTransaction(String userId, String accountNumber, String idempotencyKey,
+                                                 CreateTransactionRequest request) {
+        String scopedKey = userId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(accountNumber, request);
+
+        while (true) {
+            StoredResult cached = recentResults.getIfPresent(scopedKey);
+            if (cached != null) {
+                return replay(cached, fingerprint, "cached");
+            }
+
+            CompletableFuture<StoredResult> claim = new CompletableFuture<>();
+            CompletableFuture<StoredResult> running = inFlight.putIfAbsent(scopedKey, claim);
+            if (running == null) {
+                return executeOnce(userId, accountNumber, request, scopedKey, fingerprint, claim);
+            }
+            Optional<StoredResult> joined = await(running);
+            if (joined.isPresent()) {
+                return replay(joined.get(), fingerprint, "joined");
+            }
+            // The request we waited for failed and stored nothing, so this one runs as if it came after
+        }
+    }
+
+    /**
+     * Deletes expired records in batches of purge-batch-size until none are left, returning how many
+     * were deleted. Each batch is its own short transaction.
+     */
+    @Scheduled(fixedDelayString = "${eaglebank.idempotency.purge-interval-ms:60000}",
+               initialDelayString = "${eaglebank.idempotency.purge-interval-ms:60000}")
+    public int purgeExpired() {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        int purged = 0;
+        List<String> expired;
+        do {
+            expired = idempotencyRecordRepository.findExpiredKeys(now, Limit.of(purgeBatchSize));
+            if (!expired.isEmpty()) {
+                idempotencyRecordRepository.deleteAllByIdInBatch(expired);
+                purged += expired.size();
+            }
+        } while (expired.size() == purgeBatchSize);
+
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+            meterRegistry.counter("eaglebank.payments.idempotency.purged").increment(purged);
+        }
+        return purged;
+    }
+
+    private IdempotentResponse executeOnce(String userId, String accountNumber, CreateTransactionRequest request,
+                                           String scopedKey, String fingerprint, CompletableFuture<StoredResult> claim) {
+        try {
+            Optional<StoredResult> stored = findStored(scopedKey);
+            if (stored.isPresent()) {
+                remember(scopedKey, stored.get(), claim);
+                return replay(stored.get(), fingerprint, "stored");
+            }
+
+            TransactionResponse response;
+            try {
+                Consumer<TransactionResponse> storeRecord =
+                        created -> entityManager.persist(newRecord(scopedKey, fingerprint, created));
+                response = paymentSequencer.isPresent()
+                        ? paymentSequencer.get().processTransaction(userId, accountNumber, request, storeRecord)
+                        : paymentService.processTransaction(userId, accountNumber, request, storeRecord);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance committed this key first and this payment was rolled back
+                StoredResult winner = findStored(scopedKey).orElseThrow(() -> e);
+                remember(scopedKey, winner, claim);
+                return replay(winner, fingerprint, "stored");
+            }
+
+            StoredResult result = new StoredResult(fingerprint, response);
+            remember(scopedKey, result, claim);
+            outcome("executed");
+            return new IdempotentResponse(response, false);
+        } catch (RuntimeException e) {
+            claim.complete(null);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, claim);
+        }
+    }
+
+    /**
+     * Caches the result before releasing waiters, so a request arriving after the claim is removed finds it
+     */
+    private void remember(String scopedKey, StoredResult result, CompletableFuture<StoredResult> claim) {
+        recentResults.put(scopedKey, result);
+        claim.complete(result);
+    }
+
+    private Optional<StoredResult> findStored(String scopedKey) {
+        Optional<IdempotencyRecordEntity> record = idempotencyRecordRepository.findById(scopedKey);
+        if (record.isPresent() && record.get().isExpired(OffsetDateTime.now(clock))) {
+            // Not purged yet; remove it so the key can be used again
+            idempotencyRecordRepository.delete(record.get());
+            return Optional.empty();
+        }
+        return record.map(found -> new StoredResult(found.getRequestFingerprint(), readResponse(found.getResponseBody())));
+    }
+
+    private Optional<StoredResult> await(CompletableFuture<StoredResult> running) {
+        try {
+            return Optional.ofNullable(running.get(inFlightWaitMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            outcome("timed_out");
+            throw new ServiceOverloadedException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for a request with the same Idempotency-Key");
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private IdempotentResponse replay(StoredResult result, String fingerprint, String source) {
+        if (!result.fingerprint().equals(fingerprint)) {
+            outcome("rejected");
+            throw new BusinessRuleViolationException("Idempotency-Key has already been used for a different request");
+        }
+        outcome(source);
+        return new IdempotentResponse(result.response(), true);
+    }
+
+    private void outcome(String outcome) {
+        Counter.builder("eaglebank.payments.idempotency.requests")
+                .description("Transactions requested with an Idempotency-Key, by how they were answered")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private IdempotencyRecordEntity newRecord(String scopedKey, String fingerprint, TransactionResponse response) {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        return new IdempotencyRecordEntity(scopedKey, fingerprint, writeResponse(response), now, now.plus(ttl));
+    }
+
+    private String writeResponse(TransactionResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise transaction " + response.getId(), e);
+        }
+    }
+
+    private TransactionResponse readResponse(String responseBody) {
+        try {
+            return objectMapper.readValue(responseBody, TransactionResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored idempotent response", e);
+        }
+    }
+
+    /**
+     * Digest of everything that defines the request, so a key reused with different details is detected
+     */
+    static String fingerprint(String accountNumber, CreateTransactionRequest request) {
+        String canonical = String.join("\n",
+                accountNumber,
+                String.valueOf(request.getAmount()),
+                String.valueOf(request.getCurrency()),
+                String.valueOf(request.getType()),
+                String.valueOf(request.getReference()));
+        return HexFormat.of().formatHex(SHA_256.get().digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record StoredResult(String fingerprint, TransactionResponse response) {
+    }
+
+    /**
+     * A transaction response and whether it was replayed from an earlier request with the same key
+     */
+    public record IdempotentResponse(TransactionResponse response, boolean replayed) {
+    }
+}
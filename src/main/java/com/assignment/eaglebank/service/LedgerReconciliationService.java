@@ -0,0 +1,260 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.repository.AccountLedgerTotals;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.security.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Checks that every account's balance equals the signed sum of its transactions.
+ * The account number range is split into chunks of chunk-size numbers. A fixed number of workers on
+ * virtual threads take chunks in turn and total each one with a single read-only aggregate query, so a
+ * worker holds at most one chunk of totals and one connection at a time, and the job can run on the read
+ * replica when one is configured. Chunks are started no faster than max-chunks-per-second so the job
+ * does not crowd out online traffic. Accounts that do not add up are written to a newline-delimited
+ * JSON report, one file per run.
+ */
+@Service
+public class LedgerReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReconciliationService.class);
+
+    private static final String RATE_LIMIT_KEY = "ledger-reconciliation";
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter reportWriter;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int parallelism;
+    private final TokenBucketRateLimiter chunkRateLimiter;
+    private final Path reportDirectory;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong chunksDone = new AtomicLong();
+    private volatile long chunksTotal;
+    private final Counter accountsChecked;
+    private final Counter transactionsChecked;
+    private final Counter discrepanciesFound;
+    private final Counter chunkFailures;
+
+    public LedgerReconciliationService(AccountRepository accountRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${eaglebank.reconciliation.chunk-size:1000}") int chunkSize,
+                                       @Value("${eaglebank.reconciliation.parallelism:4}") int parallelism,
+                                       @Value("${eaglebank.reconciliation.max-chunks-per-second:20}") int maxChunksPerSecond,
+                                       @Value("${eaglebank.reconciliation.report-dir:target/reconciliation}") Path reportDirectory) {
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Reconciliation needs a chunk size and parallelism of at least one");
+        }
+        this.accountRepository = accountRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.reportWriter = objectMapper.writerFor(Discrepancy.class);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.chunkRateLimiter = maxChunksPerSecond > 0
+            ? new TokenBucketRateLimiter(1, Duration.ofNanos(1_000_000_000L / maxChunksPerSecond), 1, 1)
+            : null;
+        this.reportDirectory = reportDirectory;
+        this.accountsChecked = Counter.builder("eaglebank.reconciliation.accounts")
+            .description("Accounts whose balance has been checked against their transactions")
+            .register(meterRegistry);
+        this.transactionsChecked = Counter.builder("eaglebank.reconciliation.transactions")
+            .description("Transactions summed while reconciling balances")
+            .register(meterRegistry);
+        this.discrepanciesFound = Counter.builder("eaglebank.reconciliation.discrepancies")
+            .description("Accounts whose balance did not match their transactions")
+            .register(meterRegistry);
+        this.chunkFailures = Counter.builder("eaglebank.reconciliation.chunk.failures")
+            .description("Account ranges that could not be reconciled")
+            .register(meterRegistry);
+        Gauge.builder("eaglebank.reconciliation.progress", this, LedgerReconciliationService::progress)
+            .description("Fraction of the account number range reconciled by the current or last run")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reconciles every account and writes the accounts that do not add up to a new report file.
+     * Runs on the reconciliation cron and can be called directly; a call while a run is in progress fails.
+     */
+    @Scheduled(cron = "${eaglebank.reconciliation.cron:0 30 2 * * *}")
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ledger reconciliation is already running");
+        }
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(reportDirectory);
+            Path reportFile = reportDirectory.resolve("ledger-reconciliation-" + Instant.now().toEpochMilli() + ".ndjson");
+            RunTotals totals = new RunTotals();
+            try (BufferedWriter report = Files.newBufferedWriter(reportFile)) {
+                reconcileAll(report, totals);
+            }
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+            meterRegistry.timer("eaglebank.reconciliation.duration").record(elapsed);
+            ReconciliationReport result = new ReconciliationReport(totals.accounts.sum(), totals.transactions.sum(),
+                totals.discrepancies.sum(), totals.failedChunks.sum(), reportFile, elapsed);
+            logger.info("Reconciled {} accounts and {} transactions in {} ms ({} transactions/s): {} discrepancies, "
+                    + "{} failed ranges, report {}", result.accounts(), result.transactions(), elapsed.toMillis(),
+                result.transactions() * 1000 / Math.max(1, elapsed.toMillis()), result.discrepancies(),
+                result.failedChunks(), reportFile);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the reconciliation report to " + reportDirectory, e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void reconcileAll(BufferedWriter report, RunTotals totals) {
+        chunksDone.set(0);
+        chunksTotal = 0;
+        List<Long> range = readOnlyTransaction.execute(status -> accountRepository.findMinAccountNumber()
+            .flatMap(min -> accountRepository.findMaxAccountNumber().map(max -> List.of(min, max)))
+            .orElse(List.of()));
+        if (range.isEmpty()) {
+            return;
+        }
+        long first = range.get(0);
+        long last = range.get(1);
+        long chunks = Math.ceilDiv(last - first + 1, chunkSize);
+        chunksTotal = chunks;
+
+        AtomicLong nextChunk = new AtomicLong();
+        Runnable worker = () -> {
+            long chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                awaitRateLimit();
+                long from = first + chunk * chunkSize;
+                reconcileChunk(from, from + chunkSize, report, totals);
+                chunksDone.incrementAndGet();
+            }
+        };
+        List<Future<?>> results = new ArrayList<>(parallelism);
+        // Closing the executor waits for every worker to finish
+        try (ExecutorService workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("ledger-reconciliation-", 0).factory())) {
+            for (int i = 0; i < parallelism; i++) {
+                results.add(workers.submit(worker));
+            }
+        }
+        for (Future<?> finished : results) {
+            if (finished.state() == Future.State.FAILED) {
+                throw new IllegalStateException("Ledger reconciliation stopped early", finished.exceptionNow());
+            }
+        }
+    }
+
+    private void reconcileChunk(long from, long to, BufferedWriter report, RunTotals totals) {
+        List<AccountLedgerTotals> ledger;
+        try {
+            ledger = readOnlyTransaction.execute(status -> accountRepository.findLedgerTotals(from, to));
+        } catch (RuntimeException e) {
+            logger.warn("Could not reconcile accounts {} to {}: {}", from, to - 1, e.getMessage());
+            totals.failedChunks.increment();
+            chunkFailures.increment();
+            return;
+        }
+
+        long transactions = 0;
+        for (AccountLedgerTotals account : ledger) {
+            transactions += account.transactions();
+            if (account.isDiscrepant()) {
+                writeDiscrepancy(report, account);
+                totals.discrepancies.increment();
+                discrepanciesFound.increment();
+            }
+        }
+        totals.accounts.add(ledger.size());
+        totals.transactions.add(transactions);
+        accountsChecked.increment(ledger.size());
+        transactionsChecked.increment(transactions);
+    }
+
+    private void writeDiscrepancy(BufferedWriter report, AccountLedgerTotals account) {
+        logger.warn("Balance of account {} is {} but its transactions add up to {}",
+            AccountEntity.formatAccountNumber(account.accountNumber()), account.balance(), account.transactionSum());
+        Discrepancy discrepancy = new Discrepancy(AccountEntity.formatAccountNumber(account.accountNumber()),
+            account.balance(), account.transactionSum(), account.balance().subtract(account.transactionSum()),
+            account.transactions());
+        try {
+            String line = reportWriter.writeValueAsString(discrepancy);
+            synchronized (report) {
+                report.write(line);
+                report.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the reconciliation report", e);
+        }
+    }
+
+    private void awaitRateLimit() {
+        if (chunkRateLimiter == null) {
+            return;
+        }
+        long wait;
+        while ((wait = chunkRateLimiter.tryAcquire(RATE_LIMIT_KEY)) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private double progress() {
+        long total = chunksTotal;
+        return total == 0 ? (running.get() ? 0 : 1) : (double) chunksDone.get() / total;
+    }
+
+    /**
+     * Outcome of a reconciliation run
+     */
+    public record ReconciliationReport(long accounts, long transactions, long discrepancies, long failedChunks,
+                                       Path reportFile, Duration elapsed) {
+    }
+
+    /**
+     * A line of the report: an account whose balance differs from the sum of its transactions
+     */
+    public record Discrepancy(String accountNumber, BigDecimal balance, BigDecimal transactionSum,
+                              BigDecimal difference, long transactions) {
+    }
+
+    private static final class RunTotals {
+        private final LongAdder accounts = new LongAdder();
+        private final LongAdder transactions = new LongAdder();
+        private final LongAdder discrepancies = new LongAdder();
+        private final LongAdder failedChunks = new LongAdder();
+    }
+}
@@ -0,0 +1,22 @@
+package com.assignment.eaglebank.service;
+
+/**
+ * Strategy used to protect account balances against concurrent payments.
+ * Selected with the eaglebank.payments.concurrency-mode property.
+ */
+public enum PaymentConcurrencyMode {
+    /**
+     * Version check on commit, retried a bounded number of times on conflict
+     */
+    OPTIMISTIC,
+
+    /**
+     * Row lock (SELECT ... FOR UPDATE) taken before the balance is read
+     */
+    PESSIMISTIC,
+
+    /**
+     * Payments queued per account onto single-threaded lanes, each committing several at a time
+     */
+    SEQUENCED
+}
@@ -0,0 +1,310 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.PaymentIntentEntity;
+import com.assignment.eaglebank.entity.PaymentIntentStatus;
+import com.assignment.eaglebank.entity.TransactionType;
+import com.assignment.eaglebank.exception.AccessDeniedException;
+import com.assignment.eaglebank.exception.ResourceNotFoundException;
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.PaymentIntentResponse;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.PaymentIntentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Accepts deposits and withdrawals for background settlement and settles them in batches.
+ * Submitting checks ownership and the amount and stores a PENDING intent, so the request thread and its
+ * connection are free as soon as that insert commits. A pool of settlement workers, each owning a
+ * partition of account numbers, then takes the oldest pending intents of its partition, applies them
+ * through {@link PaymentService#processTransactionGroup} and marks each COMPLETED or REJECTED in the same
+ * database transaction as the posting, so an intent is settled exactly once. Balance checks happen at
+ * settlement, with the same rules, and the same insufficient-funds message, as a synchronous payment.
+ * If a batch fails to commit, its intents are settled one at a time, and one that still cannot be
+ * settled is rejected rather than retried forever.
+ * Submissions are shed with a {@link ServiceOverloadedException} once max-pending intents are waiting.
+ */
+@Service
+public class PaymentIntentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentIntentService.class);
+
+    private final PaymentIntentRepository paymentIntentRepository;
+    private final AccountRepository accountRepository;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int workers;
+    private final int batchSize;
+    private final long maxPending;
+    private final long pollIntervalMs;
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter batchFailures;
+    private ScheduledExecutorService settlementWorkers;
+
+    public PaymentIntentService(PaymentIntentRepository paymentIntentRepository,
+                                AccountRepository accountRepository,
+                                PaymentService paymentService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${eaglebank.payments.intents.workers:2}") int workers,
+                                @Value("${eaglebank.payments.intents.batch-size:100}") int batchSize,
+                                @Value("${eaglebank.payments.intents.max-pending:10000}") long maxPending,
+                                @Value("${eaglebank.payments.intents.poll-interval-ms:200}") long pollIntervalMs) {
+        if (workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Payment intents need at least one worker and a batch size of at least one");
+        }
+        this.paymentIntentRepository = paymentIntentRepository;
+        this.accountRepository = accountRepository;
+        this.paymentService = paymentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchFailures = Counter.builder("eaglebank.payments.intents.batch.failures")
+                .description("Settlement batches that failed to commit and were settled one intent at a time")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.payments.intents.pending", pending, AtomicLong::get)
+                .description("Payment intents waiting to be settled")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void startSettlementWorkers() {
+        pending.set(paymentIntentRepository.countByStatus(PaymentIntentStatus.PENDING));
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("payment-intent-");
+        threadFactory.setDaemon(true);
+        settlementWorkers = Executors.newScheduledThreadPool(workers, threadFactory);
+        for (int partition = 0; partition < workers; partition++) {
+            int owned = partition;
+            settlementWorkers.scheduleWithFixedDelay(() -> settlePartition(owned),
+                    pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Started {} payment intent settlement workers with {} intents pending", workers, pending.get());
+    }
+
+    @PreDestroy
+    void stopSettlementWorkers() throws InterruptedException {
+        if (settlementWorkers != null) {
+            settlementWorkers.shutdown();
+            settlementWorkers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stores a deposit or withdrawal to be settled in the background and returns it as pending.
+     */
+    @Transactional
+    public PaymentIntentResponse submitPaymentIntent(String userId, String accountNumber, CreateTransactionRequest request) {
+        logger.info("Submitting payment intent for account {} by user: {}", accountNumber, userId);
+
+        AccountEntity account = validateAccountOwnership(userId, accountNumber);
+        BigDecimal amount = BigDecimal.valueOf(request.getAmount());
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be positive");
+        }
+        if (pending.get() >= maxPending) {
+            meterRegistry.counter("eaglebank.payments.rejections", "reason", "intent_backlog").increment();
+            throw new ServiceOverloadedException("Too many payments are waiting to be settled. Please retry shortly.");
+        }
+
+        PaymentIntentEntity intent = paymentIntentRepository.save(new PaymentIntentEntity(account.getAccountNumber(),
+                userId, amount, request.getCurrency().getValue(),
+                TransactionType.fromValue(request.getType().getValue()), request.getReference(), OffsetDateTime.now()));
+        pending.incrementAndGet();
+
+        logger.info("Payment intent {} pending for account {}", intent.getId(), accountNumber);
+        return buildPaymentIntentResponse(intent);
+    }
+
+    /**
+     * Retrieves a payment intent of the user's account, with its outcome once settled.
+     */
+    @Transactional(readOnly = true)
+    public PaymentIntentResponse retrievePaymentIntent(String userId, String accountNumber, String intentId) {
+        AccountEntity account = validateAccountOwnership(userId, accountNumber);
+        return paymentIntentRepository.findByIdAndUserId(intentId, userId)
+                .filter(intent -> intent.getAccountNumber().equals(account.getAccountNumber()))
+                .map(this::buildPaymentIntentResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment intent not found with ID: " + intentId));
+    }
+
+    /**
+     * Settles everything pending in every partition, returning the number of intents settled.
+     * The workers settle their own partition on a schedule; this drains all of them at once.
+     */
+    public int settlePending() {
+        int settled = 0;
+        for (int partition = 0; partition < workers; partition++) {
+            settled += settlePartition(partition);
+        }
+        return settled;
+    }
+
+    private int settlePartition(int partition) {
+        int settled = 0;
+        try {
+            int batch;
+            do {
+                batch = settleBatch(partition);
+                settled += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Settling partition {} stopped after {} intents, will retry on the next poll: {}",
+                    partition, settled, e.getMessage());
+        } finally {
+            pending.set(paymentIntentRepository.countByStatus(PaymentIntentStatus.PENDING));
+        }
+        return settled;
+    }
+
+    private int settleBatch(int partition) {
+        List<PaymentIntentEntity> settled;
+        try {
+            settled = transactionTemplate.execute(status ->
+                    settle(paymentIntentRepository.findPendingForUpdate(workers, partition, Limit.of(batchSize))));
+        } catch (RuntimeException e) {
+            batchFailures.increment();
+            logger.warn("Settlement batch in partition {} failed to commit, settling its intents one at a time: {}",
+                    partition, e.getMessage());
+            return settleOneByOne(partition);
+        }
+        recordSettled(settled);
+        return settled.size();
+    }
+
+    /**
+     * Settles up to a batch of intents each in its own transaction. An intent that cannot be settled
+     * even on its own is rejected, so it does not fail every later attempt at its partition.
+     */
+    private int settleOneByOne(int partition) {
+        int settled = 0;
+        for (int i = 0; i < batchSize; i++) {
+            AtomicReference<String> current = new AtomicReference<>();
+            List<PaymentIntentEntity> result;
+            try {
+                result = transactionTemplate.execute(status -> {
+                    List<PaymentIntentEntity> next = paymentIntentRepository.findPendingForUpdate(workers, partition, Limit.of(1));
+                    next.forEach(intent -> current.set(intent.getId()));
+                    return settle(next);
+                });
+            } catch (RuntimeException e) {
+                if (current.get() == null) {
+                    throw e;
+                }
+                logger.warn("Rejecting payment intent {} that could not be settled: {}", current.get(), e.getMessage());
+                result = transactionTemplate.execute(status -> paymentIntentRepository.findById(current.get())
+                        .filter(PaymentIntentEntity::isPending)
+                        .map(intent -> {
+                            intent.reject("Payment could not be settled", OffsetDateTime.now());
+                            return List.of(intent);
+                        })
+                        .orElse(List.of()));
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+            recordSettled(result);
+            settled += result.size();
+        }
+        return settled;
+    }
+
+    /**
+     * Posts the intents as one group and marks each with its outcome. Runs inside the caller's transaction.
+     */
+    private List<PaymentIntentEntity> settle(List<PaymentIntentEntity> intents) {
+        if (intents.isEmpty()) {
+            return intents;
+        }
+        OffsetDateTime settledAt = OffsetDateTime.now();
+        List<SequencedPayment> payments = intents.stream()
+                .map(intent -> new SequencedPayment(intent.getUserId(),
+                        AccountEntity.formatAccountNumber(intent.getAccountNumber()), toRequest(intent),
+                        response -> intent.complete(response.getId(), settledAt), Timer.start(meterRegistry)))
+                .toList();
+
+        paymentService.processTransactionGroup(payments);
+
+        for (int i = 0; i < intents.size(); i++) {
+            SequencedPayment payment = payments.get(i);
+            payment.complete();
+            if (payment.result().isCompletedExceptionally()) {
+                intents.get(i).reject(payment.result().exceptionNow().getMessage(), settledAt);
+            }
+        }
+        return intents;
+    }
+
+    private void recordSettled(List<PaymentIntentEntity> settled) {
+        for (PaymentIntentEntity intent : settled) {
+            Timer.builder("eaglebank.payments.intents.settlement")
+                    .description("Time from a payment intent being submitted until its settlement committed")
+                    .tag("outcome", intent.getStatus().getValue())
+                    .register(meterRegistry)
+                    .record(Duration.between(intent.getCreatedTimestamp(), intent.getSettledTimestamp()));
+        }
+    }
+
+    private AccountEntity validateAccountOwnership(String userId, String accountNumber) {
+        Long accountId = AccountEntity.parseFormattedAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid account number format: " + accountNumber));
+        AccountEntity account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found: " + accountNumber));
+        if (!account.getUser().getId().equals(userId)) {
+            throw new AccessDeniedException("You don't have permission to access this account");
+        }
+        return account;
+    }
+
+    private static CreateTransactionRequest toRequest(PaymentIntentEntity intent) {
+        return new CreateTransactionRequest()
+                .amount(intent.getAmount().doubleValue())
+                .currency(CreateTransactionRequest.CurrencyEnum.fromValue(intent.getCurrency()))
+                .type(CreateTransactionRequest.TypeEnum.fromValue(intent.getType().getValue()))
+                .reference(intent.getReference());
+    }
+
+    private PaymentIntentResponse buildPaymentIntentResponse(PaymentIntentEntity intent) {
+        return new PaymentIntentResponse()
+                .id(intent.getId())
+                .accountNumber(AccountEntity.formatAccountNumber(intent.getAccountNumber()))
+                .status(PaymentIntentResponse.StatusEnum.fromValue(intent.getStatus().getValue()))
+                .amount(intent.getAmount().doubleValue())
+                .currency(PaymentIntentResponse.CurrencyEnum.fromValue(intent.getCurrency()))
+                .type(PaymentIntentResponse.TypeEnum.fromValue(intent.getType().getValue()))
+                .reference(intent.getReference())
+                .transactionId(intent.getTransactionId())
+                .failureReason(intent.getFailureReason())
+                .createdTimestamp(intent.getCreatedTimestamp())
+                .settledTimestamp(intent.getSettledTimestamp());
+    }
+}
@@ -0,0 +1,208 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.exception.ResourceNotFoundException;
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Posts deposits and withdrawals through a fixed set of single-threaded lanes instead of having every
+ * request thread contend for the account row. Each account number always hashes to the same lane, and
+ * a lane applies its queue in arrival order, so payments on one account never race each other in this
+ * instance. A lane takes whatever has queued up, up to the group size, and commits it as one database
+ * transaction, so a hot account pays for one lock and one commit per group rather than per payment.
+ * Callers block until their payment's group has committed and get the same response, or exception,
+ * they would get from {@link PaymentService}.
+ * If a group fails to commit, its payments are posted again one by one so that a single bad payment
+ * cannot fail the others. A full lane queue sheds new payments with a {@link ServiceOverloadedException}.
+ * Enabled with eaglebank.payments.concurrency-mode=sequenced; transfers and batches bypass the lanes and
+ * lock the account rows they touch, as the lanes do, so they wait for a group to commit instead of failing
+ * its version check.
+ */
+@Component
+@ConditionalOnProperty(name = "eaglebank.payments.concurrency-mode", havingValue = "sequenced")
+public class PaymentSequencer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSequencer.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final PaymentService paymentService;
+    private final MeterRegistry meterRegistry;
+    private final int maxGroupSize;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final DistributionSummary groupSize;
+    private final Counter groupFailures;
+    private volatile boolean running = true;
+
+    public PaymentSequencer(PaymentService paymentService,
+                            MeterRegistry meterRegistry,
+                            @Value("${eaglebank.payments.sequencer.lanes:4}") int laneCount,
+                            @Value("${eaglebank.payments.sequencer.queue-capacity:1000}") int queueCapacity,
+                            @Value("${eaglebank.payments.sequencer.max-group-size:64}") int maxGroupSize) {
+        if (laneCount < 1 || maxGroupSize < 1) {
+            throw new IllegalArgumentException("Sequencer needs at least one lane and a group size of at least one");
+        }
+        this.paymentService = paymentService;
+        this.meterRegistry = meterRegistry;
+        this.maxGroupSize = maxGroupSize;
+        this.groupSize = DistributionSummary.builder("eaglebank.payments.sequencer.group.size")
+                .description("Payments committed together by a sequencer lane")
+                .register(meterRegistry);
+        this.groupFailures = Counter.builder("eaglebank.payments.sequencer.group.failures")
+                .description("Groups that failed to commit and were posted again one payment at a time")
+                .register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("payment-lane-");
+        threadFactory.setDaemon(true);
+        for (int i = 0; i < laneCount; i++) {
+            Lane lane = new Lane(new ArrayBlockingQueue<>(queueCapacity));
+            lanes.add(lane);
+            lane.thread = threadFactory.newThread(lane::run);
+            lane.thread.start();
+        }
+        Gauge.builder("eaglebank.payments.sequencer.queued", lanes,
+                        all -> all.stream().mapToInt(lane -> lane.queue.size()).sum())
+                .description("Payments waiting on a sequencer lane")
+                .register(meterRegistry);
+        logger.info("Payment sequencer started with {} lanes", laneCount);
+    }
+
+    /**
+     * Queues a payment on its account's lane and waits until it has been committed or rejected.
+     */
+    public TransactionResponse processTransaction(String userId, String accountNumber, CreateTransactionRequest request) {
+        return processTransaction(userId, accountNumber, request, response -> { });
+    }
+
+    /**
+     * As above, handing the response to beforeCommit inside the group's database transaction.
+     * If what beforeCommit writes breaks the group's commit, the payment is posted again on its own,
+     * where the failure only affects this payment.
+     */
+    public TransactionResponse processTransaction(String userId, String accountNumber, CreateTransactionRequest request,
+                                                  Consumer<TransactionResponse> beforeCommit) {
+        Long accountId = AccountEntity.parseFormattedAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid account number format: " + accountNumber));
+        if (!running) {
+            throw new ServiceOverloadedException("Payments are not being accepted while the service shuts down");
+        }
+
+        SequencedPayment payment = new SequencedPayment(userId, accountNumber, request, beforeCommit,
+                Timer.start(meterRegistry));
+        Lane lane = laneFor(accountId);
+        if (!lane.queue.offer(payment)) {
+            meterRegistry.counter("eaglebank.payments.rejections", "reason", "sequencer_full").increment();
+            throw new ServiceOverloadedException("Too many payments are queued for this account. Please retry shortly.");
+        }
+        // Queued just as shutdown drained the lanes, so nothing would ever release it
+        if (!running && lane.queue.remove(payment)) {
+            throw new ServiceOverloadedException("Payments are not being accepted while the service shuts down");
+        }
+
+        try {
+            return payment.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        for (Lane lane : lanes) {
+            lane.thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Anything still queued was never applied
+        for (Lane lane : lanes) {
+            List<SequencedPayment> abandoned = new ArrayList<>();
+            lane.queue.drainTo(abandoned);
+            abandoned.forEach(payment -> payment.result().completeExceptionally(
+                    new ServiceOverloadedException("Payment was not processed because the service is shutting down")));
+        }
+    }
+
+    private Lane laneFor(Long accountId) {
+        return lanes.get(Math.floorMod(Long.hashCode(accountId), lanes.size()));
+    }
+
+    private void postGroup(List<SequencedPayment> group) {
+        try {
+            paymentService.processTransactionGroup(group);
+            groupSize.record(group.size());
+            group.forEach(SequencedPayment::complete);
+        } catch (RuntimeException e) {
+            groupFailures.increment();
+            logger.warn("Group of {} sequenced payments failed to commit, posting them one at a time: {}",
+                    group.size(), e.getMessage());
+            group.forEach(this::postAlone);
+        }
+    }
+
+    private void postAlone(SequencedPayment payment) {
+        try {
+            payment.result().complete(paymentService.processTransaction(payment.userId(), payment.accountNumber(),
+                    payment.request(), payment.beforeCommit()));
+        } catch (RuntimeException e) {
+            payment.result().completeExceptionally(e);
+        }
+    }
+
+    private final class Lane {
+
+        private final BlockingQueue<SequencedPayment> queue;
+        private Thread thread;
+
+        private Lane(BlockingQueue<SequencedPayment> queue) {
+            this.queue = queue;
+        }
+
+        private void run() {
+            List<SequencedPayment> group = new ArrayList<>(maxGroupSize);
+            while (running) {
+                try {
+                    SequencedPayment first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    group.add(first);
+                    queue.drainTo(group, maxGroupSize - 1);
+                    postGroup(group);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    // postGroup releases every caller itself; this only guards the lane thread
+                    logger.error("Payment lane failed", e);
+                    group.forEach(payment -> payment.result().completeExceptionally(e));
+                } finally {
+                    group.clear();
+                }
+            }
+        }
+    }
+}
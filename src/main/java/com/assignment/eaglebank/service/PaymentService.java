@@ -1,25 +1,50 @@
 package com.assignment.eaglebank.service;
 
 import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.BalanceCheckpointEntity;
 import com.assignment.eaglebank.entity.TransactionEntity;
 import com.assignment.eaglebank.entity.TransactionType;
+import com.assignment.eaglebank.exception.BalanceLimitExceededException;
 import com.assignment.eaglebank.exception.ResourceNotFoundException;
 import com.assignment.eaglebank.exception.AccessDeniedException;
+import com.assignment.eaglebank.exception.ApplicationException;
 import com.assignment.eaglebank.exception.InsufficientBalanceException;
 import com.assignment.eaglebank.model.*;
+import com.assignment.eaglebank.outbox.TransactionOutbox;
 import com.assignment.eaglebank.repository.AccountRepository;
 import com.assignment.eaglebank.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for payment and transaction-related business operations.
@@ -30,82 +55,303 @@ public class PaymentService {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
     
+    static final int MAX_PAGE_SIZE = 1000;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Autowired
     private TransactionRepository transactionRepository;
     
     @Autowired
     private AccountRepository accountRepository;
     
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+    
+    @Autowired
+    private TransactionOutbox transactionOutbox;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${eaglebank.payments.concurrency-mode:optimistic}")
+    private PaymentConcurrencyMode concurrencyMode;
+    
+    // Transactions per account between balance checkpoints; 0 writes none
+    @Value("${eaglebank.balance.checkpoint-interval:1000}")
+    private int checkpointInterval;
+    
     /**
      * Processes a new transaction for the specified account.
+     * In optimistic mode a concurrent balance update fails the version check on commit and the whole
+     * transaction is retried a bounded number of times; in pessimistic mode the account row is locked
+     * before its balance is read.
+     * Each attempt is timed once its transaction completes, tagged with whether it committed, rolled
+     * back or was rejected for insufficient funds.
      */
+    @Retryable(retryFor = OptimisticLockingFailureException.class,
+               maxAttemptsExpression = "${eaglebank.payments.optimistic-retry.max-attempts:3}",
+               backoff = @Backoff(delayExpression = "${eaglebank.payments.optimistic-retry.backoff-ms:10}",
+                                  multiplier = 2, random = true))
     public TransactionResponse processTransaction(String userId, String accountNumber, CreateTransactionRequest request) {
+        return postTransaction(userId, accountNumber, request, response -> { });
+    }
+    
+    /**
+     * Processes a new transaction as above, then hands the response to beforeCommit inside the same
+     * database transaction, so anything it writes commits or rolls back together with the payment.
+     * If the commit fails, for example on a unique constraint beforeCommit's write violated, nothing is posted.
+     */
+    @Retryable(retryFor = OptimisticLockingFailureException.class,
+               maxAttemptsExpression = "${eaglebank.payments.optimistic-retry.max-attempts:3}",
+               backoff = @Backoff(delayExpression = "${eaglebank.payments.optimistic-retry.backoff-ms:10}",
+                                  multiplier = 2, random = true))
+    public TransactionResponse processTransaction(String userId, String accountNumber, CreateTransactionRequest request,
+                                                  Consumer<TransactionResponse> beforeCommit) {
+        return postTransaction(userId, accountNumber, request, beforeCommit);
+    }
+    
+    private TransactionResponse postTransaction(String userId, String accountNumber, CreateTransactionRequest request,
+                                                Consumer<TransactionResponse> beforeCommit) {
         logger.info("Processing transaction for account {} by user: {}", accountNumber, userId);
+        Timer.Sample sample = Timer.start(meterRegistry);
         
-        // Find and verify account ownership
-        AccountEntity account = validateAccountOwnership(userId, accountNumber);
+        // Find and verify account ownership, locking the row in pessimistic mode
+        AccountEntity account = validateAccountOwnership(userId, accountNumber,
+            concurrencyMode == PaymentConcurrencyMode.PESSIMISTIC);
+        
+        // Create transaction entity and update account balance
+        TransactionEntity transaction = applyPayment(account, request, sample);
+        
+        // Save transaction and updated account
+        TransactionEntity savedTransaction = transactionRepository.save(transaction);
+        accountRepository.save(account);
+        transactionOutbox.transactionCreated(savedTransaction);
+        
+        TransactionResponse response = buildTransactionResponse(savedTransaction, userId);
+        beforeCommit.accept(response);
+        
+        logger.info("Processed transaction {} for account {}", savedTransaction.getId(), accountNumber);
+        recordOnCompletion(outcome -> stopProcessingTimer(sample, savedTransaction.getType(), outcome));
+        return response;
+    }
+    
+    /**
+     * Applies a group of payments queued on one sequencer lane, in queue order, in one database transaction.
+     * The accounts they touch are locked with one query, in account number order, so the group waits
+     * for transfers and batches rather than racing them. Each payment's response, or the exception it was
+     * rejected with, is recorded on it; callers are released by the sequencer once the group has committed.
+     * Anything other than a rejection propagates and rolls the whole group back.
+     */
+    void processTransactionGroup(List<SequencedPayment> payments) {
+        Set<Long> accountIds = new TreeSet<>();
+        for (SequencedPayment payment : payments) {
+            AccountEntity.parseFormattedAccountNumber(payment.accountNumber()).ifPresent(accountIds::add);
+        }
+        Map<Long, AccountEntity> accounts = new HashMap<>();
+        for (AccountEntity account : accountRepository.findAllByIdForUpdate(accountIds)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        
+        int posted = 0;
+        for (SequencedPayment payment : payments) {
+            TransactionEntity transaction;
+            try {
+                AccountEntity account = AccountEntity.parseFormattedAccountNumber(payment.accountNumber())
+                    .map(accounts::get)
+                    .orElseThrow(() -> new ResourceNotFoundException("Account not found: " + payment.accountNumber()));
+                if (!account.getUser().getId().equals(payment.userId())) {
+                    throw new AccessDeniedException("You don't have permission to access this account");
+                }
+                transaction = applyPayment(account, payment.request(), payment.sample());
+            } catch (ApplicationException | IllegalArgumentException e) {
+                payment.rejected(e);
+                continue;
+            }
+            
+            entityManager.persist(transaction);
+            transactionOutbox.transactionCreated(transaction);
+            TransactionResponse response = buildTransactionResponse(transaction, payment.userId());
+            payment.beforeCommit().accept(response);
+            payment.posted(response);
+            recordOnCompletion(outcome -> stopProcessingTimer(payment.sample(), transaction.getType(), outcome));
+            posted++;
+        }
+        logger.info("Processed group of {} sequenced payments: {} posted", payments.size(), posted);
+    }
+    
+    /**
+     * Moves money from one of the user's accounts to any other account in one database transaction,
+     * posting a debit to the paying account and a credit to the receiving one under a shared transfer ID.
+     * Both account rows are locked whatever the concurrency mode, always the lower account number first,
+     * so two transfers between the same pair of accounts in opposite directions queue behind each other
+     * instead of deadlocking. Ownership is checked once the locks are held, since a row loaded before its
+     * lock would keep the balance it was first read with.
+     * Returns the debit posted to the paying account.
+     */
+    public TransactionResponse processTransfer(String userId, String fromAccountNumber, CreateTransferRequest request) {
+        logger.info("Processing transfer from account {} to {} by user: {}", fromAccountNumber,
+            request.getToAccountNumber(), userId);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        
+        Long fromId = AccountEntity.parseFormattedAccountNumber(fromAccountNumber)
+            .orElseThrow(() -> new ResourceNotFoundException("Invalid account number format: " + fromAccountNumber));
+        Long toId = AccountEntity.parseFormattedAccountNumber(request.getToAccountNumber())
+            .orElseThrow(() -> new ResourceNotFoundException("Invalid account number format: " + request.getToAccountNumber()));
         
-        // Validate transaction amount
         BigDecimal amount = BigDecimal.valueOf(request.getAmount());
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Transaction amount must be positive");
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
         }
         
-        // Check for sufficient funds if it's a withdrawal
-        TransactionType transactionType = TransactionType.valueOf(request.getType().getValue().toUpperCase());
-        if (transactionType == TransactionType.WITHDRAWAL) {
-            if (!account.hasSufficientBalance(amount)) {
-                throw new InsufficientBalanceException(account.getBalance(), amount);
-            }
+        // Lock in account number order, the same global order used by batches
+        AccountEntity lower = lockAccount(Math.min(fromId, toId));
+        AccountEntity higher = lockAccount(Math.max(fromId, toId));
+        AccountEntity from = fromId < toId ? lower : higher;
+        AccountEntity to = fromId < toId ? higher : lower;
+        
+        if (!from.getUser().getId().equals(userId)) {
+            throw new AccessDeniedException("You don't have permission to access this account");
         }
         
-        // Create transaction entity
-        TransactionEntity transaction = new TransactionEntity();
-        transaction.setId(generateTransactionReference());
-        transaction.setAccount(account);
-        transaction.setAmount(amount);
-        transaction.setCurrency(request.getCurrency().getValue());
-        transaction.setType(transactionType);
-        transaction.setReference(request.getReference());
-        transaction.setCreatedTimestamp(OffsetDateTime.now());
+        if (!from.hasSufficientBalance(amount)) {
+            meterRegistry.counter("eaglebank.payments.rejections", "reason", "insufficient_balance").increment();
+            stopProcessingTimer(sample, TransactionType.TRANSFER_OUT, "rejected");
+            throw new InsufficientBalanceException(from.getBalance(), amount);
+        }
+        // Checked under the payee's lock; the balance validation would only fail at commit, as a 500.
+        // The message leaves out the payee's balance, which may belong to another customer
+        if (!to.canReceive(amount)) {
+            meterRegistry.counter("eaglebank.payments.rejections", "reason", "balance_limit").increment();
+            stopProcessingTimer(sample, TransactionType.TRANSFER_OUT, "rejected");
+            throw new BalanceLimitExceededException("Transfer would take the receiving account over the maximum balance of "
+                + String.format("%.2f", AccountEntity.MAX_BALANCE));
+        }
         
-        // Update account balance
-        if (transactionType == TransactionType.DEPOSIT) {
-            account.credit(amount);
-        } else {
-            account.debit(amount);
+        String transferId = "tfr-" + UUID.randomUUID().toString().replace("-", "");
+        String currency = request.getCurrency().getValue();
+        TransactionEntity debit = applyTransaction(from, amount, currency, TransactionType.TRANSFER_OUT, request.getReference());
+        TransactionEntity credit = applyTransaction(to, amount, currency, TransactionType.TRANSFER_IN, request.getReference());
+        linkTransferLegs(transferId, debit, credit);
+        
+        // Persisted directly, as in batches, so the flush sends both inserts without selecting their IDs first
+        entityManager.persist(debit);
+        entityManager.persist(credit);
+        transactionOutbox.transactionCreated(debit);
+        transactionOutbox.transactionCreated(credit);
+        
+        logger.info("Processed transfer {} from account {} to {}", transferId, fromAccountNumber, request.getToAccountNumber());
+        recordOnCompletion(outcome -> stopProcessingTimer(sample, TransactionType.TRANSFER_OUT, outcome));
+        return buildTransactionResponse(debit, userId);
+    }
+    
+    /**
+     * Applies a batch of deposits and withdrawals, for any of the user's accounts, in one database transaction.
+     * All referenced accounts are loaded with one query (locked in account number order unless in optimistic mode)
+     * and items are applied in order against the in-memory balances, so a withdrawal can spend a deposit made
+     * earlier in the same batch. A rejected item gets the status the single-transaction endpoint would have
+     * returned and does not affect the others.
+     * New rows are persisted directly instead of through save(), which would select each pre-assigned ID
+     * before inserting it, so the flush at commit sends the inserts and one versioned update per account
+     * as JDBC batches.
+     */
+    @Retryable(retryFor = OptimisticLockingFailureException.class,
+               maxAttemptsExpression = "${eaglebank.payments.optimistic-retry.max-attempts:3}",
+               backoff = @Backoff(delayExpression = "${eaglebank.payments.optimistic-retry.backoff-ms:10}",
+                                  multiplier = 2, random = true))
+    public BatchTransactionResponse processTransactionBatch(String userId, List<BatchTransactionItem> items) {
+        logger.info("Processing batch of {} transactions by user: {}", items.size(), userId);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        
+        Map<Long, AccountEntity> accounts = loadBatchAccounts(items);
+        
+        List<BatchTransactionResult> results = new ArrayList<>(items.size());
+        int succeeded = 0;
+        for (int index = 0; index < items.size(); index++) {
+            BatchTransactionResult result = applyBatchItem(userId, accounts, items.get(index)).index(index);
+            if (result.getStatus() == HttpStatus.CREATED.value()) {
+                succeeded++;
+            }
+            results.add(result);
         }
         
-        // Save transaction and updated account
-        TransactionEntity savedTransaction = transactionRepository.save(transaction);
-        accountRepository.save(account);
+        logger.info("Processed batch for user {}: {} created, {} rejected", userId, succeeded, items.size() - succeeded);
+        recordOnCompletion(outcome -> sample.stop(Timer.builder("eaglebank.payments.batch.processing")
+            .description("Time to process a batch of deposits and withdrawals, including commit")
+            .tag("outcome", outcome)
+            .register(meterRegistry)));
         
-        logger.info("Processed transaction {} for account {}", savedTransaction.getId(), accountNumber);
-        return buildTransactionResponse(savedTransaction, userId);
+        return new BatchTransactionResponse()
+            .succeeded(succeeded)
+            .failed(items.size() - succeeded)
+            .results(results);
     }
     
     /**
-     * Retrieves transaction history for the specified account.
+     * Retrieves one page of transaction history for the specified account, newest first.
+     * Pages are addressed by keyset cursor rather than offset, so each page is an index range scan.
      */
     @Transactional(readOnly = true)
-    public ListTransactionsResponse getTransactionHistory(String userId, String accountNumber) {
+    public ListTransactionsResponse getTransactionHistory(String userId, String accountNumber, String cursor, int limit) {
         logger.info("Getting transaction history for account {} by user: {}", accountNumber, userId);
         
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
         // Find and verify account ownership
         AccountEntity account = validateAccountOwnership(userId, accountNumber);
         
-        List<TransactionEntity> transactions = transactionRepository.findByAccountNumberOrderByCreatedTimestampDesc(account.getAccountNumber());
+        // Fetch one extra row to find out whether another page follows
+        Limit pageLimit = Limit.of(limit + 1);
+        List<TransactionEntity> transactions;
+        if (cursor == null) {
+            transactions = transactionRepository.findFirstPageByAccountNumber(account.getAccountNumber(), pageLimit);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findPageByAccountNumberAfter(
+                    account.getAccountNumber(), position.createdTimestamp(), position.id(), pageLimit);
+        }
+        
+        boolean hasMore = transactions.size() > limit;
+        List<TransactionEntity> page = hasMore ? transactions.subList(0, limit) : transactions;
         
-        List<TransactionResponse> transactionResponses = transactions.stream()
+        List<TransactionResponse> transactionResponses = page.stream()
             .map(transaction -> buildTransactionResponse(transaction, userId))
             .collect(Collectors.toList());
         
         ListTransactionsResponse response = new ListTransactionsResponse();
         response.setTransactions(transactionResponses);
+        if (hasMore) {
+            response.setNextCursor(TransactionCursor.of(page.get(page.size() - 1)).encode());
+        }
         
         return response;
     }
     
+    /**
+     * Streams the full transaction history of the specified account, newest first, to the consumer.
+     * Rows are read through a database cursor and detached once consumed, so memory use stays
+     * constant regardless of how many transactions the account has.
+     */
+    @Transactional(readOnly = true)
+    public void exportTransactionHistory(String userId, String accountNumber, Consumer<TransactionResponse> consumer) {
+        logger.info("Exporting transaction history for account {} by user: {}", accountNumber, userId);
+        
+        AccountEntity account = validateAccountOwnership(userId, accountNumber);
+        
+        try (Stream<TransactionEntity> transactions = transactionRepository.streamByAccountNumber(account.getAccountNumber())) {
+            transactions.forEach(transaction -> {
+                consumer.accept(buildTransactionResponse(transaction, userId));
+                entityManager.detach(transaction);
+            });
+        }
+    }
+    
     /**
      * Retrieves a specific transaction by ID.
      */
@@ -127,17 +373,19 @@ public class PaymentService {
      * Helper method to validate account ownership.
      */
     private AccountEntity validateAccountOwnership(String userId, String accountNumber) {
+        return validateAccountOwnership(userId, accountNumber, false);
+    }
+    
+    /**
+     * Helper method to validate account ownership, optionally taking a row lock on the account.
+     */
+    private AccountEntity validateAccountOwnership(String userId, String accountNumber, boolean lockForUpdate) {
         // Convert formatted account number (01XXXXXX) to actual Long ID
-        Long accountId;
-        try {
-            // Remove "01" prefix and convert to Long
-            accountId = Long.parseLong(accountNumber.substring(2));
-        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
-            throw new ResourceNotFoundException("Invalid account number format: " + accountNumber);
-        }
+        Long accountId = AccountEntity.parseFormattedAccountNumber(accountNumber)
+            .orElseThrow(() -> new ResourceNotFoundException("Invalid account number format: " + accountNumber));
         
         // Find account by ID
-        AccountEntity account = accountRepository.findById(accountId)
+        AccountEntity account = (lockForUpdate ? accountRepository.findByIdForUpdate(accountId) : accountRepository.findById(accountId))
             .orElseThrow(() -> new ResourceNotFoundException("Account not found: " + accountNumber));
         
         // Verify ownership
@@ -149,29 +397,185 @@ public class PaymentService {
     }
     
     /**
-     * Generates a unique transaction reference ID.
+     * Loads an account and takes a row lock on it, whoever owns it.
+     */
+    private AccountEntity lockAccount(Long accountNumber) {
+        return accountRepository.findByIdForUpdate(accountNumber)
+            .orElseThrow(() -> new ResourceNotFoundException("Account not found: "
+                + AccountEntity.formatAccountNumber(accountNumber)));
+    }
+    
+    private static void linkTransferLegs(String transferId, TransactionEntity debit, TransactionEntity credit) {
+        debit.setTransferId(transferId);
+        debit.setCounterpartyAccountNumber(credit.getAccount().getAccountNumber());
+        credit.setTransferId(transferId);
+        credit.setCounterpartyAccountNumber(debit.getAccount().getAccountNumber());
+    }
+    
+    /**
+     * Loads every account referenced by a batch with a single query, keyed by account number.
+     * Malformed account numbers are left out and reported per item.
+     */
+    private Map<Long, AccountEntity> loadBatchAccounts(List<BatchTransactionItem> items) {
+        Set<Long> accountIds = new LinkedHashSet<>();
+        for (BatchTransactionItem item : items) {
+            AccountEntity.parseFormattedAccountNumber(item.getAccountNumber()).ifPresent(accountIds::add);
+        }
+        
+        // Sequenced lanes lock the rows they post to, so a batch must queue behind them rather than race their versions
+        List<AccountEntity> found = concurrencyMode != PaymentConcurrencyMode.OPTIMISTIC
+            ? accountRepository.findAllByIdForUpdate(accountIds)
+            : accountRepository.findAllById(accountIds);
+        
+        Map<Long, AccountEntity> accounts = new HashMap<>();
+        for (AccountEntity account : found) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        return accounts;
+    }
+    
+    /**
+     * Validates and applies one batch item, returning its result instead of throwing so the rest
+     * of the batch carries on.
+     */
+    private BatchTransactionResult applyBatchItem(String userId, Map<Long, AccountEntity> accounts, BatchTransactionItem item) {
+        Optional<AccountEntity> found = AccountEntity.parseFormattedAccountNumber(item.getAccountNumber())
+            .map(accounts::get);
+        if (found.isEmpty()) {
+            return rejectedItem(HttpStatus.NOT_FOUND, "Account not found: " + item.getAccountNumber());
+        }
+        AccountEntity account = found.get();
+        if (!account.getUser().getId().equals(userId)) {
+            return rejectedItem(HttpStatus.FORBIDDEN, "You don't have permission to access this account");
+        }
+        
+        BigDecimal amount = BigDecimal.valueOf(item.getAmount());
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return rejectedItem(HttpStatus.BAD_REQUEST, "Transaction amount must be positive");
+        }
+        
+        TransactionType transactionType = TransactionType.valueOf(item.getType().getValue().toUpperCase());
+        if (transactionType == TransactionType.WITHDRAWAL && !account.hasSufficientBalance(amount)) {
+            meterRegistry.counter("eaglebank.payments.rejections", "reason", "insufficient_balance").increment();
+            return rejectedItem(HttpStatus.UNPROCESSABLE_ENTITY,
+                new InsufficientBalanceException(account.getBalance(), amount).getMessage());
+        }
+        // Checked here, as the balance validation would only fail at commit and take the whole batch with it
+        if (transactionType.isCredit() && !account.canReceive(amount)) {
+            meterRegistry.counter("eaglebank.payments.rejections", "reason", "balance_limit").increment();
+            return rejectedItem(HttpStatus.UNPROCESSABLE_ENTITY, balanceLimitMessage(account, amount));
+        }
+        
+        TransactionEntity transaction = applyTransaction(account, amount, item.getCurrency().getValue(),
+            transactionType, item.getReference());
+        entityManager.persist(transaction);
+        transactionOutbox.transactionCreated(transaction);
+        
+        return new BatchTransactionResult()
+            .status(HttpStatus.CREATED.value())
+            .transaction(buildTransactionResponse(transaction, userId));
+    }
+    
+    private static String balanceLimitMessage(AccountEntity account, BigDecimal amount) {
+        return String.format("Balance limit exceeded: Current balance %.2f, Requested amount %.2f, Maximum balance %.2f",
+            account.getBalance(), amount, AccountEntity.MAX_BALANCE);
+    }
+    
+    private static BatchTransactionResult rejectedItem(HttpStatus status, String message) {
+        return new BatchTransactionResult()
+            .status(status.value())
+            .message(message);
+    }
+    
+    /**
+     * Validates a deposit or withdrawal against the account and applies it. The caller persists both.
      */
-    private String generateTransactionReference() {
-        String transactionId;
-        do {
-            // Generate ID in format "tan-XXXXXX" where X is alphanumeric
-            String suffix = UUID.randomUUID().toString().substring(0, 6).replace("-", "");
-            transactionId = "tan-" + suffix;
-        } while (transactionRepository.existsById(transactionId));
+    private TransactionEntity applyPayment(AccountEntity account, CreateTransactionRequest request, Timer.Sample sample) {
+        // Validate transaction amount
+        BigDecimal amount = BigDecimal.valueOf(request.getAmount());
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be positive");
+        }
         
-        return transactionId;
+        // Check for sufficient funds if it's a withdrawal
+        TransactionType transactionType = TransactionType.valueOf(request.getType().getValue().toUpperCase());
+        if (transactionType == TransactionType.WITHDRAWAL) {
+            if (!account.hasSufficientBalance(amount)) {
+                meterRegistry.counter("eaglebank.payments.rejections", "reason", "insufficient_balance").increment();
+                stopProcessingTimer(sample, transactionType, "rejected");
+                throw new InsufficientBalanceException(account.getBalance(), amount);
+            }
+        }
+        
+        return applyTransaction(account, amount, request.getCurrency().getValue(), transactionType, request.getReference());
+    }
+    
+    /**
+     * Creates a transaction for the account and moves its balance accordingly. The caller persists both.
+     * Every checkpoint-interval transactions on an account, the balance after this one is also written as
+     * a checkpoint, so balances as of a past time only sum the transactions since the nearest checkpoint.
+     */
+    private TransactionEntity applyTransaction(AccountEntity account, BigDecimal amount, String currency,
+                                               TransactionType transactionType, String reference) {
+        TransactionEntity transaction = new TransactionEntity();
+        transaction.setId(transactionIdGenerator.nextId());
+        transaction.setAccount(account);
+        transaction.setAmount(amount);
+        transaction.setCurrency(currency);
+        transaction.setType(transactionType);
+        transaction.setReference(reference);
+        transaction.setCreatedTimestamp(OffsetDateTime.now());
+        
+        if (transactionType.isCredit()) {
+            account.credit(amount);
+        } else {
+            account.debit(amount);
+        }
+        if (checkpointInterval > 0 && account.countTowardsCheckpoint(checkpointInterval)) {
+            entityManager.persist(new BalanceCheckpointEntity(transaction, account.getBalance()));
+        }
+        return transaction;
+    }
+    
+    /**
+     * Stops a timer once the surrounding transaction has committed or rolled back, so the recorded
+     * latency includes the flush and the commit itself. The outcome is committed or rolled_back.
+     */
+    private void recordOnCompletion(Consumer<String> stopTimer) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stopTimer.accept("committed");
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stopTimer.accept(status == STATUS_COMMITTED ? "committed" : "rolled_back");
+            }
+        });
+    }
+    
+    private void stopProcessingTimer(Timer.Sample sample, TransactionType transactionType, String outcome) {
+        sample.stop(Timer.builder("eaglebank.payments.processing")
+            .description("Time to process a deposit, withdrawal or transfer, including commit")
+            .tag("type", transactionType.name().toLowerCase())
+            .tag("outcome", outcome)
+            .register(meterRegistry));
     }
     
     /**
      * Builds TransactionEntity to TransactionResponse.
      */
-    private TransactionResponse buildTransactionResponse(TransactionEntity transaction, String userId) {
+    TransactionResponse buildTransactionResponse(TransactionEntity transaction, String userId) {
         TransactionResponse response = new TransactionResponse();
         response.setId(transaction.getId());
         response.setAmount(transaction.getAmount().doubleValue());
         response.setCurrency(TransactionResponse.CurrencyEnum.fromValue(transaction.getCurrency()));
         response.setType(TransactionResponse.TypeEnum.fromValue(transaction.getType().name().toLowerCase()));
         response.setReference(transaction.getReference());
+        if (transaction.isTransfer()) {
+            response.setTransferId(transaction.getTransferId());
+            response.setCounterpartyAccountNumber(AccountEntity.formatAccountNumber(transaction.getCounterpartyAccountNumber()));
+        }
         response.setUserId(userId);
         response.setCreatedTimestamp(transaction.getCreatedTimestamp());
         return response;
@@ -0,0 +1,79 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A payment waiting on a sequencer lane. Its outcome is recorded while its group is applied
+ * and handed to the caller only once the group has committed.
+ */
+final class SequencedPayment {
+
+    private final String userId;
+    private final String accountNumber;
+    private final CreateTransactionRequest request;
+    private final Consumer<TransactionResponse> beforeCommit;
+    private final Timer.Sample sample;
+    private final CompletableFuture<TransactionResponse> result = new CompletableFuture<>();
+
+    private TransactionResponse response;
+    private RuntimeException rejection;
+
+    SequencedPayment(String userId, String accountNumber, CreateTransactionRequest request,
+                     Consumer<TransactionResponse> beforeCommit, Timer.Sample sample) {
+        this.userId = userId;
+        this.accountNumber = accountNumber;
+        this.request = request;
+        this.beforeCommit = beforeCommit;
+        this.sample = sample;
+    }
+
+    String userId() {
+        return userId;
+    }
+
+    String accountNumber() {
+        return accountNumber;
+    }
+
+    CreateTransactionRequest request() {
+        return request;
+    }
+
+    Consumer<TransactionResponse> beforeCommit() {
+        return beforeCommit;
+    }
+
+    Timer.Sample sample() {
+        return sample;
+    }
+
+    CompletableFuture<TransactionResponse> result() {
+        return result;
+    }
+
+    void posted(TransactionResponse response) {
+        this.response = response;
+        this.rejection = null;
+    }
+
+    void rejected(RuntimeException rejection) {
+        this.response = null;
+        this.rejection = rejection;
+    }
+
+    /**
+     * Releases the caller with the outcome recorded for the committed group
+     */
+    void complete() {
+        if (rejection != null) {
+            result.completeExceptionally(rejection);
+        } else {
+            result.complete(response);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.assignment.eaglebank.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered, node-aware transaction IDs without any database round trip.
+ * Each ID packs 41 bits of milliseconds since 2024-01-01, a 10 bit node ID and a 12 bit sequence
+ * into a 64 bit value, rendered as fixed width base 36 so IDs sort in creation order.
+ * IDs are strictly monotonic per node: if the clock moves backwards or more than 4096 IDs are
+ * requested within one millisecond, the generator keeps counting from the last issued value.
+ */
+@Component
+public class TimeOrderedTransactionIdGenerator implements TransactionIdGenerator {
+
+    static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final String PREFIX = "tan-";
+    private static final int ENCODED_LENGTH = 13; // Long.MAX_VALUE in base 36
+    private static final char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final long nodeBits;
+    private final Clock clock;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public TimeOrderedTransactionIdGenerator(@Value("${eaglebank.transaction-id.node-id:0}") int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    TimeOrderedTransactionIdGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Transaction ID node must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        long now = clock.millis() - EPOCH_MILLIS;
+        long state;
+        while (true) {
+            long last = lastState.get();
+            // A new millisecond restarts the sequence; otherwise increment, carrying into the timestamp on overflow
+            state = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastState.compareAndSet(last, state)) {
+                break;
+            }
+        }
+
+        long timestamp = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+        return encode((timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence);
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = DIGITS[(int) (id % 36)];
+            id /= 36;
+        }
+        return new String(chars);
+    }
+}
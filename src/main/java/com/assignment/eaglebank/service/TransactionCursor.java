@@ -0,0 +1,42 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.TransactionEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in an account's transaction history, ordered by (createdTimestamp, id) descending.
+ * Encoded as an opaque URL-safe token so clients cannot depend on its contents.
+ */
+record TransactionCursor(OffsetDateTime createdTimestamp, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    static TransactionCursor of(TransactionEntity transaction) {
+        return new TransactionCursor(transaction.getCreatedTimestamp(), transaction.getId());
+    }
+
+    String encode() {
+        String position = createdTimestamp.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == position.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            Instant createdTimestamp = Instant.parse(position.substring(0, separator));
+            return new TransactionCursor(createdTimestamp.atOffset(ZoneOffset.UTC), position.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.assignment.eaglebank.service;
+
+/**
+ * Strategy for assigning identifiers to new transactions.
+ * Implementations must return unique values matching the "tan-" pattern of the API contract
+ * without consulting the database.
+ */
+public interface TransactionIdGenerator {
+
+    /**
+     * Generate the next transaction ID (tan-XXXX format)
+     */
+    String nextId();
+}
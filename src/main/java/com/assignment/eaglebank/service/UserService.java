@@ -3,6 +3,7 @@ package com.assignment.eaglebank.service;
 import com.assignment.eaglebank.entity.UserEntity;
 import com.assignment.eaglebank.exception.BusinessRuleViolationException;
 import com.assignment.eaglebank.exception.ResourceNotFoundException;
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
 import com.assignment.eaglebank.exception.AccessDeniedException;
 import com.assignment.eaglebank.model.AuthenticationResponse;
 import com.assignment.eaglebank.model.CreateUserRequest;
@@ -11,6 +12,8 @@ import com.assignment.eaglebank.model.UserResponse;
 import com.assignment.eaglebank.model.CreateUserRequestAddress;
 import com.assignment.eaglebank.repository.UserRepository;
 import com.assignment.eaglebank.security.TokenManager;
+import com.assignment.eaglebank.security.TokenPrincipal;
+import com.assignment.eaglebank.security.TokenRevocationList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,25 +25,33 @@ import java.util.regex.Pattern;
 
 /**
  * Service class for user management operations
+ * Transactions are declared per method: creating a user and checking credentials deliberately run
+ * without one, so that no database connection is held while a password waits for the hashing pool.
  */
 @Service
-@Transactional
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    // Matches the OpenAPI specification: ^\+[1-9]\d{1,14}$
+    private static final Pattern PHONE_NUMBER_PATTERN = Pattern.compile("^\\+[1-9]\\d{1,14}$");
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final TokenManager tokenManager;
+    private final TokenRevocationList tokenRevocationList;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, TokenManager tokenManager) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, TokenManager tokenManager,
+                       TokenRevocationList tokenRevocationList) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.tokenManager = tokenManager;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     /**
      * Create a new user
+     * Not transactional: the existence check and the insert each borrow a connection only for their own statement.
      */
     public UserResponse createUser(CreateUserRequest request) {
         logger.info("Creating new user with email: {}", request.getEmail());
@@ -99,6 +110,7 @@ public class UserService {
     /**
      * Update user information
      */
+    @Transactional
     public UserResponse updateUser(String userId, UpdateUserRequest request, String authenticatedUserId) {
         logger.info("Updating user with ID: {}", userId);
 
@@ -149,6 +161,7 @@ public class UserService {
     /**
      * Delete user (soft delete)
      */
+    @Transactional
     public void deleteUser(String userId, String authenticatedUserId) {
         logger.info("Deleting user with ID: {}", userId);
 
@@ -175,6 +188,7 @@ public class UserService {
     /**
      * Authenticate user and generate JWT token
      * Returns the generated AuthenticationResponse from OpenAPI contract
+     * Not transactional, so the user lookup has returned its connection before the password is verified.
      */
     public AuthenticationResponse validateCredentials(String email, String password) {
         logger.info("Authenticating user with email: {}", email);
@@ -186,19 +200,80 @@ public class UserService {
             throw new IllegalArgumentException("Invalid credentials");
         }
 
-        String token = tokenManager.createAuthToken(user.getId(), user.getEmail());
+        // The plain password is only available now, so this is where old hashes move to the current cost
+        if (passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            rehashPassword(user, password);
+        }
+
+        AuthenticationResponse response = issueTokens(user.getId(), user.getEmail());
         logger.info("Generated JWT token for user: {}", user.getId());
         
+        return response;
+    }
+
+    /**
+     * Exchange a refresh token for a new access and refresh token pair. Refresh tokens are single use:
+     * the presented token is revoked, so a replayed copy fails for whoever presents it second.
+     */
+    public AuthenticationResponse refreshTokens(String refreshToken) {
+        TokenPrincipal principal = tokenManager.validateRefreshToken(refreshToken)
+                .filter(refresh -> !tokenRevocationList.isRevoked(refresh.tokenId()))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid credentials: refresh token is invalid, expired or revoked"));
+
+        UserEntity user = userRepository.findByIdAndDeletedFalse(principal.userId())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid credentials: user no longer exists"));
+
+        if (!tokenRevocationList.revoke(principal)) {
+            throw new IllegalArgumentException("Invalid credentials: refresh token has already been used");
+        }
+
+        logger.info("Refreshed JWT tokens for user: {}", user.getId());
+        return issueTokens(user.getId(), user.getEmail());
+    }
+
+    /**
+     * Revoke the access token used for the request and, if it belongs to the same user, the refresh token.
+     * An unusable refresh token is ignored, as it cannot be exchanged anyway.
+     */
+    public void logout(TokenPrincipal accessToken, String refreshToken) {
+        tokenRevocationList.revoke(accessToken);
+
+        if (refreshToken != null) {
+            tokenManager.validateRefreshToken(refreshToken)
+                    .filter(refresh -> refresh.userId().equals(accessToken.userId()))
+                    .ifPresent(tokenRevocationList::revoke);
+        }
+        logger.info("Logged out user: {}", accessToken.userId());
+    }
+
+    private AuthenticationResponse issueTokens(String userId, String email) {
         // Return generated AuthenticationResponse from OpenAPI contract
         return new AuthenticationResponse()
-            .token(token)
-            .userId(user.getId());
+            .token(tokenManager.createAuthToken(userId, email))
+            .refreshToken(tokenManager.createRefreshToken(userId, email))
+            .expiresIn(tokenManager.getAuthTokenLifetimeSeconds())
+            .userId(userId);
+    }
+
+    /**
+     * Re-encode a password with the current algorithm and cost. Best effort: the login still
+     * succeeds if hashing is shed under load or the hash changed concurrently.
+     */
+    private void rehashPassword(UserEntity user, String password) {
+        try {
+            String newHash = passwordEncoder.encode(password);
+            if (userRepository.updatePasswordHash(user.getId(), user.getPasswordHash(), newHash) == 1) {
+                logger.info("Re-encoded password hash for user: {}", user.getId());
+            }
+        } catch (ServiceOverloadedException e) {
+            logger.debug("Skipped password re-encoding for user {} under load", user.getId());
+        }
     }
 
     /**
      * Convert UserEntity to UserResponse
      */
-    private UserResponse toUserResponse(UserEntity user) {
+    UserResponse toUserResponse(UserEntity user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
         response.setName(user.getName());
@@ -223,15 +298,12 @@ public class UserService {
     /**
      * Validate phone number format according to OpenAPI specification
      */
-    private void validatePhoneNumber(String phoneNumber) {
+    void validatePhoneNumber(String phoneNumber) {
         if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("Phone number is required");
         }
 
-        // Pattern matches the OpenAPI specification: ^\+[1-9]\d{1,14}$
-        Pattern phonePattern = Pattern.compile("^\\+[1-9]\\d{1,14}$");
-        
-        if (!phonePattern.matcher(phoneNumber.trim()).matches()) {
+        if (!PHONE_NUMBER_PATTERN.matcher(phoneNumber.trim()).matches()) {
             throw new IllegalArgumentException("Invalid phone number format. Phone number must start with + followed by 1-9 and then 1-14 digits (e.g., +1234567890)");
         }
     }
@@ -0,0 +1,37 @@
+package com.assignment.eaglebank.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formatting and parsing of account numbers, which runs on every account and transaction response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountEntityBenchmark {
+
+    private AccountEntity account;
+    private String formattedAccountNumber;
+
+    @Setup
+    public void setUp() {
+        account = new AccountEntity();
+        account.setAccountNumber(4321L);
+        formattedAccountNumber = account.getFormattedAccountNumber();
+    }
+
+    @Benchmark
+    public String getFormattedAccountNumber() {
+        return account.getFormattedAccountNumber();
+    }
+
+    @Benchmark
+    public Object parseFormattedAccountNumber() {
+        return AccountEntity.parseFormattedAccountNumber(formattedAccountNumber);
+    }
+}
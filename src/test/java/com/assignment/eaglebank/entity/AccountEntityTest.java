@@ -0,0 +1,57 @@
+package com.assignment.eaglebank.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccountEntityTest {
+
+    @Test
+    void getFormattedAccountNumber_PadsToSixDigits() {
+        assertThat(formatted(1L)).isEqualTo("01000001");
+        assertThat(formatted(234567L)).isEqualTo("01234567");
+        assertThat(formatted(12345678L)).isEqualTo("0112345678");
+        assertThat(new AccountEntity().getFormattedAccountNumber()).isNull();
+    }
+
+    @Test
+    void parseFormattedAccountNumber_PaddedNumber() {
+        assertThat(AccountEntity.parseFormattedAccountNumber("01000001")).contains(1L);
+        assertThat(AccountEntity.parseFormattedAccountNumber("01234567")).contains(234567L);
+    }
+
+    @Test
+    void parseFormattedAccountNumber_RoundTripsBeyondSixDigits() {
+        AccountEntity account = new AccountEntity();
+        account.setAccountNumber(12345678L);
+
+        assertThat(AccountEntity.parseFormattedAccountNumber(account.getFormattedAccountNumber())).contains(12345678L);
+    }
+
+    @Test
+    void canReceive_UpToMaximumBalance() {
+        AccountEntity account = new AccountEntity();
+        account.setBalance(new BigDecimal("9900.00"));
+
+        assertThat(account.canReceive(new BigDecimal("100.00"))).isTrue();
+        assertThat(account.canReceive(new BigDecimal("100.01"))).isFalse();
+    }
+
+    @Test
+    void parseFormattedAccountNumber_RejectsNonCanonicalValues() {
+        assertThat(AccountEntity.parseFormattedAccountNumber(null)).isEmpty();
+        assertThat(AccountEntity.parseFormattedAccountNumber("invalid")).isEmpty();
+        assertThat(AccountEntity.parseFormattedAccountNumber("0100001")).isEmpty();
+        assertThat(AccountEntity.parseFormattedAccountNumber("02000001")).isEmpty();
+        assertThat(AccountEntity.parseFormattedAccountNumber("0100000A")).isEmpty();
+        assertThat(AccountEntity.parseFormattedAccountNumber("010000001")).isEmpty();
+    }
+
+    private static String formatted(long accountNumber) {
+        AccountEntity account = new AccountEntity();
+        account.setAccountNumber(accountNumber);
+        return account.getFormattedAccountNumber();
+    }
+}
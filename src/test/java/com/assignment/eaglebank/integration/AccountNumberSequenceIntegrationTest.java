@@ -0,0 +1,127 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.BankAccountResponse;
+import com.assignment.eaglebank.model.CreateBankAccountRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.AccountNumberSequenceMigration;
+import com.assignment.eaglebank.service.BankAccountService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Covers moving account numbers from an IDENTITY column to the pooled account number sequence:
+ * numbers already handed out are kept and new accounts continue above them, and accounts opened
+ * together are inserted as JDBC batches. Ordered because Hibernate reserves a block of numbers on
+ * the first insert, and the migration has to run before that, as it does at startup.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:account-number-sequence;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AccountNumberSequenceIntegrationTest {
+
+    private static final int BURST = 120;
+
+    @Autowired
+    private AccountNumberSequenceMigration migration;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("sequence-" + UUID.randomUUID() + "@example.com")
+                .build());
+    }
+
+    @Test
+    @Order(1)
+    void migrate_LegacyAccountsWithoutSequence_NewAccountsNumberedAboveHighest() {
+        // A database from before the sequence existed, with numbers handed out by the IDENTITY column
+        jdbcTemplate.execute("DROP SEQUENCE " + AccountEntity.ACCOUNT_NUMBER_SEQUENCE);
+        insertLegacyAccount(17);
+        insertLegacyAccount(999_999);
+
+        assertThat(migration.migrate()).isEqualTo(1_000_000);
+
+        BankAccountResponse opened = bankAccountService.openAccount(user.getId(), new CreateBankAccountRequest()
+                .name("Post Migration Account")
+                .accountType(CreateBankAccountRequest.AccountTypeEnum.PERSONAL));
+        assertThat(opened.getAccountNumber()).isEqualTo("011000000");
+        assertThat(accountRepository.findByFormattedAccountNumber("01000017")).isPresent();
+        assertThat(accountRepository.findByFormattedAccountNumber("01999999")).isPresent();
+    }
+
+    @Test
+    @Order(2)
+    void migrate_SequenceAhead_LeftUnchanged() {
+        long next = migration.migrate();
+
+        assertThat(migration.migrate()).isEqualTo(next);
+        assertThat(next).isGreaterThan(jdbcTemplate.queryForObject("SELECT MAX(account_number) FROM accounts", Long.class));
+    }
+
+    @Test
+    @Order(3)
+    void saveAll_AccountBurst_InsertedAsJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<AccountEntity> burst = new ArrayList<>();
+        for (int i = 0; i < BURST; i++) {
+            burst.add(new AccountEntity("Onboarded Account " + i, user, "personal"));
+        }
+        statistics.clear();
+
+        List<AccountEntity> saved = accountRepository.saveAll(burst);
+
+        assertThat(saved).extracting(AccountEntity::getAccountNumber).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(BURST);
+        // One insert statement reused for every batch, plus one sequence call per block of 50 numbers (120
+        // accounts span at most three blocks); with IDENTITY each account needed its own insert to learn its number
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    private void insertLegacyAccount(long accountNumber) {
+        jdbcTemplate.update("""
+                INSERT INTO accounts (account_number, sort_code, name, user_id, account_type, currency, balance,
+                                      created_timestamp, updated_timestamp, version)
+                VALUES (?, '10-10-10', 'Legacy Account', ?, 'personal', 'GBP', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)
+                """, accountNumber, user.getId());
+    }
+}
@@ -0,0 +1,109 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.AccountBalanceResponse;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.BalanceCheckpointRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.BankAccountService;
+import com.assignment.eaglebank.service.PaymentService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs balance checkpoints against the database: postings write a checkpoint every interval, and a balance
+ * as of any point in the history, answered from the nearest checkpoint, matches summing the whole history.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:balance-checkpoints;DB_CLOSE_DELAY=-1",
+    "eaglebank.balance.checkpoint-interval=5",
+    "logging.level.com.assignment.eaglebank.service=WARN"
+})
+class BalanceCheckpointIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private UserEntity user;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("checkpoints-" + UUID.randomUUID() + "@example.com")
+                .build());
+        account = accountRepository.save(new AccountEntity("Checkpointed Account", user, "personal"));
+    }
+
+    @Test
+    void getBalance_AsOfEveryTransaction_MatchesFullHistorySum() {
+        OffsetDateTime beforeHistory = OffsetDateTime.now();
+        List<TransactionResponse> posted = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            posted.add(post(i % 3 == 2 ? CreateTransactionRequest.TypeEnum.WITHDRAWAL : CreateTransactionRequest.TypeEnum.DEPOSIT,
+                    10 + i));
+        }
+
+        assertThat(balanceCheckpointRepository.findLatestAtOrBefore(account.getAccountNumber(), OffsetDateTime.now(),
+                Limit.of(10))).hasSize(2);
+
+        for (TransactionResponse transaction : posted) {
+            OffsetDateTime asOf = transaction.getCreatedTimestamp();
+            assertThat(balanceAsOf(asOf))
+                    .as("balance as of %s", transaction.getId())
+                    .isEqualTo(transactionRepository.sumSignedAmountsUpTo(account.getAccountNumber(), asOf).doubleValue());
+        }
+        assertThat(balanceAsOf(beforeHistory)).isZero();
+        assertThat(balanceAsOf(OffsetDateTime.now()))
+                .isEqualTo(accountRepository.findById(account.getAccountNumber()).orElseThrow().getBalance().doubleValue());
+    }
+
+    private TransactionResponse post(CreateTransactionRequest.TypeEnum type, double amount) {
+        return paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(),
+                new CreateTransactionRequest()
+                        .amount(amount)
+                        .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                        .type(type)
+                        .reference("Checkpointed payment"));
+    }
+
+    private double balanceAsOf(OffsetDateTime asOf) {
+        AccountBalanceResponse response = bankAccountService.getBalance(user.getId(), account.getFormattedAccountNumber(), asOf);
+        return response.getBalance();
+    }
+}
@@ -0,0 +1,118 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.BatchTransactionItem;
+import com.assignment.eaglebank.model.BatchTransactionResponse;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.PaymentService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Guards against the batch endpoint regressing to one statement per item. Uses Hibernate statistics
+ * to assert that a batch over two accounts loads them with one query and flushes its rows as JDBC
+ * batches, and that rejected items leave no rows or balance changes behind.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:batch-transaction-query-count;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class BatchTransactionQueryCountTest {
+
+    private static final int ITEMS = 200;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("batch-" + UUID.randomUUID() + "@example.com")
+                .build());
+    }
+
+    @Test
+    void processTransactionBatch_TwoAccounts_FlushedAsJdbcBatches() {
+        AccountEntity first = accountRepository.save(new AccountEntity("First Account", user, "personal"));
+        AccountEntity second = accountRepository.save(new AccountEntity("Second Account", user, "personal"));
+        List<BatchTransactionItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(deposit(i % 2 == 0 ? first : second));
+        }
+        statistics.clear();
+
+        BatchTransactionResponse response = paymentService.processTransactionBatch(user.getId(), items);
+
+        assertThat(response.getSucceeded()).isEqualTo(ITEMS);
+        // One account query, one insert statement reused for every batch of rows and one update for both
+        // accounts; without JDBC batching each row would prepare its own statement. The outbox adds one
+        // insert statement for its events and one sequence call per 50 of them
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3 + 1 + ITEMS / 50);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEMS * 2);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+        assertThat(accountRepository.findById(first.getAccountNumber()).orElseThrow().getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(ITEMS / 2));
+        assertThat(transactionRepository.existsByAccountAccountNumber(second.getAccountNumber())).isTrue();
+    }
+
+    @Test
+    void processTransactionBatch_AllRejected_NothingWritten() {
+        AccountEntity account = accountRepository.save(new AccountEntity("Empty Account", user, "personal"));
+        BatchTransactionItem withdrawal = deposit(account).type(BatchTransactionItem.TypeEnum.WITHDRAWAL);
+        statistics.clear();
+
+        BatchTransactionResponse response = paymentService.processTransactionBatch(user.getId(), List.of(withdrawal));
+
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(422);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(transactionRepository.existsByAccountAccountNumber(account.getAccountNumber())).isFalse();
+    }
+
+    private static BatchTransactionItem deposit(AccountEntity account) {
+        return new BatchTransactionItem()
+                .accountNumber(account.getFormattedAccountNumber())
+                .amount(1.0)
+                .currency(BatchTransactionItem.CurrencyEnum.GBP)
+                .type(BatchTransactionItem.TypeEnum.DEPOSIT)
+                .reference("Payroll");
+    }
+}
@@ -0,0 +1,102 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.TransactionEntity;
+import com.assignment.eaglebank.entity.TransactionType;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.exception.BusinessRuleViolationException;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.BankAccountService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Guards against closeAccount regressing to loading the account's transactions collection.
+ * Uses Hibernate statistics to assert the exact number of SQL statements issued and that no
+ * transaction rows or collections are hydrated.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:close-account-query-count;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class CloseAccountQueryCountTest {
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("close-" + UUID.randomUUID() + "@example.com")
+                .build());
+    }
+
+    @Test
+    void closeAccount_NoTransactions_DeletesWithoutLoadingChildren() {
+        AccountEntity account = accountRepository.save(new AccountEntity("Empty Account", user, "personal"));
+        statistics.clear();
+
+        bankAccountService.closeAccount(user.getId(), account.getFormattedAccountNumber());
+
+        // Account lookup by primary key, transaction existence check, versioned bulk delete
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(accountRepository.existsById(account.getAccountNumber())).isFalse();
+    }
+
+    @Test
+    void closeAccount_WithTransactions_RejectedWithoutLoadingTransactions() {
+        AccountEntity account = accountRepository.save(new AccountEntity("Busy Account", user, "personal"));
+        for (int i = 0; i < 5; i++) {
+            TransactionEntity transaction = new TransactionEntity(BigDecimal.ONE, TransactionType.DEPOSIT, "Deposit " + i, account);
+            transaction.setId("tan-close" + UUID.randomUUID().toString().replace("-", ""));
+            transactionRepository.save(transaction);
+        }
+        statistics.clear();
+
+        assertThatThrownBy(() -> bankAccountService.closeAccount(user.getId(), account.getFormattedAccountNumber()))
+                .isInstanceOf(BusinessRuleViolationException.class)
+                .hasMessageContaining("Cannot close account with existing transactions");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityStatistics(TransactionEntity.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+}
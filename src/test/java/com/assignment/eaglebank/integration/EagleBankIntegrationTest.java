@@ -1,11 +1,13 @@
 package com.assignment.eaglebank.integration;
 
+import com.assignment.eaglebank.service.PaymentIntentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -15,6 +17,7 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 /**
@@ -23,6 +26,7 @@ import static org.hamcrest.Matchers.*;
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 @ActiveProfiles("test")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class EagleBankIntegrationTest {
@@ -33,7 +37,11 @@ class EagleBankIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PaymentIntentService paymentIntentService;
+
     private static String jwtToken;
+    private static String refreshToken;
     private static String userId;
     private static String accountNumber;
     private static String transactionId;
@@ -135,11 +143,14 @@ class EagleBankIntegrationTest {
                 .content(authJson))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andExpect(jsonPath("$.expiresIn").value(86400))
                 .andExpect(jsonPath("$.userId").value(userId))
                 .andReturn();
 
         String responseContent = result.getResponse().getContentAsString();
         jwtToken = objectMapper.readTree(responseContent).get("token").asText();
+        refreshToken = objectMapper.readTree(responseContent).get("refreshToken").asText();
     }
 
     @Test
@@ -158,6 +169,30 @@ class EagleBankIntegrationTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @Order(5)
+    void authenticateUser_RepeatedAttempts_Throttled() throws Exception {
+        String authJson = """
+            {
+                "email": "stuffing.target@test.com",
+                "password": "WrongPassword"
+            }
+            """;
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            mockMvc.perform(post("/v1/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(authJson))
+                    .andExpect(status().isNotFound());
+        }
+
+        mockMvc.perform(post("/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(authJson))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
     @Test
     @Order(6)
     void getUser_Success() throws Exception {
@@ -320,6 +355,283 @@ class EagleBankIntegrationTest {
                 .andExpect(jsonPath("$.transactions[0]").exists());
     }
 
+    @Test
+    @Order(15)
+    void listTransactions_Paginated_FollowsCursor() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get("/v1/accounts/" + accountNumber + "/transactions")
+                .param("limit", "1")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions", hasSize(1)))
+                .andExpect(jsonPath("$.transactions[0].type").value("withdrawal"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+
+        String nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/v1/accounts/" + accountNumber + "/transactions")
+                .param("limit", "1")
+                .param("cursor", nextCursor)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions", hasSize(1)))
+                .andExpect(jsonPath("$.transactions[0].id").value(transactionId))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @Order(15)
+    void listTransactions_InvalidLimitOrCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/v1/accounts/" + accountNumber + "/transactions")
+                .param("limit", "0")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details[0].field").value("limit"));
+
+        mockMvc.perform(get("/v1/accounts/" + accountNumber + "/transactions")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(15)
+    void exportTransactions_Ndjson_StreamsAllTransactions() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/accounts/" + accountNumber + "/transactions")
+                .accept("application/x-ndjson")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines, arrayWithSize(2));
+        assertThat(objectMapper.readTree(lines[1]).get("id").asText(), is(transactionId));
+    }
+
+    @Test
+    @Order(16)
+    void createTransactionBatch_ReportsPerItemResults() throws Exception {
+        String batchJson = """
+            {
+                "transactions": [
+                    { "accountNumber": "%1$s", "amount": 100.00, "currency": "GBP", "type": "deposit", "reference": "Payroll" },
+                    { "accountNumber": "%1$s", "amount": 5000.00, "currency": "GBP", "type": "withdrawal" },
+                    { "accountNumber": "01999999", "amount": 10.00, "currency": "GBP", "type": "deposit" },
+                    { "accountNumber": "%1$s", "amount": 10000.00, "currency": "GBP", "type": "deposit" }
+                ]
+            }
+            """.formatted(accountNumber);
+
+        mockMvc.perform(post("/v1/transactions/batch")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].transaction.amount").value(100.0))
+                .andExpect(jsonPath("$.results[1].status").value(422))
+                .andExpect(jsonPath("$.results[2].status").value(404))
+                // Over the balance limit: rejected on its own instead of failing the batch at commit
+                .andExpect(jsonPath("$.results[3].status").value(422))
+                .andExpect(jsonPath("$.results[3].message").value(containsString("Balance limit exceeded")));
+
+        mockMvc.perform(post("/v1/transactions/batch")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"transactions\": [] }"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(16)
+    void createTransfer_PostsDebitAndCreditLegs() throws Exception {
+        MvcResult opened = mockMvc.perform(post("/v1/accounts")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"name\": \"Transfer Target\", \"accountType\": \"personal\" }"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String targetAccountNumber = objectMapper.readTree(opened.getResponse().getContentAsString())
+                .get("accountNumber").asText();
+
+        String transferJson = """
+            {
+                "toAccountNumber": "%s",
+                "amount": 50.00,
+                "currency": "GBP",
+                "reference": "Savings"
+            }
+            """.formatted(targetAccountNumber);
+
+        MvcResult transfer = mockMvc.perform(post("/v1/accounts/" + accountNumber + "/transfers")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transferJson))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.type").value("transfer_out"))
+                .andExpect(jsonPath("$.amount").value(50.0))
+                .andExpect(jsonPath("$.counterpartyAccountNumber").value(targetAccountNumber))
+                .andExpect(jsonPath("$.transferId").exists())
+                .andReturn();
+        String transferId = objectMapper.readTree(transfer.getResponse().getContentAsString()).get("transferId").asText();
+
+        mockMvc.perform(get("/v1/accounts/" + targetAccountNumber + "/transactions")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions", hasSize(1)))
+                .andExpect(jsonPath("$.transactions[0].type").value("transfer_in"))
+                .andExpect(jsonPath("$.transactions[0].transferId").value(transferId))
+                .andExpect(jsonPath("$.transactions[0].counterpartyAccountNumber").value(accountNumber));
+
+        mockMvc.perform(get("/v1/accounts/" + targetAccountNumber)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.balance").value(50.0));
+
+        mockMvc.perform(post("/v1/accounts/" + accountNumber + "/transfers")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transferJson.replace(targetAccountNumber, "01999999")))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/v1/accounts/" + accountNumber + "/transfers")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transferJson.replace(targetAccountNumber, accountNumber)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/v1/accounts/" + targetAccountNumber + "/transfers")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transferJson.replace(targetAccountNumber, accountNumber).replace("50.00", "51.00")))
+                .andExpect(status().isUnprocessableEntity());
+
+        // Fill the target up to the £10,000 limit; a transfer into it is then refused before commit
+        mockMvc.perform(post("/v1/accounts/" + targetAccountNumber + "/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"amount\": 9950.00, \"currency\": \"GBP\", \"type\": \"deposit\" }"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/v1/accounts/" + accountNumber + "/transfers")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(transferJson))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value(containsString("maximum balance")));
+
+        mockMvc.perform(get("/v1/accounts/" + targetAccountNumber)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.balance").value(10000.0));
+    }
+
+    @Test
+    @Order(16)
+    void createTransaction_IdempotencyKey_ReplaysOriginalResponse() throws Exception {
+        String depositJson = """
+            {
+                "amount": 25.00,
+                "currency": "GBP",
+                "type": "deposit",
+                "reference": "Retried deposit"
+            }
+            """;
+
+        MvcResult first = mockMvc.perform(post("/v1/accounts/" + accountNumber + "/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .header("Idempotency-Key", "deposit-retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(depositJson))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+        String firstId = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asText();
+
+        mockMvc.perform(post("/v1/accounts/" + accountNumber + "/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .header("Idempotency-Key", "deposit-retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(depositJson))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(firstId));
+
+        mockMvc.perform(post("/v1/accounts/" + accountNumber + "/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .header("Idempotency-Key", "deposit-retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(depositJson.replace("25.00", "26.00")))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Order(16)
+    void createPaymentIntent_AcceptedThenSettled() throws Exception {
+        String withdrawalJson = """
+            {
+                "amount": 9999.00,
+                "currency": "GBP",
+                "type": "withdrawal",
+                "reference": "Deferred withdrawal"
+            }
+            """;
+
+        MvcResult accepted = mockMvc.perform(post("/v1/accounts/" + accountNumber + "/payment-intents")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(withdrawalJson))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("pending"))
+                .andExpect(jsonPath("$.transactionId").doesNotExist())
+                .andReturn();
+        String intentId = objectMapper.readTree(accepted.getResponse().getContentAsString()).get("id").asText();
+        String location = accepted.getResponse().getHeader("Location");
+        assertThat(location, equalTo("/v1/accounts/" + accountNumber + "/payment-intents/" + intentId));
+
+        paymentIntentService.settlePending();
+
+        mockMvc.perform(get(location)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(intentId))
+                .andExpect(jsonPath("$.status").value("rejected"))
+                .andExpect(jsonPath("$.failureReason").value(startsWith("Insufficient balance")));
+
+        mockMvc.perform(get("/v1/accounts/" + accountNumber + "/payment-intents/pit-unknown")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(16)
+    void getBalance_NowAndAsOf() throws Exception {
+        MvcResult account = mockMvc.perform(get("/v1/accounts/" + accountNumber)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        double balance = objectMapper.readTree(account.getResponse().getContentAsString()).get("balance").asDouble();
+
+        mockMvc.perform(get("/v1/accounts/" + accountNumber + "/balance")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value(accountNumber))
+                .andExpect(jsonPath("$.balance").value(balance))
+                .andExpect(jsonPath("$.asOf").exists());
+
+        mockMvc.perform(get("/v1/accounts/" + accountNumber + "/balance")
+                .param("asOf", "2020-01-01T00:00:00Z")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(0.0));
+
+        mockMvc.perform(get("/v1/accounts/" + accountNumber + "/balance")
+                .param("asOf", "yesterday")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Order(16)
     void getTransaction_Success() throws Exception {
@@ -403,4 +715,77 @@ class EagleBankIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @Order(23)
+    void prometheusScrape_ExposesPaymentAuthAndRepositoryMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+
+        // A customer token is not enough; anyone can sign up and get one
+        mockMvc.perform(get("/actuator/prometheus")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/prometheus")
+                .header("Authorization", "Bearer test-scrape-token"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("eaglebank_payments_processing_seconds_bucket")))
+                .andExpect(content().string(containsString("eaglebank_auth_token_validation_seconds")))
+                .andExpect(content().string(containsString("eaglebank_auth_password_verify_seconds")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"verified-tokens\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds")));
+    }
+
+    @Test
+    @Order(24)
+    void refreshToken_IssuesNewPairAndIsSingleUse() throws Exception {
+        MvcResult result = mockMvc.perform(post("/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshJson(refreshToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andExpect(jsonPath("$.userId").value(userId))
+                .andReturn();
+
+        mockMvc.perform(post("/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshJson(refreshToken)))
+                .andExpect(status().isUnauthorized());
+
+        String responseContent = result.getResponse().getContentAsString();
+        jwtToken = objectMapper.readTree(responseContent).get("token").asText();
+        refreshToken = objectMapper.readTree(responseContent).get("refreshToken").asText();
+        mockMvc.perform(get("/v1/users/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(25)
+    void logout_RevokesAccessAndRefreshTokens() throws Exception {
+        mockMvc.perform(post("/v1/auth/logout")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshJson(refreshToken)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/users/" + userId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshJson(refreshToken)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static String refreshJson(String token) {
+        return """
+            {
+                "refreshToken": "%s"
+            }
+            """.formatted(token);
+    }
+}
@@ -0,0 +1,152 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.IdempotencyRecordEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.IdempotencyRecordRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.IdempotencyService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs Idempotency-Key handling against the database: concurrent duplicates post one payment between them,
+ * a replay is answered without a single statement, and expired keys are purged in batches.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "eaglebank.idempotency.purge-batch-size=10",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+    "logging.level.com.assignment.eaglebank.service=WARN"
+})
+class IdempotencyIntegrationTest {
+
+    private static final int DUPLICATES = 16;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserEntity user;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("idempotency-" + UUID.randomUUID() + "@example.com")
+                .build());
+        account = accountRepository.save(new AccountEntity("Retried Account", user, "personal"));
+    }
+
+    @Test
+    void processTransaction_ConcurrentDuplicates_PostedOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotencyService.IdempotentResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < DUPLICATES; i++) {
+            responses.add(executor.submit(() -> {
+                start.await();
+                return idempotencyService.processTransaction(user.getId(), account.getFormattedAccountNumber(), key, deposit(25));
+            }));
+        }
+        start.countDown();
+
+        List<IdempotencyService.IdempotentResponse> results = new ArrayList<>();
+        for (Future<IdempotencyService.IdempotentResponse> response : responses) {
+            results.add(response.get(1, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        assertThat(results).extracting(result -> result.response().getId()).containsOnly(results.get(0).response().getId());
+        assertThat(results).filteredOn(result -> !result.replayed()).hasSize(1);
+        assertThat(accountRepository.findById(account.getAccountNumber()).orElseThrow().getBalance()).isEqualByComparingTo("25");
+        assertThat(transactionRepository.existsByAccountAccountNumber(account.getAccountNumber())).isTrue();
+        assertThat(idempotencyRecordRepository.existsById(user.getId() + ":" + key)).isTrue();
+    }
+
+    @Test
+    void processTransaction_Replay_NoStatements() {
+        String key = UUID.randomUUID().toString();
+        IdempotencyService.IdempotentResponse first = idempotencyService.processTransaction(
+                user.getId(), account.getFormattedAccountNumber(), key, deposit(10));
+        statistics.clear();
+
+        IdempotencyService.IdempotentResponse replay = idempotencyService.processTransaction(
+                user.getId(), account.getFormattedAccountNumber(), key, deposit(10));
+
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.response().getId()).isEqualTo(first.response().getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(accountRepository.findById(account.getAccountNumber()).orElseThrow().getBalance()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void purgeExpired_RemovesOnlyExpiredKeysInBatches() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<IdempotencyRecordEntity> records = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            records.add(new IdempotencyRecordEntity("usr-purge:expired-" + i, "fingerprint", "{}",
+                    now.minusDays(2), now.minusDays(1)));
+        }
+        records.add(new IdempotencyRecordEntity("usr-purge:live", "fingerprint", "{}", now, now.plusDays(1)));
+        idempotencyRecordRepository.saveAll(records);
+
+        assertThat(idempotencyService.purgeExpired()).isEqualTo(25);
+
+        assertThat(idempotencyRecordRepository.existsById("usr-purge:live")).isTrue();
+        assertThat(idempotencyRecordRepository.existsById("usr-purge:expired-0")).isFalse();
+        assertThat(idempotencyService.purgeExpired()).isZero();
+    }
+
+    private static CreateTransactionRequest deposit(double amount) {
+        return new CreateTransactionRequest()
+                .amount(amount)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(CreateTransactionRequest.TypeEnum.DEPOSIT)
+                .reference("Retried deposit");
+    }
+}
@@ -0,0 +1,109 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.LedgerReconciliationService;
+import com.assignment.eaglebank.service.PaymentService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs ledger reconciliation against the database: accounts spread over several key-range chunks are
+ * checked by parallel workers, and only a balance changed behind the ledger's back is reported.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ledger-reconciliation;DB_CLOSE_DELAY=-1",
+    "eaglebank.reconciliation.chunk-size=3",
+    "eaglebank.reconciliation.parallelism=3",
+    "eaglebank.reconciliation.max-chunks-per-second=0",
+    "eaglebank.reconciliation.report-dir=target/reconciliation-test",
+    "logging.level.com.assignment.eaglebank.service=WARN"
+})
+class LedgerReconciliationIntegrationTest {
+
+    private static final int ACCOUNTS = 10;
+
+    @Autowired
+    private LedgerReconciliationService ledgerReconciliationService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void reconcile_ReportsOnlyBalancesThatDisagreeWithTheirTransactions() throws Exception {
+        UserEntity user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("reconciliation-" + UUID.randomUUID() + "@example.com")
+                .build());
+        List<AccountEntity> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            AccountEntity account = accountRepository.save(new AccountEntity("Ledger " + i, user, "personal"));
+            accounts.add(account);
+            post(user, account, CreateTransactionRequest.TypeEnum.DEPOSIT, 100 + i);
+            post(user, account, CreateTransactionRequest.TypeEnum.WITHDRAWAL, 40);
+        }
+
+        LedgerReconciliationService.ReconciliationReport clean = ledgerReconciliationService.reconcile();
+
+        assertThat(clean.accounts()).isEqualTo(ACCOUNTS);
+        assertThat(clean.transactions()).isEqualTo(2L * ACCOUNTS);
+        assertThat(clean.discrepancies()).isZero();
+        assertThat(clean.failedChunks()).isZero();
+        assertThat(Files.readAllLines(clean.reportFile())).isEmpty();
+
+        AccountEntity tampered = accounts.get(7);
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 5 WHERE account_number = ?",
+                tampered.getAccountNumber());
+
+        LedgerReconciliationService.ReconciliationReport dirty = ledgerReconciliationService.reconcile();
+
+        assertThat(dirty.discrepancies()).isEqualTo(1);
+        List<String> lines = Files.readAllLines(dirty.reportFile());
+        assertThat(lines).singleElement().satisfies(line -> assertThat(line)
+                .contains("\"accountNumber\":\"" + tampered.getFormattedAccountNumber() + "\"")
+                .contains("\"balance\":72.00")
+                .contains("\"transactionSum\":67.00")
+                .contains("\"difference\":5.00"));
+        assertThat(meterRegistry.get("eaglebank.reconciliation.progress").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("eaglebank.reconciliation.transactions").counter().count()).isEqualTo(4.0 * ACCOUNTS);
+    }
+
+    private void post(UserEntity user, AccountEntity account, CreateTransactionRequest.TypeEnum type, double amount) {
+        paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(),
+                new CreateTransactionRequest()
+                        .amount(amount)
+                        .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                        .type(type)
+                        .reference("Reconciled payment"));
+    }
+}
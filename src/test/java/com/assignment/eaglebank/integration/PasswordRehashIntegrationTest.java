@@ -0,0 +1,72 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.CreateUserRequest;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.UserService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that new hashes carry the {bcrypt} id and configured cost, and that a hash stored before
+ * the id prefix, at another cost, is re-encoded by the next successful login.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:password-rehash;DB_CLOSE_DELAY=-1",
+    "eaglebank.password-hashing.bcrypt.strength=5"
+})
+class PasswordRehashIntegrationTest {
+
+    private static final String PASSWORD = "SecurePassword123";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createUser_StoresPrefixedHashAtConfiguredCost() {
+        String userId = createUser();
+
+        assertThat(storedHash(userId)).startsWith("{bcrypt}$2a$05$");
+    }
+
+    @Test
+    void validateCredentials_LegacyHash_ReEncodedAtConfiguredCost() {
+        String userId = createUser();
+        UserEntity user = userRepository.findById(userId).orElseThrow();
+        user.setPasswordHash(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        userRepository.save(user);
+
+        userService.validateCredentials(user.getEmail(), PASSWORD);
+
+        String rehashed = storedHash(userId);
+        assertThat(rehashed).startsWith("{bcrypt}$2a$05$");
+        assertThat(userService.validateCredentials(user.getEmail(), PASSWORD).getUserId()).isEqualTo(userId);
+        assertThat(storedHash(userId)).isEqualTo(rehashed);
+    }
+
+    private String createUser() {
+        CreateUserRequest request = TestDataBuilder.createUserRequest()
+                .withEmail("rehash-" + UUID.randomUUID() + "@example.com")
+                .withPassword(PASSWORD)
+                .build();
+        return userService.createUser(request).getId();
+    }
+
+    private String storedHash(String userId) {
+        return userRepository.findById(userId).orElseThrow().getPasswordHash();
+    }
+}
@@ -0,0 +1,293 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.BatchTransactionItem;
+import com.assignment.eaglebank.model.BatchTransactionResponse;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.PaymentSequencer;
+import com.assignment.eaglebank.service.PaymentService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Stress tests hammering a single account with concurrent deposits and withdrawals.
+ * Verifies that no balance update is lost in any concurrency mode and reports
+ * the throughput achieved on one hot account. In sequenced mode, batches posted to the
+ * same account while the lanes are busy must wait for them rather than conflict.
+ */
+class PaymentConcurrencyStressTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentConcurrencyStressTest.class);
+
+    private static final int PAYMENTS_PER_RUN = 320;
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(5000);
+    private static final BigDecimal DEPOSIT_AMOUNT = BigDecimal.valueOf(3);
+    private static final BigDecimal WITHDRAWAL_AMOUNT = BigDecimal.valueOf(2);
+
+    @Nested
+    @SpringBootTest
+    @ActiveProfiles("test")
+    @TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment-stress-optimistic;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "eaglebank.payments.concurrency-mode=optimistic",
+        "logging.level.com.assignment.eaglebank.service=WARN"
+    })
+    class OptimisticMode extends StressScenario {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 8, 64})
+        void concurrentPaymentsOnOneAccount_NoLostUpdates(int threads) throws Exception {
+            StressResult result = run(threads);
+
+            assertNoLostUpdates(result);
+            if (threads == 1) {
+                assertThat(result.conflicts()).isZero();
+            }
+        }
+    }
+
+    @Nested
+    @SpringBootTest
+    @ActiveProfiles("test")
+    @TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment-stress-pessimistic;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "eaglebank.payments.concurrency-mode=pessimistic",
+        "logging.level.com.assignment.eaglebank.service=WARN"
+    })
+    class PessimisticMode extends StressScenario {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 8, 64})
+        void concurrentPaymentsOnOneAccount_NoLostUpdates(int threads) throws Exception {
+            StressResult result = run(threads);
+
+            assertNoLostUpdates(result);
+            assertThat(result.conflicts()).isZero();
+        }
+    }
+
+    @Nested
+    @SpringBootTest
+    @ActiveProfiles("test")
+    @TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment-stress-sequenced;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "eaglebank.payments.concurrency-mode=sequenced",
+        "logging.level.com.assignment.eaglebank.service=WARN"
+    })
+    class SequencedMode extends StressScenario {
+
+        private static final int BATCH_ITEMS = 5;
+
+        @Autowired
+        private PaymentSequencer paymentSequencer;
+
+        @Autowired
+        private PaymentService paymentService;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 8, 64})
+        void concurrentPaymentsOnOneAccount_NoLostUpdates(int threads) throws Exception {
+            DistributionSummary groupSize = meterRegistry.get("eaglebank.payments.sequencer.group.size").summary();
+            long groupsBefore = groupSize.count();
+
+            StressResult result = run(threads);
+
+            assertNoLostUpdates(result);
+            assertThat(result.conflicts()).isZero();
+            assertThat(meterRegistry.get("eaglebank.payments.sequencer.group.failures").counter().count()).isZero();
+            long groups = groupSize.count() - groupsBefore;
+            logger.info("{} threads on one account: {} payments committed in {} groups", threads, result.succeeded(), groups);
+            if (threads > 1) {
+                // Payments queued behind a group in flight are committed together
+                assertThat(groups).isLessThan(PAYMENTS_PER_RUN);
+            }
+        }
+
+        @Test
+        void batchesAlongsideSequencedPayments_BatchesWaitForLanesInsteadOfConflicting() throws Exception {
+            AccountEntity account = hotAccount();
+            String userId = account.getUser().getId();
+            String accountNumber = account.getFormattedAccountNumber();
+
+            ExecutorService executor = Executors.newFixedThreadPool(16);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> payments = new ArrayList<>();
+            List<Future<BatchTransactionResponse>> batches = new ArrayList<>();
+            for (int i = 0; i < PAYMENTS_PER_RUN; i++) {
+                payments.add(executor.submit(() -> {
+                    start.await();
+                    post(userId, accountNumber, payment(true));
+                    return null;
+                }));
+                if (i % 16 == 0) {
+                    batches.add(executor.submit(() -> {
+                        start.await();
+                        return paymentService.processTransactionBatch(userId, batch(accountNumber));
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> payment : payments) {
+                payment.get(2, TimeUnit.MINUTES);
+            }
+            // A batch that raced the lanes' versions instead of waiting on their row locks would fail with a conflict
+            for (Future<BatchTransactionResponse> batch : batches) {
+                assertThat(batch.get(2, TimeUnit.MINUTES).getSucceeded()).isEqualTo(BATCH_ITEMS);
+            }
+            executor.shutdown();
+
+            BigDecimal expectedBalance = OPENING_BALANCE
+                    .add(DEPOSIT_AMOUNT.multiply(BigDecimal.valueOf(PAYMENTS_PER_RUN + (long) batches.size() * BATCH_ITEMS)));
+            assertThat(balance(account)).isEqualByComparingTo(expectedBalance);
+        }
+
+        @Override
+        void post(String userId, String accountNumber, CreateTransactionRequest request) {
+            paymentSequencer.processTransaction(userId, accountNumber, request);
+        }
+
+        private List<BatchTransactionItem> batch(String accountNumber) {
+            List<BatchTransactionItem> items = new ArrayList<>();
+            for (int i = 0; i < BATCH_ITEMS; i++) {
+                items.add(new BatchTransactionItem()
+                        .accountNumber(accountNumber)
+                        .amount(DEPOSIT_AMOUNT.doubleValue())
+                        .currency(BatchTransactionItem.CurrencyEnum.GBP)
+                        .type(BatchTransactionItem.TypeEnum.DEPOSIT)
+                        .reference("Stress batch"));
+            }
+            return items;
+        }
+    }
+
+    abstract static class StressScenario {
+
+        @Autowired
+        private PaymentService paymentService;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Autowired
+        private TransactionRepository transactionRepository;
+
+        StressResult run(int threads) throws Exception {
+            AccountEntity account = hotAccount();
+            UserEntity user = account.getUser();
+            String accountNumber = account.getFormattedAccountNumber();
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger conflicts = new AtomicInteger();
+            List<Future<BigDecimal>> outcomes = new ArrayList<>();
+            for (int i = 0; i < PAYMENTS_PER_RUN; i++) {
+                boolean deposit = i % 2 == 0;
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        post(user.getId(), accountNumber, payment(deposit));
+                        return deposit ? DEPOSIT_AMOUNT : WITHDRAWAL_AMOUNT.negate();
+                    } catch (ConcurrencyFailureException e) {
+                        conflicts.incrementAndGet();
+                        return null;
+                    }
+                }));
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            BigDecimal expectedBalance = OPENING_BALANCE;
+            int succeeded = 0;
+            for (Future<BigDecimal> outcome : outcomes) {
+                BigDecimal delta = outcome.get(2, TimeUnit.MINUTES);
+                if (delta != null) {
+                    expectedBalance = expectedBalance.add(delta);
+                    succeeded++;
+                }
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            executor.shutdown();
+
+            double throughput = succeeded / (elapsedNanos / 1_000_000_000.0);
+            logger.info("{} threads on one account: {} payments committed, {} conflicts, {} tx/s",
+                    threads, succeeded, conflicts.get(), String.format("%.1f", throughput));
+
+            AccountEntity reloaded = accountRepository.findById(account.getAccountNumber()).orElseThrow();
+            long postedTransactions = transactionRepository.findAll().stream()
+                    .filter(transaction -> transaction.getAccount().getAccountNumber().equals(reloaded.getAccountNumber()))
+                    .count();
+            return new StressResult(expectedBalance, reloaded.getBalance(), succeeded, postedTransactions, conflicts.get());
+        }
+
+        AccountEntity hotAccount() {
+            UserEntity user = userRepository.save(TestDataBuilder.userEntity()
+                    .withId(null)
+                    .withEmail("stress-" + UUID.randomUUID() + "@example.com")
+                    .build());
+            AccountEntity account = new AccountEntity("Hot Account", user, "personal");
+            account.setBalance(OPENING_BALANCE);
+            return accountRepository.save(account);
+        }
+
+        BigDecimal balance(AccountEntity account) {
+            return accountRepository.findById(account.getAccountNumber()).orElseThrow().getBalance();
+        }
+
+        void post(String userId, String accountNumber, CreateTransactionRequest request) {
+            paymentService.processTransaction(userId, accountNumber, request);
+        }
+
+        void assertNoLostUpdates(StressResult result) {
+            assertThat(result.actualBalance()).isEqualByComparingTo(result.expectedBalance());
+            assertThat(result.postedTransactions()).isEqualTo(result.succeeded());
+            assertThat(result.succeeded() + result.conflicts()).isEqualTo(PAYMENTS_PER_RUN);
+        }
+
+        CreateTransactionRequest payment(boolean deposit) {
+            return new CreateTransactionRequest()
+                    .amount(deposit ? DEPOSIT_AMOUNT.doubleValue() : WITHDRAWAL_AMOUNT.doubleValue())
+                    .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                    .type(deposit ? CreateTransactionRequest.TypeEnum.DEPOSIT : CreateTransactionRequest.TypeEnum.WITHDRAWAL)
+                    .reference("Stress payment");
+        }
+    }
+
+    record StressResult(BigDecimal expectedBalance, BigDecimal actualBalance, int succeeded,
+                        long postedTransactions, int conflicts) {
+    }
+}
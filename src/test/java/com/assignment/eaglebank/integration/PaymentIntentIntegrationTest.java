@@ -0,0 +1,149 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.PaymentIntentResponse;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.PaymentIntentService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs payment intents against the database: submitted intents stay pending until settled, settlement posts
+ * them in batches with the synchronous balance rules, and submissions are shed once the backlog is full.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:payment-intents;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "eaglebank.payments.intents.batch-size=10",
+    "eaglebank.payments.intents.max-pending=30",
+    "logging.level.com.assignment.eaglebank.service=WARN"
+})
+class PaymentIntentIntegrationTest {
+
+    @Autowired
+    private PaymentIntentService paymentIntentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserEntity user;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        paymentIntentService.settlePending();
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("intents-" + UUID.randomUUID() + "@example.com")
+                .build());
+        account = accountRepository.save(new AccountEntity("Deferred Account", user, "personal"));
+    }
+
+    @Test
+    void settlePending_PostsIntentsAndRejectsInsufficientFunds() {
+        PaymentIntentResponse deposit = submit(account, CreateTransactionRequest.TypeEnum.DEPOSIT, 50);
+        PaymentIntentResponse overdraw = submit(account, CreateTransactionRequest.TypeEnum.WITHDRAWAL, 80);
+        PaymentIntentResponse withdrawal = submit(account, CreateTransactionRequest.TypeEnum.WITHDRAWAL, 20);
+
+        assertThat(deposit.getStatus()).isEqualTo(PaymentIntentResponse.StatusEnum.PENDING);
+        assertThat(fetch(deposit).getStatus()).isEqualTo(PaymentIntentResponse.StatusEnum.PENDING);
+        assertThat(transactionRepository.existsByAccountAccountNumber(account.getAccountNumber())).isFalse();
+
+        assertThat(paymentIntentService.settlePending()).isEqualTo(3);
+
+        PaymentIntentResponse settledDeposit = fetch(deposit);
+        assertThat(settledDeposit.getStatus()).isEqualTo(PaymentIntentResponse.StatusEnum.COMPLETED);
+        assertThat(settledDeposit.getTransactionId()).isNotNull();
+        assertThat(settledDeposit.getSettledTimestamp()).isNotNull();
+        assertThat(transactionRepository.existsById(settledDeposit.getTransactionId())).isTrue();
+
+        PaymentIntentResponse rejected = fetch(overdraw);
+        assertThat(rejected.getStatus()).isEqualTo(PaymentIntentResponse.StatusEnum.REJECTED);
+        assertThat(rejected.getTransactionId()).isNull();
+        assertThat(rejected.getFailureReason()).startsWith("Insufficient balance");
+
+        assertThat(fetch(withdrawal).getStatus()).isEqualTo(PaymentIntentResponse.StatusEnum.COMPLETED);
+        assertThat(accountRepository.findById(account.getAccountNumber()).orElseThrow().getBalance())
+                .isEqualByComparingTo("30");
+        Timer rejectedTimer = meterRegistry.find("eaglebank.payments.intents.settlement").tag("outcome", "rejected").timer();
+        assertThat(rejectedTimer).isNotNull();
+        assertThat(rejectedTimer.count()).isPositive();
+    }
+
+    @Test
+    void settlePending_SettlesEveryPartitionInBatches() {
+        AccountEntity second = accountRepository.save(new AccountEntity("Second Deferred Account", user, "personal"));
+        List<PaymentIntentResponse> submitted = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            submitted.add(submit(account, CreateTransactionRequest.TypeEnum.DEPOSIT, 5));
+            submitted.add(submit(second, CreateTransactionRequest.TypeEnum.DEPOSIT, 10));
+        }
+
+        assertThat(paymentIntentService.settlePending()).isEqualTo(24);
+
+        assertThat(submitted).allSatisfy(intent ->
+                assertThat(fetch(intent).getStatus()).isEqualTo(PaymentIntentResponse.StatusEnum.COMPLETED));
+        assertThat(accountRepository.findById(account.getAccountNumber()).orElseThrow().getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(60));
+        assertThat(accountRepository.findById(second.getAccountNumber()).orElseThrow().getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(120));
+        assertThat(paymentIntentService.settlePending()).isZero();
+    }
+
+    @Test
+    void submitPaymentIntent_BacklogFull_Rejected() {
+        for (int i = 0; i < 30; i++) {
+            submit(account, CreateTransactionRequest.TypeEnum.DEPOSIT, 1);
+        }
+
+        assertThatThrownBy(() -> submit(account, CreateTransactionRequest.TypeEnum.DEPOSIT, 1))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(meterRegistry.counter("eaglebank.payments.rejections", "reason", "intent_backlog").count()).isPositive();
+
+        assertThat(paymentIntentService.settlePending()).isEqualTo(30);
+        assertThat(submit(account, CreateTransactionRequest.TypeEnum.DEPOSIT, 1).getStatus())
+                .isEqualTo(PaymentIntentResponse.StatusEnum.PENDING);
+    }
+
+    private PaymentIntentResponse submit(AccountEntity target, CreateTransactionRequest.TypeEnum type, double amount) {
+        return paymentIntentService.submitPaymentIntent(user.getId(), target.getFormattedAccountNumber(),
+                new CreateTransactionRequest()
+                        .amount(amount)
+                        .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                        .type(type)
+                        .reference("Deferred payment"));
+    }
+
+    private PaymentIntentResponse fetch(PaymentIntentResponse intent) {
+        return paymentIntentService.retrievePaymentIntent(user.getId(), intent.getAccountNumber(), intent.getId());
+    }
+}
@@ -0,0 +1,163 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.config.ReplicaLagMonitor;
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.BankAccountResponse;
+import com.assignment.eaglebank.model.CreateBankAccountRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.BankAccountService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs read-replica routing against two H2 databases standing in for the primary and the replica.
+ * Replication is simulated by scripting the primary into the replica; an account renamed only on the
+ * replica shows which database served a read.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:replica-routing-primary;DB_CLOSE_DELAY=-1",
+    "eaglebank.datasource.replica.enabled=true",
+    "eaglebank.datasource.replica.url=jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1",
+    "eaglebank.datasource.replica.username=test",
+    "eaglebank.datasource.replica.password=test",
+    "eaglebank.datasource.replica.max-lag-ms=60000",
+    // Checks are driven by the tests
+    "eaglebank.datasource.replica.lag-check-interval-ms=3600000"
+})
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final String REPLICA_NAME = "Renamed On Replica";
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private UserEntity user;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("replica-" + UUID.randomUUID() + "@example.com")
+                .build());
+        account = accountRepository.save(new AccountEntity("Primary Name", user, "personal"));
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaCurrent_ServedByReplica() {
+        replicate();
+        replica.update("UPDATE accounts SET name = ? WHERE account_number = ?", REPLICA_NAME, account.getAccountNumber());
+        replicaLagMonitor.checkLag();
+        double replicaReads = readOnlyConnections("replica");
+
+        BankAccountResponse response = bankAccountService.getAccount(user.getId(), account.getFormattedAccountNumber());
+
+        assertThat(response.getName()).isEqualTo(REPLICA_NAME);
+        assertThat(replicaLagMonitor.isReplicaUsable()).isTrue();
+        assertThat(readOnlyConnections("replica")).isEqualTo(replicaReads + 1);
+    }
+
+    @Test
+    void writeTransaction_ReplicaCurrent_WrittenToPrimaryOnly() {
+        replicate();
+        replicaLagMonitor.checkLag();
+
+        BankAccountResponse opened = bankAccountService.openAccount(user.getId(), new CreateBankAccountRequest()
+                .name("New Account")
+                .accountType(CreateBankAccountRequest.AccountTypeEnum.PERSONAL));
+
+        long accountNumber = AccountEntity.parseFormattedAccountNumber(opened.getAccountNumber()).orElseThrow();
+        assertThat(countAccounts(primary, accountNumber)).isEqualTo(1);
+        assertThat(countAccounts(replica, accountNumber)).isZero();
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaLagging_FallsBackToPrimary() {
+        replicate();
+        replica.update("UPDATE accounts SET name = ? WHERE account_number = ?", REPLICA_NAME, account.getAccountNumber());
+        // Last heartbeat the replica received is an hour old
+        replica.update("UPDATE replica_heartbeat SET beat_millis = beat_millis - 3600000");
+        replicaLagMonitor.checkLag();
+        double primaryReads = readOnlyConnections("primary");
+
+        BankAccountResponse response = bankAccountService.getAccount(user.getId(), account.getFormattedAccountNumber());
+
+        assertThat(response.getName()).isEqualTo("Primary Name");
+        assertThat(replicaLagMonitor.isReplicaUsable()).isFalse();
+        assertThat(meterRegistry.get("eaglebank.datasource.replica.lag").gauge().value()).isGreaterThan(3_600_000);
+        assertThat(readOnlyConnections("primary")).isEqualTo(primaryReads + 1);
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaWithoutHeartbeat_FallsBackToPrimary() {
+        replica.execute("DROP ALL OBJECTS");
+        replicaLagMonitor.checkLag();
+
+        List<BankAccountResponse> accounts = bankAccountService.retrieveAccountList(user.getId()).getAccounts();
+
+        assertThat(accounts).extracting(BankAccountResponse::getName).containsExactly("Primary Name");
+        assertThat(replicaLagMonitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void pools_ReportTheirOwnMetrics() {
+        assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", "primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", "replica").gauge()).isNotNull();
+    }
+
+    private void replicate() {
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+
+    private static int countAccounts(JdbcTemplate jdbcTemplate, long accountNumber) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts WHERE account_number = ?", Integer.class, accountNumber);
+    }
+
+    private double readOnlyConnections(String pool) {
+        return meterRegistry.get("eaglebank.datasource.read_only.connections").tag("pool", pool).counter().count();
+    }
+}
@@ -0,0 +1,184 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.exception.InsufficientBalanceException;
+import com.assignment.eaglebank.exception.ResourceNotFoundException;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.UpdateUserRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.BankAccountService;
+import com.assignment.eaglebank.service.PaymentService;
+import com.assignment.eaglebank.service.UserService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that the second-level cache serves repeat user and account lookups without touching the
+ * database, and that it never hands out a balance, name or deleted flag older than the last commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1",
+    "eaglebank.cache.second-level.enabled=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+    "logging.level.com.assignment.eaglebank.service=WARN"
+})
+class SecondLevelCacheIntegrationTest {
+
+    private static final int PAYMENTS = 50;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private UserEntity user;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("cache-" + UUID.randomUUID() + "@example.com")
+                .build());
+        account = accountRepository.save(new AccountEntity("Cached Account", user, "personal"));
+    }
+
+    @Test
+    void getAccount_RepeatLookup_ServedFromCache() {
+        bankAccountService.getAccount(user.getId(), account.getFormattedAccountNumber());
+        statistics.clear();
+        double hits = cacheHits("accounts");
+
+        bankAccountService.getAccount(user.getId(), account.getFormattedAccountNumber());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("accounts").getHitCount()).isEqualTo(1);
+        assertThat(cacheHits("accounts")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void processTransaction_AfterCommit_CachedBalanceNeverStale() throws Exception {
+        AtomicReference<BigDecimal> committed = new AtomicReference<>(BigDecimal.ZERO);
+        AtomicBoolean paying = new AtomicBoolean(true);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            // Reads on another thread throughout; each must see at least the balance committed before it started
+            Future<List<String>> staleReads = reader.submit(() -> {
+                List<String> stale = new ArrayList<>();
+                while (paying.get()) {
+                    BigDecimal floor = committed.get();
+                    BigDecimal read = balance();
+                    if (read.compareTo(floor) < 0) {
+                        stale.add("read " + read + " after " + floor + " committed");
+                    }
+                }
+                return stale;
+            });
+
+            for (int i = 1; i <= PAYMENTS; i++) {
+                paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(), payment(
+                        CreateTransactionRequest.TypeEnum.DEPOSIT, 10));
+                committed.set(BigDecimal.valueOf(10L * i));
+                assertThat(balance()).isEqualByComparingTo(committed.get());
+            }
+            paying.set(false);
+
+            assertThat(staleReads.get(30, TimeUnit.SECONDS)).isEmpty();
+        } finally {
+            paying.set(false);
+            reader.shutdownNow();
+        }
+        assertThat(statistics.getDomainDataRegionStatistics("accounts").getHitCount()).isPositive();
+    }
+
+    @Test
+    void processTransaction_RolledBack_CachedBalanceUnchanged() {
+        paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(),
+                payment(CreateTransactionRequest.TypeEnum.DEPOSIT, 100));
+
+        assertThatThrownBy(() -> paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(),
+                payment(CreateTransactionRequest.TypeEnum.WITHDRAWAL, 500)))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        assertThat(balance()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void updateUserAndDeleteUser_CachedUserReplacedAndRemoved() {
+        userService.getUserById(user.getId(), user.getId());
+
+        userService.updateUser(user.getId(), new UpdateUserRequest().name("Renamed User"), user.getId());
+        assertThat(userService.getUserById(user.getId(), user.getId()).getName()).isEqualTo("Renamed User");
+
+        UserEntity withoutAccounts = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("cache-delete-" + UUID.randomUUID() + "@example.com")
+                .build());
+        userService.getUserById(withoutAccounts.getId(), withoutAccounts.getId());
+        userService.deleteUser(withoutAccounts.getId(), withoutAccounts.getId());
+
+        assertThatThrownBy(() -> userService.getUserById(withoutAccounts.getId(), withoutAccounts.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private BigDecimal balance() {
+        return BigDecimal.valueOf(bankAccountService.getAccount(user.getId(), account.getFormattedAccountNumber()).getBalance());
+    }
+
+    private double cacheHits(String region) {
+        return meterRegistry.get("cache.gets").tag("cache", region).tag("result", "hit").functionCounter().count();
+    }
+
+    private static CreateTransactionRequest payment(CreateTransactionRequest.TypeEnum type, double amount) {
+        return new CreateTransactionRequest()
+                .amount(amount)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(type)
+                .reference("Cache test");
+    }
+}
@@ -0,0 +1,91 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.repository.RevokedTokenRepository;
+import com.assignment.eaglebank.security.TokenManager;
+import com.assignment.eaglebank.security.TokenPrincipal;
+import com.assignment.eaglebank.security.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that revocations survive a restart: a fresh revocation list rebuilt from the database
+ * rejects previously revoked tokens, and revocations of tokens that have expired are purged.
+ * Also checks that only one instance can revoke a given token, which is what makes refresh tokens single use,
+ * and that a token revoked on one instance is picked up by the others on their next refresh.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:token-revocation;DB_CLOSE_DELAY=-1")
+class TokenRevocationIntegrationTest {
+
+    @Autowired
+    private TokenManager tokenManager;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Test
+    void rebuild_RestoresPersistedRevocationsAndPurgesExpired() {
+        TokenPrincipal revoked = tokenManager.validateAuthToken(tokenManager.createAuthToken("usr-revoked", "revoked@example.com"))
+                .orElseThrow();
+        TokenPrincipal active = tokenManager.validateAuthToken(tokenManager.createAuthToken("usr-active", "active@example.com"))
+                .orElseThrow();
+        TokenPrincipal expired = new TokenPrincipal("usr-expired", "expired@example.com",
+                Instant.now().minus(1, ChronoUnit.MINUTES), "expired-jti");
+        tokenRevocationList.revoke(revoked);
+        tokenRevocationList.revoke(expired);
+
+        TokenRevocationList restarted = new TokenRevocationList(revokedTokenRepository, 1000, 0.01, new SimpleMeterRegistry());
+        restarted.rebuild();
+
+        assertThat(restarted.isRevoked(revoked.tokenId())).isTrue();
+        assertThat(restarted.isRevoked(active.tokenId())).isFalse();
+        assertThat(restarted.isRevoked("expired-jti")).isFalse();
+        assertThat(revokedTokenRepository.existsById(revoked.tokenId())).isTrue();
+        assertThat(revokedTokenRepository.existsById("expired-jti")).isFalse();
+    }
+
+    @Test
+    void revoke_SameTokenOnTwoInstances_OnlyFirstSucceeds() {
+        TokenPrincipal token = tokenManager.validateAuthToken(tokenManager.createAuthToken("usr-replayed", "replayed@example.com"))
+                .orElseThrow();
+        // A second node with its own, empty in-memory list
+        TokenRevocationList otherInstance = new TokenRevocationList(revokedTokenRepository, 1000, 0.01, new SimpleMeterRegistry());
+
+        assertThat(tokenRevocationList.revoke(token)).isTrue();
+        assertThat(otherInstance.revoke(token)).isFalse();
+
+        assertThat(otherInstance.isRevoked(token.tokenId())).isTrue();
+        assertThat(revokedTokenRepository.findById(token.tokenId()))
+                .hasValueSatisfying(row -> assertThat(row.getUserId()).isEqualTo("usr-replayed"));
+    }
+
+    @Test
+    void refresh_TokenRevokedOnAnotherInstance_RejectedAfterRefresh() {
+        TokenPrincipal token = tokenManager.validateAuthToken(tokenManager.createAuthToken("usr-logout", "logout@example.com"))
+                .orElseThrow();
+        TokenRevocationList otherInstance = new TokenRevocationList(revokedTokenRepository, 1000, 0.01, new SimpleMeterRegistry());
+        otherInstance.rebuild();
+
+        // Logged out through this instance
+        assertThat(tokenRevocationList.revoke(token)).isTrue();
+        assertThat(otherInstance.isRevoked(token.tokenId())).isFalse();
+
+        assertThat(otherInstance.refresh()).isEqualTo(1);
+
+        assertThat(otherInstance.isRevoked(token.tokenId())).isTrue();
+        assertThat(otherInstance.refresh()).isZero();
+    }
+}
@@ -0,0 +1,229 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.OutboxEventEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.exception.InsufficientBalanceException;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.CreateTransferRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.outbox.OutboxDispatcher;
+import com.assignment.eaglebank.outbox.OutboxEvent;
+import com.assignment.eaglebank.outbox.OutboxEventSink;
+import com.assignment.eaglebank.outbox.TransactionOutbox;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.OutboxEventRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.PaymentService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that payments write their events to the outbox in the same database transaction, and that the
+ * dispatcher delivers them to every sink before removing them, delivering a batch again after a sink fails.
+ * The dispatcher is driven directly rather than on its schedule.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:transaction-outbox;DB_CLOSE_DELAY=-1",
+    "eaglebank.outbox.file-sink.path=" + TransactionOutboxIntegrationTest.EVENTS_FILE,
+    "logging.level.com.assignment.eaglebank.service=WARN"
+})
+class TransactionOutboxIntegrationTest {
+
+    static final String EVENTS_FILE = "target/outbox-integration-test/events.ndjson";
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private SwitchableSink switchableSink;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserEntity user;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        switchableSink.failing.set(false);
+        outboxDispatcher.dispatchPending();
+        listener.events.clear();
+        switchableSink.accepted.clear();
+        Files.deleteIfExists(Path.of(EVENTS_FILE));
+
+        user = userRepository.save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("outbox-" + UUID.randomUUID() + "@example.com")
+                .build());
+        AccountEntity opened = new AccountEntity("Outbox Account", user, "personal");
+        opened.setBalance(BigDecimal.valueOf(100));
+        account = accountRepository.save(opened);
+    }
+
+    @Test
+    void processTransaction_Committed_WritesOneEventWithTheTransaction() throws Exception {
+        TransactionResponse deposit = paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(),
+                payment(CreateTransactionRequest.TypeEnum.DEPOSIT, 25));
+        assertThatThrownBy(() -> paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(),
+                payment(CreateTransactionRequest.TypeEnum.WITHDRAWAL, 500)))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        List<OutboxEventEntity> pending = outboxEventRepository.findAll();
+        assertThat(pending).singleElement().satisfies(event -> {
+            assertThat(event.getEventType()).isEqualTo(TransactionOutbox.TRANSACTION_CREATED);
+            assertThat(event.getAggregateId()).isEqualTo(deposit.getId());
+        });
+        JsonNode payload = objectMapper.readTree(pending.get(0).getPayload());
+        assertThat(payload.get("transactionId").asText()).isEqualTo(deposit.getId());
+        assertThat(payload.get("accountNumber").asText()).isEqualTo(account.getFormattedAccountNumber());
+        assertThat(payload.get("type").asText()).isEqualTo("deposit");
+        assertThat(payload.get("amount").decimalValue()).isEqualByComparingTo("25");
+    }
+
+    @Test
+    void dispatchPending_DeliversToEverySinkThenRemovesEvents() throws Exception {
+        AccountEntity payee = accountRepository.save(new AccountEntity("Payee Account", user, "personal"));
+        for (int i = 0; i < 3; i++) {
+            paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(),
+                    payment(CreateTransactionRequest.TypeEnum.DEPOSIT, 10));
+        }
+        paymentService.processTransfer(user.getId(), account.getFormattedAccountNumber(), new CreateTransferRequest()
+                .toAccountNumber(payee.getFormattedAccountNumber())
+                .amount(5.0)
+                .currency(CreateTransferRequest.CurrencyEnum.GBP));
+        double dispatched = dispatched("application");
+        long lagged = meterRegistry.get("eaglebank.outbox.lag").timer().count();
+
+        assertThat(outboxDispatcher.dispatchPending()).isEqualTo(5);
+
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(listener.events).hasSize(5);
+        assertThat(listener.events).extracting(OutboxEvent::id).isSorted().doesNotHaveDuplicates();
+        assertThat(switchableSink.accepted).extracting(OutboxEvent::id)
+                .containsExactlyElementsOf(listener.events.stream().map(OutboxEvent::id).toList());
+        assertThat(Files.readAllLines(Path.of(EVENTS_FILE))).hasSize(5)
+                .last().satisfies(line -> assertThat(objectMapper.readTree(line).get("payload").asText())
+                        .contains("\"type\":\"transfer_in\""));
+        assertThat(dispatched("application")).isEqualTo(dispatched + 5);
+        assertThat(meterRegistry.get("eaglebank.outbox.lag").timer().count()).isEqualTo(lagged + 5);
+    }
+
+    @Test
+    void dispatchPending_SinkFails_BatchDeliveredAgainOnNextPoll() {
+        TransactionResponse deposit = paymentService.processTransaction(user.getId(), account.getFormattedAccountNumber(),
+                payment(CreateTransactionRequest.TypeEnum.DEPOSIT, 10));
+        switchableSink.failing.set(true);
+        double failures = meterRegistry.counter("eaglebank.outbox.dispatch.failures", "sink", "switchable").count();
+
+        assertThat(outboxDispatcher.dispatchPending()).isZero();
+
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+        assertThat(meterRegistry.get("eaglebank.outbox.dispatch.failures").tag("sink", "switchable").counter().count())
+                .isEqualTo(failures + 1);
+
+        switchableSink.failing.set(false);
+        assertThat(outboxDispatcher.dispatchPending()).isEqualTo(1);
+
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(switchableSink.accepted).extracting(OutboxEvent::aggregateId).containsExactly(deposit.getId());
+        // Sinks that accepted the batch before the failure see it again
+        assertThat(listener.events).extracting(OutboxEvent::aggregateId).contains(deposit.getId());
+    }
+
+    private double dispatched(String sink) {
+        return meterRegistry.get("eaglebank.outbox.events.dispatched").tag("sink", sink).counter().count();
+    }
+
+    private static CreateTransactionRequest payment(CreateTransactionRequest.TypeEnum type, double amount) {
+        return new CreateTransactionRequest()
+                .amount(amount)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(type)
+                .reference("Outbox test");
+    }
+
+    @TestConfiguration
+    static class SinkConfiguration {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+
+        @Bean
+        SwitchableSink switchableSink() {
+            return new SwitchableSink();
+        }
+    }
+
+    static class RecordingListener {
+
+        final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void on(OutboxEvent event) {
+            events.add(event);
+        }
+    }
+
+    static class SwitchableSink implements OutboxEventSink {
+
+        final AtomicBoolean failing = new AtomicBoolean();
+        final List<OutboxEvent> accepted = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String name() {
+            return "switchable";
+        }
+
+        @Override
+        public void deliver(List<OutboxEvent> events) {
+            if (failing.get()) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            accepted.addAll(events);
+        }
+    }
+}
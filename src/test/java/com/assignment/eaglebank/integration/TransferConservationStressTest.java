@@ -0,0 +1,157 @@
+package com.assignment.eaglebank.integration;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.TransactionEntity;
+import com.assignment.eaglebank.entity.TransactionType;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.exception.InsufficientBalanceException;
+import com.assignment.eaglebank.model.CreateTransferRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.service.PaymentService;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Stress test running random transfers, in both directions, between a small ring of accounts from many
+ * threads at once. Every transfer must either commit or be rejected for insufficient funds: a deadlock
+ * or lock timeout fails the run. Verifies that the total held across the accounts is unchanged, that each
+ * balance matches its posted legs, and reports the transfer throughput achieved.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:transfer-stress;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "logging.level.com.assignment.eaglebank.service=WARN"
+})
+class TransferConservationStressTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferConservationStressTest.class);
+
+    private static final int ACCOUNTS = 6;
+    private static final int TRANSFERS_PER_RUN = 600;
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(200);
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 8, 64})
+    void randomTransfers_TotalConservedWithoutDeadlocks(int threads) throws Exception {
+        List<AccountEntity> accounts = openAccounts();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> outcomes = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS_PER_RUN; i++) {
+            outcomes.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int from = random.nextInt(ACCOUNTS);
+                int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                AccountEntity payer = accounts.get(from);
+                try {
+                    paymentService.processTransfer(payer.getUser().getId(), payer.getFormattedAccountNumber(),
+                            transfer(accounts.get(to), 1 + random.nextInt(60)));
+                    return true;
+                } catch (InsufficientBalanceException e) {
+                    return false;
+                }
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        int committed = 0;
+        for (Future<Boolean> outcome : outcomes) {
+            // Any other exception, such as a deadlock reported by the database, fails the run here
+            if (outcome.get(2, TimeUnit.MINUTES)) {
+                committed++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executor.shutdown();
+
+        double throughput = committed / (elapsedNanos / 1_000_000_000.0);
+        logger.info("{} threads across {} accounts: {} transfers committed, {} rejected, {} transfers/s",
+                threads, ACCOUNTS, committed, TRANSFERS_PER_RUN - committed, String.format("%.1f", throughput));
+
+        Set<Long> accountNumbers = accounts.stream().map(AccountEntity::getAccountNumber).collect(Collectors.toSet());
+        List<AccountEntity> reloaded = accountRepository.findAllById(accountNumbers);
+        BigDecimal total = reloaded.stream().map(AccountEntity::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo(OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+        assertThat(reloaded).allSatisfy(account -> assertThat(account.getBalance()).isNotNegative());
+
+        // Each balance is its opening balance plus the legs posted to it, and every debit has its credit
+        Map<Long, BigDecimal> ledger = new HashMap<>();
+        Map<String, Integer> legsPerTransfer = new HashMap<>();
+        for (TransactionEntity leg : transactionRepository.findAll()) {
+            Long accountNumber = leg.getAccount().getAccountNumber();
+            if (!accountNumbers.contains(accountNumber)) {
+                continue;
+            }
+            BigDecimal delta = leg.getType() == TransactionType.TRANSFER_IN ? leg.getAmount() : leg.getAmount().negate();
+            ledger.merge(accountNumber, delta, BigDecimal::add);
+            legsPerTransfer.merge(leg.getTransferId(), 1, Integer::sum);
+        }
+        assertThat(legsPerTransfer).hasSize(committed).allSatisfy((transferId, legs) -> assertThat(legs).isEqualTo(2));
+        assertThat(reloaded).allSatisfy(account -> assertThat(account.getBalance())
+                .isEqualByComparingTo(OPENING_BALANCE.add(ledger.getOrDefault(account.getAccountNumber(), BigDecimal.ZERO))));
+    }
+
+    private List<AccountEntity> openAccounts() {
+        List<AccountEntity> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            UserEntity user = userRepository.save(TestDataBuilder.userEntity()
+                    .withId(null)
+                    .withEmail("transfer-" + UUID.randomUUID() + "@example.com")
+                    .build());
+            AccountEntity account = new AccountEntity("Transfer Account " + i, user, "personal");
+            account.setBalance(OPENING_BALANCE);
+            accounts.add(accountRepository.save(account));
+        }
+        return accounts;
+    }
+
+    private static CreateTransferRequest transfer(AccountEntity payee, int amount) {
+        return new CreateTransferRequest()
+                .toAccountNumber(payee.getFormattedAccountNumber())
+                .amount((double) amount)
+                .currency(CreateTransferRequest.CurrencyEnum.GBP)
+                .reference("Stress transfer");
+    }
+}
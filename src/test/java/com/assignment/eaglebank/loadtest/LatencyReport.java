@@ -0,0 +1,102 @@
+package com.assignment.eaglebank.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint latency histograms and response status counts. Each worker records into its own
+ * report without synchronisation; reports are merged once the run has finished.
+ */
+final class LatencyReport {
+
+    static final int IO_ERROR_STATUS = -1;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<LoadTestOperation, Histogram> histograms = new EnumMap<>(LoadTestOperation.class);
+    private final Map<LoadTestOperation, Map<Integer, Long>> statusCounts = new EnumMap<>(LoadTestOperation.class);
+
+    void record(LoadTestOperation operation, long latencyNanos, int status) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+        histogram(operation).recordValue(Math.max(1, micros));
+        statusCounts.computeIfAbsent(operation, ignored -> new TreeMap<>()).merge(status, 1L, Long::sum);
+    }
+
+    void add(LatencyReport other) {
+        other.histograms.forEach((operation, histogram) -> histogram(operation).add(histogram));
+        other.statusCounts.forEach((operation, counts) -> counts.forEach((status, count) ->
+                statusCounts.computeIfAbsent(operation, ignored -> new TreeMap<>()).merge(status, count, Long::sum)));
+    }
+
+    void print(PrintStream out, Duration measured) {
+        out.printf("%-48s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        histograms.forEach((operation, histogram) -> out.printf("%-48s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.endpoint(),
+                histogram.getTotalCount(),
+                errors(operation),
+                histogram.getTotalCount() / seconds(measured),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+        statusCounts.forEach((operation, counts) -> out.printf("  %s statuses: %s%n", operation.endpoint(), counts));
+    }
+
+    void writeJson(Path file, ObjectMapper objectMapper, LoadTestScenario scenario, int threads,
+                   Duration measured) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode()
+                .put("scenario", scenario.name())
+                .put("threads", threads)
+                .put("measuredSeconds", seconds(measured));
+        ArrayNode endpoints = root.putArray("endpoints");
+        histograms.forEach((operation, histogram) -> {
+            ObjectNode endpoint = endpoints.addObject()
+                    .put("endpoint", operation.endpoint())
+                    .put("requests", histogram.getTotalCount())
+                    .put("errors", errors(operation))
+                    .put("throughputPerSecond", histogram.getTotalCount() / seconds(measured))
+                    .put("p50Millis", millis(histogram.getValueAtPercentile(50)))
+                    .put("p99Millis", millis(histogram.getValueAtPercentile(99)))
+                    .put("p999Millis", millis(histogram.getValueAtPercentile(99.9)))
+                    .put("maxMillis", millis(histogram.getMaxValue()));
+            ObjectNode statuses = endpoint.putObject("statuses");
+            statusCounts.getOrDefault(operation, Map.of()).forEach((status, count) -> statuses.put(status.toString(), count));
+        });
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+
+    private Histogram histogram(LoadTestOperation operation) {
+        return histograms.computeIfAbsent(operation, ignored -> new Histogram(HIGHEST_TRACKABLE_MICROS, 3));
+    }
+
+    private long errors(LoadTestOperation operation) {
+        return statusCounts.getOrDefault(operation, Map.of()).entrySet().stream()
+                .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1_000_000_000.0;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
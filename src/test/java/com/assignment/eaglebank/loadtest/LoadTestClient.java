@@ -0,0 +1,158 @@
+package com.assignment.eaglebank.loadtest;
+
+import com.assignment.eaglebank.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin HTTP client for the Eagle Bank REST API, mirroring the flows in EagleBankIntegrationTest.
+ * Setup calls fail fast on unexpected responses; load calls only return the status code.
+ */
+final class LoadTestClient {
+
+    static final String PASSWORD = "LoadTestPassword123";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+
+    LoadTestClient(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * A user with an authenticated session and one account
+     */
+    record Session(String userId, String email, String token, String accountNumber) {
+    }
+
+    /**
+     * Create a user, log in and open an account funded with the opening balance.
+     */
+    Session createSession(String email, double openingBalance) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(TestDataBuilder.createUserRequest()
+                .withEmail(email)
+                .withName("Load Test User")
+                .withPassword(PASSWORD)
+                .build());
+        String userId = expect(retryWhileOverloaded(() -> send(post("/v1/users", null, body))), 201).get("id").asText();
+
+        String token = expect(retryWhileOverloaded(() -> login(email)), 200).get("token").asText();
+
+        String account = objectMapper.writeValueAsString(Map.of("name", "Load Test Account", "accountType", "personal"));
+        String accountNumber = expect(send(post("/v1/accounts", token, account)), 201).get("accountNumber").asText();
+
+        Session session = new Session(userId, email, token, accountNumber);
+        if (openingBalance > 0) {
+            expect(send(transactionRequest(session, openingBalance, true)), 201);
+        }
+        return session;
+    }
+
+    /**
+     * Post a payment during setup, failing on anything but 201.
+     */
+    void seedTransaction(Session session, boolean deposit) throws IOException, InterruptedException {
+        expect(send(transactionRequest(session, 1.0, deposit)), 201);
+    }
+
+    /**
+     * Execute one load operation for the session and return the HTTP status.
+     */
+    int execute(LoadTestOperation operation, Session session, boolean deposit) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = switch (operation) {
+            case LOGIN -> login(session.email());
+            case LIST_ACCOUNTS -> send(get("/v1/accounts", session.token()));
+            case CREATE_TRANSACTION -> send(transactionRequest(session, 1.0, deposit));
+            case LIST_TRANSACTIONS -> send(get("/v1/accounts/" + session.accountNumber() + "/transactions?limit=50", session.token()));
+            case GET_USER -> send(get("/v1/users/" + session.userId(), session.token()));
+        };
+        return response.statusCode();
+    }
+
+    private HttpResponse<byte[]> login(String email) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(TestDataBuilder.loginRequest()
+                .withEmail(email)
+                .withPassword(PASSWORD)
+                .build());
+        return send(post("/v1/auth/login", null, body));
+    }
+
+    private HttpRequest transactionRequest(Session session, double amount, boolean deposit) throws IOException {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "amount", amount,
+                "currency", "GBP",
+                "type", deposit ? "deposit" : "withdrawal",
+                "reference", "Load test payment"));
+        return post("/v1/accounts/" + session.accountNumber() + "/transactions", session.token(), body);
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, String body) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Password hashing sheds load with 503 and login throttling answers 429; setup honours
+     * Retry-After instead of failing the run.
+     */
+    private HttpResponse<byte[]> retryWhileOverloaded(Call call) throws IOException, InterruptedException {
+        while (true) {
+            HttpResponse<byte[]> response = call.send();
+            if (response.statusCode() != 503 && response.statusCode() != 429) {
+                return response;
+            }
+            long retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfterSeconds));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        HttpResponse<byte[]> send() throws IOException, InterruptedException;
+    }
+
+    private JsonNode expect(HttpResponse<byte[]> response, int status) throws IOException {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                    + " returned " + response.statusCode() + ": " + new String(response.body()));
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
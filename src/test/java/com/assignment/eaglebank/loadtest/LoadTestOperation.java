@@ -0,0 +1,24 @@
+package com.assignment.eaglebank.loadtest;
+
+/**
+ * REST operations the load test drives, labelled by method and path template so results
+ * aggregate per endpoint rather than per account or user.
+ */
+enum LoadTestOperation {
+
+    LOGIN("POST /v1/auth/login"),
+    LIST_ACCOUNTS("GET /v1/accounts"),
+    CREATE_TRANSACTION("POST /v1/accounts/{accountNumber}/transactions"),
+    LIST_TRANSACTIONS("GET /v1/accounts/{accountNumber}/transactions"),
+    GET_USER("GET /v1/users/{userId}");
+
+    private final String endpoint;
+
+    LoadTestOperation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+}
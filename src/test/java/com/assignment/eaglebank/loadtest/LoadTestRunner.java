@@ -0,0 +1,164 @@
+package com.assignment.eaglebank.loadtest;
+
+import com.assignment.eaglebank.EaglebankApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load generator for the REST API. Boots the application on a random port against an
+ * in-memory H2 database (or targets an already running instance), seeds users, accounts and history
+ * for the chosen scenario, then drives the scenario's request mix from a fixed number of workers.
+ * Latencies recorded during warmup are discarded; the rest are reported per endpoint as HdrHistogram
+ * percentiles, both on stdout and as JSON.
+ * <p>
+ * Each worker waits for its response before sending the next request, so percentiles describe
+ * service time at the achieved throughput rather than latency at a fixed arrival rate.
+ * <p>
+ * Configured with system properties:
+ * loadtest.scenario (hot-account, many-users, read-heavy, login-storm), loadtest.threads, loadtest.users,
+ * loadtest.history-size, loadtest.warmup-seconds, loadtest.duration-seconds, loadtest.base-url
+ * and loadtest.report.
+ */
+public final class LoadTestRunner {
+
+    private static final double OPENING_BALANCE = 5000.0;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestScenario scenario = LoadTestScenario.fromName(System.getProperty("loadtest.scenario", "many-users"));
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        int users = scenario.sharedAccount() ? 1 : Integer.getInteger("loadtest.users", 50);
+        int historySize = Integer.getInteger("loadtest.history-size", scenario.defaultHistorySize());
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30));
+        String baseUrl = System.getProperty("loadtest.base-url", "");
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "target/loadtest-result.json"));
+
+        ConfigurableApplicationContext context = null;
+        if (baseUrl.isBlank()) {
+            context = startApplication();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            LoadTestClient client = new LoadTestClient(baseUrl, objectMapper);
+            System.out.printf("Seeding %d user(s) with %d transaction(s) each for %s against %s%n",
+                    users, historySize, scenario, baseUrl);
+            List<LoadTestClient.Session> sessions = seed(client, workers, users, historySize);
+
+            System.out.printf("Running %s with %d thread(s): %ds warmup, %ds measured%n",
+                    scenario, threads, warmup.toSeconds(), duration.toSeconds());
+            LatencyReport report = run(client, workers, scenario, sessions, threads, warmup, duration);
+
+            report.print(System.out, duration);
+            report.writeJson(reportFile, objectMapper, scenario, threads, duration);
+            System.out.println("Results written to " + reportFile.toAbsolutePath());
+        } finally {
+            workers.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(EaglebankApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                     "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                     "--spring.jpa.show-sql=false",
+                     "--eaglebank.login-rate-limit.enabled=false",
+                     "--logging.level.root=WARN",
+                     "--logging.level.com.assignment.eaglebank=WARN",
+                     "--logging.level.org.springframework.security=WARN",
+                     "--logging.level.org.hibernate.SQL=WARN",
+                     "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    private static List<LoadTestClient.Session> seed(LoadTestClient client, ExecutorService workers,
+                                                     int users, int historySize) throws Exception {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<Callable<LoadTestClient.Session>> seeders = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String email = "load-" + runId + "-" + i + "@example.com";
+            seeders.add(() -> {
+                LoadTestClient.Session session = client.createSession(email, OPENING_BALANCE);
+                for (int t = 0; t < historySize; t++) {
+                    client.seedTransaction(session, t % 2 == 0);
+                }
+                return session;
+            });
+        }
+
+        List<LoadTestClient.Session> sessions = new ArrayList<>();
+        for (Future<LoadTestClient.Session> session : workers.invokeAll(seeders)) {
+            sessions.add(session.get());
+        }
+        return sessions;
+    }
+
+    private static LatencyReport run(LoadTestClient client, ExecutorService workers, LoadTestScenario scenario,
+                                     List<LoadTestClient.Session> sessions, int threads,
+                                     Duration warmup, Duration duration) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        long[] window = new long[2];
+        List<Future<LatencyReport>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(workers.submit(() -> {
+                start.await();
+                LatencyReport report = new LatencyReport();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                boolean deposit = false;
+                long measureFrom = window[0];
+                long stopAt = window[1];
+                long now;
+                while ((now = System.nanoTime()) < stopAt) {
+                    LoadTestOperation operation = scenario.nextOperation(random);
+                    LoadTestClient.Session session = sessions.get(random.nextInt(sessions.size()));
+                    if (operation == LoadTestOperation.CREATE_TRANSACTION) {
+                        // Alternate so balances stay near the opening balance for the whole run
+                        deposit = !deposit;
+                    }
+                    int status;
+                    try {
+                        status = client.execute(operation, session, deposit);
+                    } catch (IOException e) {
+                        status = LatencyReport.IO_ERROR_STATUS;
+                    }
+                    if (now >= measureFrom) {
+                        report.record(operation, System.nanoTime() - now, status);
+                    }
+                }
+                return report;
+            }));
+        }
+
+        window[0] = System.nanoTime() + warmup.toNanos();
+        window[1] = window[0] + duration.toNanos();
+        start.countDown();
+
+        LatencyReport merged = new LatencyReport();
+        for (Future<LatencyReport> result : results) {
+            merged.add(result.get());
+        }
+        return merged;
+    }
+}
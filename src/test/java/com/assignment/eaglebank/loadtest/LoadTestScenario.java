@@ -0,0 +1,92 @@
+package com.assignment.eaglebank.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.assignment.eaglebank.loadtest.LoadTestOperation.*;
+
+/**
+ * Traffic mixes the load test can drive. Each scenario fixes how users and accounts are shared
+ * between workers, how much history is seeded per account, and the relative weight of each operation.
+ */
+enum LoadTestScenario {
+
+    /**
+     * All workers post payments to one shared account, measuring balance update contention.
+     */
+    HOT_ACCOUNT(true, 0, mix(0, 5, 70, 15, 10)),
+
+    /**
+     * Each request acts as a random user from a large population with its own account.
+     */
+    MANY_USERS(false, 20, mix(5, 20, 40, 20, 15)),
+
+    /**
+     * Mostly transaction history reads against accounts with a long seeded history.
+     */
+    READ_HEAVY(false, 500, mix(2, 15, 5, 65, 13)),
+
+    /**
+     * A burst of logins alongside normal traffic, checking that hashing load does not spill into other endpoints.
+     */
+    LOGIN_STORM(false, 20, mix(60, 10, 15, 10, 5));
+
+    private final boolean sharedAccount;
+    private final int defaultHistorySize;
+    private final LoadTestOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    LoadTestScenario(boolean sharedAccount, int defaultHistorySize, Map<LoadTestOperation, Integer> mix) {
+        this.sharedAccount = sharedAccount;
+        this.defaultHistorySize = defaultHistorySize;
+        this.operations = mix.keySet().toArray(LoadTestOperation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    boolean sharedAccount() {
+        return sharedAccount;
+    }
+
+    int defaultHistorySize() {
+        return defaultHistorySize;
+    }
+
+    /**
+     * Pick the next operation according to the scenario's weights.
+     */
+    LoadTestOperation nextOperation(ThreadLocalRandom random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weights exhausted");
+    }
+
+    /**
+     * Resolve a scenario from its kebab-case name, e.g. hot-account.
+     */
+    static LoadTestScenario fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    private static Map<LoadTestOperation, Integer> mix(int login, int listAccounts, int createTransaction,
+                                                      int listTransactions, int getUser) {
+        Map<LoadTestOperation, Integer> mix = new EnumMap<>(LoadTestOperation.class);
+        mix.put(LOGIN, login);
+        mix.put(LIST_ACCOUNTS, listAccounts);
+        mix.put(CREATE_TRANSACTION, createTransaction);
+        mix.put(LIST_TRANSACTIONS, listTransactions);
+        mix.put(GET_USER, getUser);
+        mix.values().removeIf(weight -> weight == 0);
+        return mix;
+    }
+}
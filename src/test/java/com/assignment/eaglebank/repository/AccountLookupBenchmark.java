@@ -0,0 +1,85 @@
+package com.assignment.eaglebank.repository;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.util.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures account lookup by formatted account number as the accounts table grows.
+ * The primary key path should stay flat from 10k to 10M rows, while the legacy
+ * CONCAT/LPAD expression match degrades linearly with table size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class AccountLookupBenchmark {
+
+    private static final int LOOKUP_KEYS = 1024;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private JdbcTemplate jdbcTemplate;
+    private String[] formattedAccountNumbers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("account-lookup-" + accounts);
+        accountRepository = context.getBean(AccountRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (id, name, address_line1, town, county, postcode, phone_number, email,
+                                   password_hash, deleted, created_timestamp, updated_timestamp)
+                VALUES ('usr-bench', 'Bench User', '1 Bench Street', 'London', 'London', 'SW1A 1AA',
+                        '+447000000000', 'bench@example.com', 'not-a-hash', FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO accounts (account_number, sort_code, name, user_id, account_type, currency, balance,
+                                      created_timestamp, updated_timestamp, version)
+                SELECT X, '10-10-10', 'Account ' || X, 'usr-bench', 'personal', 'GBP', 0,
+                       CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, accounts);
+
+        SplittableRandom random = new SplittableRandom(42);
+        formattedAccountNumbers = new String[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            AccountEntity account = new AccountEntity();
+            account.setAccountNumber(random.nextLong(1, accounts + 1L));
+            formattedAccountNumbers[i] = account.getFormattedAccountNumber();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String nextAccountNumber() {
+        return formattedAccountNumbers[next++ & (LOOKUP_KEYS - 1)];
+    }
+
+    @Benchmark
+    public AccountEntity findByFormattedAccountNumber() {
+        return accountRepository.findByFormattedAccountNumber(nextAccountNumber()).orElseThrow();
+    }
+
+    @Benchmark
+    public Long legacyExpressionMatch() {
+        return jdbcTemplate.queryForObject(
+                "SELECT account_number FROM accounts WHERE CONCAT('01', LPAD(CAST(account_number AS VARCHAR), 6, '0')) = ?",
+                Long.class, nextAccountNumber());
+    }
+}
@@ -0,0 +1,130 @@
+package com.assignment.eaglebank.security;
+
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedHashingPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private BoundedHashingPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_RunOnHashingPool() {
+        encoder = new BoundedHashingPasswordEncoder(new ThreadNameEncoder(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertThat(encoder.encode("secret")).startsWith("password-hashing-");
+        assertThat(encoder.matches("secret", "password-hashing-1")).isTrue();
+        assertThat(meterRegistry.get("eaglebank.auth.password.queue.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void encode_QueueFull_RejectedImmediately() throws Exception {
+        encoder = new BoundedHashingPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        awaitQueued();
+
+        assertThatThrownBy(() -> encoder.encode("third"))
+                .isInstanceOf(ServiceOverloadedException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed-first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed-second");
+        assertThat(meterRegistry.get("eaglebank.auth.password.rejections").tag("reason", "queue_full").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void encode_WaitedPastMaxQueueWait_Rejected() throws Exception {
+        encoder = new BoundedHashingPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofMillis(50), meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        awaitQueued();
+
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed-first");
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ServiceOverloadedException.class);
+        assertThat(meterRegistry.get("eaglebank.auth.password.rejections").tag("reason", "queue_timeout").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void encode_DelegateFails_ExceptionPropagated() {
+        encoder = new BoundedHashingPasswordEncoder(new ThreadNameEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("rawPassword cannot be null");
+            }
+        }, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("rawPassword cannot be null");
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "password-hashing").gauge().value() < 1) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static class ThreadNameEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Thread.currentThread().getName().equals(encodedPassword);
+        }
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
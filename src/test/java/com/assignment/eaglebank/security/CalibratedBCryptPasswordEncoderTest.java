@@ -0,0 +1,60 @@
+package com.assignment.eaglebank.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    private static final Duration BUDGET = Duration.ofMillis(250);
+
+    @Test
+    void upgradeEncoding_DifferentCostInEitherDirection_True() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void upgradeEncoding_NotBCrypt_False() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("not-a-hash")).isFalse();
+    }
+
+    @Test
+    void calibrateStrength_PicksHighestCostWithinBudget() {
+        // 20 ms at cost 10 doubles to 40, 80, 160 ms; 320 ms at cost 14 would exceed the budget
+        int strength = CalibratedBCryptPasswordEncoder.calibrateStrength(BUDGET, 10, 16, cost -> millis(20));
+
+        assertThat(strength).isEqualTo(13);
+    }
+
+    @Test
+    void calibrateStrength_ClampedToConfiguredRange() {
+        assertThat(CalibratedBCryptPasswordEncoder.calibrateStrength(BUDGET, 10, 12, cost -> millis(1))).isEqualTo(12);
+        assertThat(CalibratedBCryptPasswordEncoder.calibrateStrength(BUDGET, 10, 12, cost -> millis(400))).isEqualTo(10);
+    }
+
+    @Test
+    void calibrateStrength_IgnoresSlowFirstSample() {
+        long[] samples = {millis(500), millis(30), millis(25), millis(28)};
+        int[] next = {0};
+
+        int strength = CalibratedBCryptPasswordEncoder.calibrateStrength(BUDGET, 10, 16, cost -> samples[next[0]++]);
+
+        assertThat(strength).isEqualTo(13);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,47 @@
+package com.assignment.eaglebank.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost the login rate limiter adds to each login attempt when many threads check
+ * a large population of addresses and emails at once. Capacity is set high so every attempt
+ * takes the allowed path, which does the most work, and the slow refill keeps buckets from
+ * going idle so the steady-state lookup is measured rather than bucket churn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class LoginRateLimiterBenchmark {
+
+    private static final int KEYS = 1 << 14;
+
+    private LoginRateLimiter loginRateLimiter;
+    private String[] emails;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        loginRateLimiter = new LoginRateLimiter(true, 1_000_000, 60_000, 1_000_000, 60_000, 100_000,
+                new SimpleMeterRegistry());
+        emails = new String[KEYS];
+        addresses = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            emails[i] = "user-" + i + "@example.com";
+            addresses[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public void checkLogin() {
+        int key = ThreadLocalRandom.current().nextInt(KEYS);
+        loginRateLimiter.checkLogin(emails[key], addresses[key]);
+    }
+}
@@ -0,0 +1,128 @@
+package com.assignment.eaglebank.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import com.assignment.eaglebank.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the per-request cost of JWT authentication in {@link TokenAuthenticationFilter}.
+ * The legacy benchmark reproduces the previous behaviour of rebuilding the key and parser
+ * and parsing the token three times; the filter benchmarks run the current single-parse path,
+ * with and without the verified token cache. Every filter run also checks a revocation list
+ * holding 100k revoked ids, and the revocation check is measured on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jwt-signing-must-be-long-enough";
+
+    private static final int REVOKED_TOKENS = 100_000;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private TokenManager tokenManager;
+    private TokenRevocationList tokenRevocationList;
+    private TokenAuthenticationFilter filter;
+    private TokenAuthenticationFilter cachedFilter;
+    private String token;
+    private String tokenId;
+    private String authorizationHeader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenManager = new TokenManager();
+        ReflectionTestUtils.setField(tokenManager, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenManager, "expiration", 3_600_000L);
+        tokenManager.init();
+
+        tokenRevocationList = new TokenRevocationList(mock(RevokedTokenRepository.class), REVOKED_TOKENS * 2, 0.01,
+                new SimpleMeterRegistry());
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        for (int i = 0; i < REVOKED_TOKENS; i++) {
+            tokenRevocationList.revoke(new TokenPrincipal("usr-revoked", null, expiresAt, UUID.randomUUID().toString()));
+        }
+
+        filter = newFilter(new VerifiedTokenCache(tokenManager, false, 0, new SimpleMeterRegistry()));
+        cachedFilter = newFilter(new VerifiedTokenCache(tokenManager, true, 10_000, new SimpleMeterRegistry()));
+
+        token = tokenManager.createAuthToken("usr-benchmark", "bench@example.com");
+        tokenId = tokenManager.validateAuthToken(token).orElseThrow().tokenId();
+        authorizationHeader = "Bearer " + token;
+    }
+
+    private TokenAuthenticationFilter newFilter(VerifiedTokenCache verifiedTokenCache) {
+        TokenAuthenticationFilter filter = new TokenAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", tokenRevocationList);
+        return filter;
+    }
+
+    @Benchmark
+    public boolean isRevoked() {
+        return tokenRevocationList.isRevoked(tokenId);
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        return authenticate(filter);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    private Object authenticate(TokenAuthenticationFilter target) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/accounts");
+        request.addHeader("Authorization", authorizationHeader);
+        try {
+            target.doFilterInternal(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public boolean validateAuthToken() {
+        return tokenManager.validateAuthToken(token).isPresent();
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        // getUserIdFromToken, then verifyAuthToken, which parsed once more inside isTokenExpired
+        String userId = legacyParse().get("userId", String.class);
+        legacyParse();
+        Date expiration = legacyParse().getExpiration();
+        return userId != null && expiration.after(new Date());
+    }
+
+    private Claims legacyParse() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
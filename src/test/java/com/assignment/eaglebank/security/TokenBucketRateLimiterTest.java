@@ -0,0 +1,75 @@
+package com.assignment.eaglebank.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private static final Duration REFILL_INTERVAL = Duration.ofSeconds(1);
+
+    private long nanos = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void tryAcquire_BurstUpToCapacity_ThenWaitForRefill() {
+        TokenBucketRateLimiter limiter = newLimiter(3, 1000);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isEqualTo(REFILL_INTERVAL.toNanos());
+
+        advance(Duration.ofMillis(400));
+        assertThat(limiter.tryAcquire("key")).isEqualTo(Duration.ofMillis(600).toNanos());
+
+        advance(Duration.ofMillis(600));
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_KeysLimitedIndependently() {
+        TokenBucketRateLimiter limiter = newLimiter(1, 1000);
+
+        assertThat(limiter.tryAcquire("first")).isZero();
+        assertThat(limiter.tryAcquire("first")).isPositive();
+        assertThat(limiter.tryAcquire("second")).isZero();
+    }
+
+    @Test
+    void tryAcquire_FullyRefilledBucketsReplacedByNewKeys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, REFILL_INTERVAL, 1, 1000, () -> nanos);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("old-" + i);
+        }
+
+        advance(REFILL_INTERVAL);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("new-" + i);
+        }
+
+        assertThat(limiter.size()).isEqualTo(50);
+    }
+
+    @Test
+    void tryAcquire_DistinctKeyFlood_MemoryBounded() {
+        TokenBucketRateLimiter limiter = newLimiter(5, 64);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limiter.tryAcquire("key-" + i)).isZero();
+        }
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(64);
+    }
+
+    private TokenBucketRateLimiter newLimiter(int capacity, int maxEntries) {
+        return new TokenBucketRateLimiter(capacity, REFILL_INTERVAL, 4, maxEntries, () -> nanos);
+    }
+
+    private void advance(Duration duration) {
+        nanos += duration.toNanos();
+    }
+}
@@ -0,0 +1,40 @@
+package com.assignment.eaglebank.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JWT issuing on login and verification on every authenticated request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenManagerBenchmark {
+
+    private TokenManager tokenManager;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenManager = new TokenManager();
+        ReflectionTestUtils.setField(tokenManager, "secret", "benchmark-secret-key-for-jwt-signing-must-be-long-enough");
+        ReflectionTestUtils.setField(tokenManager, "expiration", 3_600_000L);
+        tokenManager.init();
+        token = tokenManager.createAuthToken("usr-benchmark", "bench@example.com");
+    }
+
+    @Benchmark
+    public String createAuthToken() {
+        return tokenManager.createAuthToken("usr-benchmark", "bench@example.com");
+    }
+
+    @Benchmark
+    public Boolean verifyAuthToken() {
+        return tokenManager.verifyAuthToken(token);
+    }
+}
@@ -0,0 +1,115 @@
+package com.assignment.eaglebank.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenManagerTest {
+
+    private static final String SECRET = "test-secret-key-for-token-manager-tests-must-be-long-enough";
+
+    private TokenManager tokenManager;
+
+    @BeforeEach
+    void setUp() {
+        tokenManager = newTokenManager(SECRET, 3_600_000L);
+    }
+
+    @Test
+    void validateAuthToken_ValidToken_ReturnsPrincipal() {
+        String token = tokenManager.createAuthToken("usr-123", "john@example.com");
+
+        Optional<TokenPrincipal> principal = tokenManager.validateAuthToken(token);
+
+        assertThat(principal).isPresent();
+        assertThat(principal.get().userId()).isEqualTo("usr-123");
+        assertThat(principal.get().email()).isEqualTo("john@example.com");
+        assertThat(principal.get().expiresAt()).isAfter(Instant.now());
+        assertThat(principal.get().tokenId()).isNotBlank();
+        assertThat(tokenManager.verifyAuthToken(token)).isTrue();
+    }
+
+    @Test
+    void createAuthToken_EachTokenHasUniqueId() {
+        String first = tokenManager.createAuthToken("usr-123", "john@example.com");
+        String second = tokenManager.createAuthToken("usr-123", "john@example.com");
+
+        assertThat(tokenManager.validateAuthToken(first).orElseThrow().tokenId())
+                .isNotEqualTo(tokenManager.validateAuthToken(second).orElseThrow().tokenId());
+    }
+
+    @Test
+    void validateRefreshToken_OnlyAcceptsRefreshTokens() {
+        String accessToken = tokenManager.createAuthToken("usr-123", "john@example.com");
+        String refreshToken = tokenManager.createRefreshToken("usr-123", "john@example.com");
+
+        assertThat(tokenManager.validateRefreshToken(refreshToken)).isPresent();
+        assertThat(tokenManager.validateRefreshToken(refreshToken).get().expiresAt())
+                .isAfter(tokenManager.validateAuthToken(accessToken).get().expiresAt());
+        assertThat(tokenManager.validateRefreshToken(accessToken)).isEmpty();
+        assertThat(tokenManager.validateAuthToken(refreshToken)).isEmpty();
+    }
+
+    @Test
+    void validateAuthToken_MissingTokenId_ReturnsEmpty() {
+        String token = Jwts.builder()
+                .subject("usr-123")
+                .claim("userId", "usr-123")
+                .claim("token_type", "access")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThat(tokenManager.validateAuthToken(token)).isEmpty();
+    }
+
+    @Test
+    void validateAuthToken_ExpiredToken_ReturnsEmpty() {
+        String token = newTokenManager(SECRET, -1_000L).createAuthToken("usr-123", "john@example.com");
+
+        assertThat(tokenManager.validateAuthToken(token)).isEmpty();
+        assertThat(tokenManager.verifyAuthToken(token)).isFalse();
+    }
+
+    @Test
+    void validateAuthToken_TokenSignedWithOtherKey_ReturnsEmpty() {
+        String token = newTokenManager(SECRET + "-other", 3_600_000L).createAuthToken("usr-123", "john@example.com");
+
+        assertThat(tokenManager.validateAuthToken(token)).isEmpty();
+    }
+
+    @Test
+    void validateAuthToken_MalformedToken_ReturnsEmpty() {
+        assertThat(tokenManager.validateAuthToken("not-a-jwt")).isEmpty();
+        assertThat(tokenManager.validateAuthToken("")).isEmpty();
+    }
+
+    @Test
+    void validateAuthToken_MissingUserIdClaim_ReturnsEmpty() {
+        String token = Jwts.builder()
+                .subject("usr-123")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThat(tokenManager.validateAuthToken(token)).isEmpty();
+    }
+
+    private static TokenManager newTokenManager(String secret, long expiration) {
+        TokenManager manager = new TokenManager();
+        ReflectionTestUtils.setField(manager, "secret", secret);
+        ReflectionTestUtils.setField(manager, "expiration", expiration);
+        ReflectionTestUtils.setField(manager, "refreshExpiration", expiration * 24);
+        manager.init();
+        return manager;
+    }
+}
@@ -0,0 +1,135 @@
+package com.assignment.eaglebank.security;
+
+import com.assignment.eaglebank.entity.RevokedTokenEntity;
+import com.assignment.eaglebank.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void revoke_PersistsAndRejectsToken() {
+        TokenRevocationList revocationList = newRevocationList(16);
+
+        assertThat(revocationList.revoke(principal("jti-1"))).isTrue();
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(revocationList.isRevoked("jti-2")).isFalse();
+        ArgumentCaptor<RevokedTokenEntity> saved = ArgumentCaptor.forClass(RevokedTokenEntity.class);
+        verify(revokedTokenRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getTokenId()).isEqualTo("jti-1");
+        assertThat(saved.getValue().getUserId()).isEqualTo("usr-123");
+        assertThat(saved.getValue().getExpiresAt()).isEqualTo(OffsetDateTime.ofInstant(NOW.plusSeconds(900), ZoneOffset.UTC));
+    }
+
+    @Test
+    void revoke_AlreadyRevoked_ReturnsFalseWithoutSaving() {
+        TokenRevocationList revocationList = newRevocationList(16);
+        revocationList.revoke(principal("jti-1"));
+
+        assertThat(revocationList.revoke(principal("jti-1"))).isFalse();
+
+        verify(revokedTokenRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void revoke_RevokedByAnotherInstance_ReturnsFalseAndRemembersToken() {
+        when(revokedTokenRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        TokenRevocationList revocationList = newRevocationList(16);
+
+        assertThat(revocationList.revoke(principal("jti-1"))).isFalse();
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void rebuild_LoadsUnexpiredRevocationsAndPurgesExpired() {
+        OffsetDateTime now = OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC);
+        when(revokedTokenRepository.deleteExpired(now)).thenReturn(3);
+        when(revokedTokenRepository.findUnexpiredTokenIds(now)).thenReturn(List.of("jti-1", "jti-2"));
+        TokenRevocationList revocationList = newRevocationList(16);
+
+        revocationList.rebuild();
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(revocationList.isRevoked("jti-2")).isTrue();
+        assertThat(revocationList.isRevoked("jti-3")).isFalse();
+        assertThat(revocationList.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("eaglebank.auth.token.revocations").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void refresh_AddsRevocationsMadeElsewhereSinceLastRefresh() {
+        OffsetDateTime now = OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC);
+        TokenRevocationList revocationList = newRevocationList(16);
+        revocationList.revoke(principal("jti-1"));
+        // Looks back past the last refresh to cover clock skew and late commits
+        when(revokedTokenRepository.findTokenIdsRevokedSince(now.minusSeconds(30), now))
+                .thenReturn(List.of("jti-1", "jti-2"));
+
+        assertThat(revocationList.refresh()).isEqualTo(1);
+
+        assertThat(revocationList.isRevoked("jti-2")).isTrue();
+        assertThat(revocationList.size()).isEqualTo(2);
+    }
+
+    @Test
+    void revoke_PastCapacity_RebuildsFromDatabase() {
+        TokenRevocationList revocationList = newRevocationList(4);
+        List<String> persisted = IntStream.rangeClosed(1, 5).mapToObj(i -> "jti-" + i).toList();
+        when(revokedTokenRepository.findUnexpiredTokenIds(any())).thenReturn(persisted);
+
+        persisted.forEach(tokenId -> revocationList.revoke(principal(tokenId)));
+
+        verify(revokedTokenRepository, times(1)).findUnexpiredTokenIds(any());
+        assertThat(persisted).allMatch(revocationList::isRevoked);
+        assertThat(revocationList.size()).isEqualTo(5);
+    }
+
+    @Test
+    void isRevoked_ManyUnrevokedTokens_FalsePositivesNeverReported() {
+        TokenRevocationList revocationList = newRevocationList(1000);
+        IntStream.range(0, 1000).forEach(i -> revocationList.revoke(principal("revoked-" + i)));
+
+        long reported = IntStream.range(0, 100_000).filter(i -> revocationList.isRevoked("active-" + i)).count();
+
+        assertThat(reported).isZero();
+        // Sized for a 1% false positive rate, so only a small share of lookups reach the exact set
+        assertThat(meterRegistry.get("eaglebank.auth.token.revocation.false_positives").counter().count())
+                .isLessThan(3_000);
+    }
+
+    private TokenRevocationList newRevocationList(int expectedRevocations) {
+        return new TokenRevocationList(revokedTokenRepository, expectedRevocations, 0.01, meterRegistry,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static TokenPrincipal principal(String tokenId) {
+        return new TokenPrincipal("usr-123", "john@example.com", NOW.plusSeconds(900), tokenId);
+    }
+}
@@ -0,0 +1,147 @@
+package com.assignment.eaglebank.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+    @Mock
+    private TokenManager tokenManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MutableClock clock;
+    private long tickerNanos;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+    }
+
+    @Test
+    void validate_RepeatedToken_VerifiedOnce() {
+        TokenPrincipal principal = principal(NOW.plus(Duration.ofHours(1)));
+        when(tokenManager.validateAuthToken("token")).thenReturn(Optional.of(principal));
+        VerifiedTokenCache cache = newCache(true);
+
+        assertThat(cache.validate("token")).contains(principal);
+        assertThat(cache.validate("token")).contains(principal);
+        assertThat(cache.validate("token")).contains(principal);
+
+        verify(tokenManager, times(1)).validateAuthToken("token");
+        assertThat(cache.stats().hitCount()).isEqualTo(2);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("eaglebank.auth.token.validation").tags("source", "cache", "result", "valid").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "verified-tokens", "result", "hit").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void validate_CachedTokenPastExpiry_Rejected() {
+        TokenPrincipal principal = principal(NOW.plus(Duration.ofMinutes(5)));
+        when(tokenManager.validateAuthToken("token")).thenReturn(Optional.of(principal));
+        VerifiedTokenCache cache = newCache(true);
+        assertThat(cache.validate("token")).isPresent();
+
+        // Wall clock passes exp while the cache ticker has not moved, so only the read-time check protects us
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThat(cache.validate("token")).isEmpty();
+        assertThat(cache.estimatedSize()).isZero();
+    }
+
+    @Test
+    void validate_EntryEvictedAtExpiry() {
+        TokenPrincipal principal = principal(NOW.plus(Duration.ofMinutes(5)));
+        when(tokenManager.validateAuthToken("token")).thenReturn(Optional.of(principal)).thenReturn(Optional.empty());
+        VerifiedTokenCache cache = newCache(true);
+        assertThat(cache.validate("token")).isPresent();
+
+        tickerNanos += Duration.ofMinutes(5).toNanos();
+
+        assertThat(cache.validate("token")).isEmpty();
+        verify(tokenManager, times(2)).validateAuthToken("token");
+    }
+
+    @Test
+    void validate_InvalidToken_NotCached() {
+        when(tokenManager.validateAuthToken("bad")).thenReturn(Optional.empty());
+        VerifiedTokenCache cache = newCache(true);
+
+        assertThat(cache.validate("bad")).isEmpty();
+        assertThat(cache.validate("bad")).isEmpty();
+
+        verify(tokenManager, times(2)).validateAuthToken("bad");
+        assertThat(cache.estimatedSize()).isZero();
+        assertThat(meterRegistry.get("eaglebank.auth.token.validation").tags("source", "signature", "result", "invalid").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void validate_Disabled_AlwaysDelegates() {
+        TokenPrincipal principal = principal(NOW.plus(Duration.ofHours(1)));
+        when(tokenManager.validateAuthToken("token")).thenReturn(Optional.of(principal));
+        VerifiedTokenCache cache = newCache(false);
+
+        assertThat(cache.validate("token")).contains(principal);
+        assertThat(cache.validate("token")).contains(principal);
+
+        verify(tokenManager, times(2)).validateAuthToken("token");
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.stats().requestCount()).isZero();
+    }
+
+    private VerifiedTokenCache newCache(boolean enabled) {
+        return new VerifiedTokenCache(tokenManager, enabled, 100, meterRegistry, clock, () -> tickerNanos);
+    }
+
+    private static TokenPrincipal principal(Instant expiresAt) {
+        return new TokenPrincipal("usr-123", "john@example.com", expiresAt, "jti-123");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
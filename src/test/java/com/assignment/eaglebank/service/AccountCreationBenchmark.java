@@ -0,0 +1,79 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.CreateBankAccountRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.util.BenchmarkApplication;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening a burst of accounts, either as one openAccount call per account or as a bulk
+ * onboarding saveAll in a single transaction, with Hibernate JDBC batching switched off and on.
+ * Each operation creates the whole burst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountCreationBenchmark {
+
+    @Param({"100", "1000"})
+    private int accounts;
+
+    @Param({"0", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private BankAccountService bankAccountService;
+    private AccountRepository accountRepository;
+    private UserEntity user;
+    private CreateBankAccountRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("account-creation-" + accounts + "-" + jdbcBatchSize,
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        bankAccountService = context.getBean(BankAccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+
+        user = context.getBean(UserRepository.class).save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("bench-accounts@example.com")
+                .build());
+        request = new CreateBankAccountRequest()
+                .name("Onboarded Account")
+                .accountType(CreateBankAccountRequest.AccountTypeEnum.PERSONAL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void openAccountOneAtATime(Blackhole blackhole) {
+        for (int i = 0; i < accounts; i++) {
+            blackhole.consume(bankAccountService.openAccount(user.getId(), request));
+        }
+    }
+
+    @Benchmark
+    public List<AccountEntity> bulkOnboarding() {
+        List<AccountEntity> burst = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            burst.add(new AccountEntity("Onboarded Account " + i, user, "personal"));
+        }
+        return accountRepository.saveAll(burst);
+    }
+}
@@ -0,0 +1,111 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.AccountBalanceResponse;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.util.BenchmarkApplication;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures balance-as-of queries at random points in one account's history as the history grows.
+ * Answering from the nearest checkpoint should stay flat, reading at most a checkpoint interval of
+ * transactions, while summing the history up to the point grows with its length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BalanceAsOfBenchmark {
+
+    private static final int CHECKPOINT_INTERVAL = 1000;
+    private static final int AS_OF_POINTS = 1024;
+    private static final OffsetDateTime HISTORY_START = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Param({"10000", "1000000"})
+    private int transactions;
+
+    private ConfigurableApplicationContext context;
+    private BankAccountService bankAccountService;
+    private TransactionRepository transactionRepository;
+    private String userId;
+    private Long accountNumber;
+    private String formattedAccountNumber;
+    private OffsetDateTime[] asOfPoints;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("balance-as-of-" + transactions,
+                "eaglebank.balance.checkpoint-interval=" + CHECKPOINT_INTERVAL);
+        bankAccountService = context.getBean(BankAccountService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        UserEntity user = context.getBean(UserRepository.class).save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("bench-balance@example.com")
+                .build());
+        AccountEntity account = context.getBean(AccountRepository.class)
+                .save(new AccountEntity("Long History", user, "personal"));
+        userId = user.getId();
+        accountNumber = account.getAccountNumber();
+        formattedAccountNumber = account.getFormattedAccountNumber();
+
+        // One transaction a second, alternating deposits and withdrawals of 1.00, so the balance after
+        // transaction X is X mod 2 and every checkpoint, taken after an even number of them, is zero
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, amount, currency, type, reference, account_number, created_timestamp)
+                SELECT 'tan-' || LPAD(CAST(X AS VARCHAR), 10, '0'), 1.00, 'GBP',
+                       CASEWHEN(MOD(X, 2) = 1, 'DEPOSIT', 'WITHDRAWAL'), 'Benchmark payment', ?,
+                       DATEADD(SECOND, X, CAST(? AS TIMESTAMP WITH TIME ZONE))
+                FROM SYSTEM_RANGE(1, ?)
+                """, accountNumber, HISTORY_START, transactions);
+        jdbcTemplate.update("""
+                INSERT INTO balance_checkpoints (id, account_number, balance, transaction_id, checkpoint_timestamp)
+                SELECT X, ?, 0, 'tan-' || LPAD(CAST(X * %1$d AS VARCHAR), 10, '0'),
+                       DATEADD(SECOND, X * %1$d, CAST(? AS TIMESTAMP WITH TIME ZONE))
+                FROM SYSTEM_RANGE(1, ?)
+                """.formatted(CHECKPOINT_INTERVAL), accountNumber, HISTORY_START, transactions / CHECKPOINT_INTERVAL);
+        jdbcTemplate.update("UPDATE accounts SET balance = ? WHERE account_number = ?",
+                BigDecimal.valueOf(transactions % 2), accountNumber);
+
+        SplittableRandom random = new SplittableRandom(42);
+        asOfPoints = new OffsetDateTime[AS_OF_POINTS];
+        for (int i = 0; i < AS_OF_POINTS; i++) {
+            asOfPoints[i] = HISTORY_START.plusSeconds(random.nextLong(1, transactions + 1L)).plusNanos(500_000_000);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private OffsetDateTime nextAsOf() {
+        return asOfPoints[next++ & (AS_OF_POINTS - 1)];
+    }
+
+    @Benchmark
+    public AccountBalanceResponse balanceFromCheckpoint() {
+        return bankAccountService.getBalance(userId, formattedAccountNumber, nextAsOf());
+    }
+
+    @Benchmark
+    public BigDecimal sumFullHistory() {
+        return transactionRepository.sumSignedAmountsUpTo(accountNumber, nextAsOf());
+    }
+}
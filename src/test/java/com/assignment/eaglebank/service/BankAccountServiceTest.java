@@ -1,15 +1,20 @@
 package com.assignment.eaglebank.service;
 
 import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.BalanceCheckpointEntity;
+import com.assignment.eaglebank.entity.TransactionEntity;
 import com.assignment.eaglebank.entity.UserEntity;
 import com.assignment.eaglebank.exception.ResourceNotFoundException;
 import com.assignment.eaglebank.exception.AccessDeniedException;
 import com.assignment.eaglebank.exception.BusinessRuleViolationException;
+import com.assignment.eaglebank.model.AccountBalanceResponse;
 import com.assignment.eaglebank.model.BankAccountResponse;
 import com.assignment.eaglebank.model.CreateBankAccountRequest;
 import com.assignment.eaglebank.model.UpdateBankAccountRequest;
 import com.assignment.eaglebank.model.ListBankAccountsResponse;
 import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.BalanceCheckpointRepository;
+import com.assignment.eaglebank.repository.TransactionRepository;
 import com.assignment.eaglebank.repository.UserRepository;
 import com.assignment.eaglebank.util.TestDataBuilder;
 
@@ -19,9 +24,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -41,6 +49,12 @@ class BankAccountServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
     @InjectMocks
     private BankAccountService bankAccountService;
 
@@ -200,6 +214,61 @@ class BankAccountServiceTest {
         verify(accountRepository).findByFormattedAccountNumber("01000001");
     }
 
+    @Test
+    void getBalance_NoAsOf_ReturnsCurrentBalance() {
+        // Given
+        when(accountRepository.findByFormattedAccountNumber("01000001")).thenReturn(Optional.of(testAccount));
+
+        // When
+        AccountBalanceResponse result = bankAccountService.getBalance("usr-test123", "01000001", null);
+
+        // Then
+        assertThat(result.getBalance()).isEqualTo(1000.00);
+        assertThat(result.getAsOf()).isNotNull();
+        verifyNoInteractions(balanceCheckpointRepository, transactionRepository);
+    }
+
+    @Test
+    void getBalance_AsOf_AddsTransactionsSinceCheckpoint() {
+        // Given
+        OffsetDateTime asOf = OffsetDateTime.now().minusDays(1);
+        TransactionEntity checkpointed = TestDataBuilder.transactionEntity()
+                .withId("tan-checkpointed")
+                .withAccount(testAccount)
+                .build();
+        checkpointed.setCreatedTimestamp(asOf.minusHours(1));
+        BalanceCheckpointEntity checkpoint = new BalanceCheckpointEntity(checkpointed, BigDecimal.valueOf(400.00));
+
+        when(accountRepository.findByFormattedAccountNumber("01000001")).thenReturn(Optional.of(testAccount));
+        when(balanceCheckpointRepository.findLatestAtOrBefore(1L, asOf, Limit.of(1))).thenReturn(List.of(checkpoint));
+        when(transactionRepository.sumSignedAmountsBetween(1L, asOf.minusHours(1), "tan-checkpointed", asOf))
+                .thenReturn(BigDecimal.valueOf(-150.00));
+
+        // When
+        AccountBalanceResponse result = bankAccountService.getBalance("usr-test123", "01000001", asOf);
+
+        // Then
+        assertThat(result.getAccountNumber()).isEqualTo("01000001");
+        assertThat(result.getBalance()).isEqualTo(250.00);
+        assertThat(result.getAsOf()).isEqualTo(asOf);
+        verify(transactionRepository, never()).sumSignedAmountsUpTo(anyLong(), any());
+    }
+
+    @Test
+    void getBalance_AsOfBeforeFirstCheckpoint_SumsHistory() {
+        // Given
+        OffsetDateTime asOf = OffsetDateTime.now().minusDays(1);
+        when(accountRepository.findByFormattedAccountNumber("01000001")).thenReturn(Optional.of(testAccount));
+        when(balanceCheckpointRepository.findLatestAtOrBefore(1L, asOf, Limit.of(1))).thenReturn(List.of());
+        when(transactionRepository.sumSignedAmountsUpTo(1L, asOf)).thenReturn(BigDecimal.valueOf(75.50));
+
+        // When
+        AccountBalanceResponse result = bankAccountService.getBalance("usr-test123", "01000001", asOf);
+
+        // Then
+        assertThat(result.getBalance()).isEqualTo(75.50);
+    }
+
     @Test
     void modifyAccount_Success() {
         // Given
@@ -239,27 +308,42 @@ class BankAccountServiceTest {
         // Given
         // Set up account with zero balance and no transactions
         testAccount.setBalance(BigDecimal.ZERO);
-        testAccount.setTransactions(Collections.emptyList());
+        testAccount.setVersion(3L);
 
         when(accountRepository.findByFormattedAccountNumber("01000001")).thenReturn(Optional.of(testAccount));
+        when(transactionRepository.existsByAccountAccountNumber(testAccount.getAccountNumber())).thenReturn(false);
+        when(accountRepository.deleteByAccountNumberAndVersion(testAccount.getAccountNumber(), 3L)).thenReturn(1);
 
         // When
         bankAccountService.closeAccount("usr-test123", "01000001");
 
         // Then
         verify(accountRepository).findByFormattedAccountNumber("01000001");
-        verify(accountRepository).delete(testAccount);
+        verify(accountRepository).deleteByAccountNumberAndVersion(testAccount.getAccountNumber(), 3L);
+        verify(accountRepository, never()).delete(any(AccountEntity.class));
     }
 
     @Test
-    void closeAccount_HasTransactions_ThrowsBusinessRuleViolationException() {
+    void closeAccount_ConcurrentlyModified_ThrowsOptimisticLockingFailureException() {
         // Given
-        // Set up account with transactions (non-empty list)
-        testAccount.setTransactions(Arrays.asList(
-                TestDataBuilder.transactionEntity().build()
-        ));
+        testAccount.setBalance(BigDecimal.ZERO);
+        testAccount.setVersion(3L);
 
         when(accountRepository.findByFormattedAccountNumber("01000001")).thenReturn(Optional.of(testAccount));
+        when(transactionRepository.existsByAccountAccountNumber(testAccount.getAccountNumber())).thenReturn(false);
+        when(accountRepository.deleteByAccountNumberAndVersion(testAccount.getAccountNumber(), 3L)).thenReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> bankAccountService.closeAccount("usr-test123", "01000001"))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void closeAccount_HasTransactions_ThrowsBusinessRuleViolationException() {
+        // Given
+        // Set up account with transactions
+        when(accountRepository.findByFormattedAccountNumber("01000001")).thenReturn(Optional.of(testAccount));
+        when(transactionRepository.existsByAccountAccountNumber(testAccount.getAccountNumber())).thenReturn(true);
 
         // When & Then
         assertThatThrownBy(() -> bankAccountService.closeAccount("usr-test123", "01000001"))
@@ -267,7 +351,7 @@ class BankAccountServiceTest {
                 .hasMessageContaining("Cannot close account with existing transactions");
 
         verify(accountRepository).findByFormattedAccountNumber("01000001");
-        verify(accountRepository, never()).delete(any(AccountEntity.class));
+        verify(accountRepository, never()).deleteByAccountNumberAndVersion(anyLong(), any());
     }
 
     @Test
@@ -275,9 +359,9 @@ class BankAccountServiceTest {
         // Given
         // Set up account with non-zero balance
         testAccount.setBalance(BigDecimal.valueOf(100.00));
-        testAccount.setTransactions(Collections.emptyList());
 
         when(accountRepository.findByFormattedAccountNumber("01000001")).thenReturn(Optional.of(testAccount));
+        when(transactionRepository.existsByAccountAccountNumber(testAccount.getAccountNumber())).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> bankAccountService.closeAccount("usr-test123", "01000001"))
@@ -285,7 +369,7 @@ class BankAccountServiceTest {
                 .hasMessageContaining("Cannot close account with non-zero balance");
 
         verify(accountRepository).findByFormattedAccountNumber("01000001");
-        verify(accountRepository, never()).delete(any(AccountEntity.class));
+        verify(accountRepository, never()).deleteByAccountNumberAndVersion(anyLong(), any());
     }
 
     @Test
@@ -298,7 +382,7 @@ class BankAccountServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class);
 
         verify(accountRepository).findByFormattedAccountNumber("01000001");
-        verify(accountRepository, never()).delete(any(AccountEntity.class));
+        verify(accountRepository, never()).deleteByAccountNumberAndVersion(anyLong(), any());
     }
 
     @Test
@@ -0,0 +1,234 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.IdempotencyRecordEntity;
+import com.assignment.eaglebank.exception.BusinessRuleViolationException;
+import com.assignment.eaglebank.exception.InsufficientBalanceException;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String USER_ID = "usr-test123";
+    private static final String ACCOUNT_NUMBER = "01000001";
+    private static final String KEY = "retry-key-1";
+    private static final Instant NOW = Instant.parse("2026-01-15T10:00:00Z");
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(paymentService, Optional.empty(), idempotencyRecordRepository, objectMapper,
+                meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC), 60_000, 100, 5_000, 2);
+    }
+
+    @Test
+    void processTransaction_Repeated_SecondServedFromCacheWithoutPosting() {
+        TransactionResponse posted = transaction("tan-first");
+        when(paymentService.processTransaction(eq(USER_ID), eq(ACCOUNT_NUMBER), any(), any())).thenReturn(posted);
+
+        IdempotencyService.IdempotentResponse first = idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10));
+        IdempotencyService.IdempotentResponse repeat = idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(repeat.replayed()).isTrue();
+        assertThat(repeat.response()).isSameAs(posted);
+        verify(paymentService, times(1)).processTransaction(any(), any(), any(), any());
+        verify(idempotencyRecordRepository, times(1)).findById(USER_ID + ":" + KEY);
+        assertThat(outcomes("executed")).isEqualTo(1);
+        assertThat(outcomes("cached")).isEqualTo(1);
+    }
+
+    @Test
+    void processTransaction_KeyReusedForDifferentRequest_Rejected() {
+        when(paymentService.processTransaction(any(), any(), any(), any())).thenReturn(transaction("tan-first"));
+        idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10));
+
+        assertThatThrownBy(() -> idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(20)))
+                .isInstanceOf(BusinessRuleViolationException.class)
+                .hasMessageContaining("Idempotency-Key");
+        assertThatThrownBy(() -> idempotencyService.processTransaction(USER_ID, "01000002", KEY, deposit(10)))
+                .isInstanceOf(BusinessRuleViolationException.class);
+
+        verify(paymentService, times(1)).processTransaction(any(), any(), any(), any());
+        assertThat(outcomes("rejected")).isEqualTo(2);
+    }
+
+    @Test
+    void processTransaction_SameKeyOtherUser_ExecutedSeparately() {
+        when(paymentService.processTransaction(any(), any(), any(), any()))
+                .thenReturn(transaction("tan-first"), transaction("tan-second"));
+
+        idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10));
+        IdempotencyService.IdempotentResponse other = idempotencyService.processTransaction("usr-other456", ACCOUNT_NUMBER, KEY, deposit(10));
+
+        assertThat(other.replayed()).isFalse();
+        assertThat(other.response().getId()).isEqualTo("tan-second");
+    }
+
+    @Test
+    void processTransaction_StoredByEarlierProcess_ReplayedWithoutPosting() throws Exception {
+        TransactionResponse original = transaction("tan-stored");
+        when(idempotencyRecordRepository.findById(USER_ID + ":" + KEY)).thenReturn(Optional.of(record(original, NOW.plusSeconds(60))));
+
+        IdempotencyService.IdempotentResponse result = idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10));
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response().getId()).isEqualTo("tan-stored");
+        verifyNoInteractions(paymentService);
+        assertThat(outcomes("stored")).isEqualTo(1);
+    }
+
+    @Test
+    void processTransaction_StoredRecordExpired_RemovedAndPostedAgain() throws Exception {
+        IdempotencyRecordEntity expired = record(transaction("tan-old"), NOW.minusSeconds(1));
+        when(idempotencyRecordRepository.findById(USER_ID + ":" + KEY)).thenReturn(Optional.of(expired));
+        when(paymentService.processTransaction(any(), any(), any(), any())).thenReturn(transaction("tan-new"));
+
+        IdempotencyService.IdempotentResponse result = idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10));
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.response().getId()).isEqualTo("tan-new");
+        verify(idempotencyRecordRepository).delete(expired);
+    }
+
+    @Test
+    void processTransaction_OtherInstanceCommittedFirst_ReturnsItsResult() throws Exception {
+        TransactionResponse winner = transaction("tan-winner");
+        when(idempotencyRecordRepository.findById(USER_ID + ":" + KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(record(winner, NOW.plusSeconds(60))));
+        when(paymentService.processTransaction(any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        IdempotencyService.IdempotentResponse result = idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10));
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response().getId()).isEqualTo("tan-winner");
+    }
+
+    @Test
+    void processTransaction_FirstAttemptFailed_RetryWithSameKeyPosts() {
+        when(paymentService.processTransaction(any(), any(), any(), any()))
+                .thenThrow(new InsufficientBalanceException(BigDecimal.ZERO, BigDecimal.TEN))
+                .thenReturn(transaction("tan-second"));
+
+        assertThatThrownBy(() -> idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10)))
+                .isInstanceOf(InsufficientBalanceException.class);
+        IdempotencyService.IdempotentResponse retry = idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10));
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.response().getId()).isEqualTo("tan-second");
+    }
+
+    @Test
+    void processTransaction_ConcurrentDuplicate_WaitsForFirstInsteadOfPosting() throws Exception {
+        CountDownLatch posting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(paymentService.processTransaction(any(), any(), any(), any())).thenAnswer(invocation -> {
+            posting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return transaction("tan-first");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyService.IdempotentResponse> first = executor.submit(() ->
+                    idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10)));
+            assertThat(posting.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<IdempotencyService.IdempotentResponse> duplicate = executor.submit(() ->
+                    idempotencyService.processTransaction(USER_ID, ACCOUNT_NUMBER, KEY, deposit(10)));
+
+            assertThatThrownBy(() -> duplicate.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).replayed()).isTrue();
+            assertThat(duplicate.get().response().getId()).isEqualTo("tan-first");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        verify(paymentService, times(1)).processTransaction(any(), any(), any(), any());
+        assertThat(outcomes("joined")).isEqualTo(1);
+    }
+
+    @Test
+    void purgeExpired_DeletesInBatchesUntilNoneLeft() {
+        when(idempotencyRecordRepository.findExpiredKeys(any(OffsetDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of("a", "b")).thenReturn(List.of("c", "d")).thenReturn(List.of("e"));
+
+        int purged = idempotencyService.purgeExpired();
+
+        assertThat(purged).isEqualTo(5);
+        verify(idempotencyRecordRepository).deleteAllByIdInBatch(List.of("a", "b"));
+        verify(idempotencyRecordRepository).deleteAllByIdInBatch(List.of("c", "d"));
+        verify(idempotencyRecordRepository).deleteAllByIdInBatch(List.of("e"));
+        assertThat(meterRegistry.get("eaglebank.payments.idempotency.purged").counter().count()).isEqualTo(5);
+    }
+
+    private IdempotencyRecordEntity record(TransactionResponse response, Instant expiresAt) throws Exception {
+        OffsetDateTime created = OffsetDateTime.ofInstant(NOW.minusSeconds(10), ZoneOffset.UTC);
+        return new IdempotencyRecordEntity(USER_ID + ":" + KEY, IdempotencyService.fingerprint(ACCOUNT_NUMBER, deposit(10)),
+                objectMapper.writeValueAsString(response), created, OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC));
+    }
+
+    private double outcomes(String outcome) {
+        return meterRegistry.get("eaglebank.payments.idempotency.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private static TransactionResponse transaction(String id) {
+        return new TransactionResponse()
+                .id(id)
+                .amount(10.0)
+                .currency(TransactionResponse.CurrencyEnum.GBP)
+                .type(TransactionResponse.TypeEnum.DEPOSIT)
+                .userId(USER_ID)
+                .createdTimestamp(OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC));
+    }
+
+    private static CreateTransactionRequest deposit(double amount) {
+        return new CreateTransactionRequest()
+                .amount(amount)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(CreateTransactionRequest.TypeEnum.DEPOSIT)
+                .reference("Retry test");
+    }
+}
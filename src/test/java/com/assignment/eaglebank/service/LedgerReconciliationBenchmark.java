@@ -0,0 +1,74 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.util.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full ledger reconciliation run, unthrottled, over accounts holding 100 transactions each.
+ * The run time should grow linearly with the number of transactions, and the memory it needs should not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class LedgerReconciliationBenchmark {
+
+    private static final int TRANSACTIONS_PER_ACCOUNT = 100;
+
+    @Param({"1000000", "10000000"})
+    private int transactions;
+
+    private ConfigurableApplicationContext context;
+    private LedgerReconciliationService ledgerReconciliationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("ledger-reconciliation-" + transactions,
+                "eaglebank.reconciliation.max-chunks-per-second=0",
+                "eaglebank.reconciliation.report-dir=target/reconciliation-benchmark");
+        ledgerReconciliationService = context.getBean(LedgerReconciliationService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (id, name, address_line1, town, county, postcode, phone_number, email,
+                                   password_hash, deleted, created_timestamp, updated_timestamp)
+                VALUES ('usr-bench', 'Bench User', '1 Bench Street', 'London', 'London', 'SW1A 1AA',
+                        '+447000000000', 'bench@example.com', 'not-a-hash', FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO accounts (account_number, sort_code, name, user_id, account_type, currency, balance,
+                                      created_timestamp, updated_timestamp, version)
+                SELECT X, '10-10-10', 'Account ' || X, 'usr-bench', 'personal', 'GBP', 0,
+                       CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, transactions / TRANSACTIONS_PER_ACCOUNT);
+        // Alternating deposits and withdrawals of 1.00, so every account's transactions add up to its zero balance
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, amount, currency, type, reference, account_number, created_timestamp)
+                SELECT 'tan-' || LPAD(CAST(X AS VARCHAR), 10, '0'), 1.00, 'GBP',
+                       CASEWHEN(MOD(X, 2) = 1, 'DEPOSIT', 'WITHDRAWAL'), 'Benchmark payment',
+                       (X - 1) / %d + 1, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """.formatted(TRANSACTIONS_PER_ACCOUNT), transactions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LedgerReconciliationService.ReconciliationReport reconcile() {
+        LedgerReconciliationService.ReconciliationReport report = ledgerReconciliationService.reconcile();
+        if (report.transactions() != transactions || report.discrepancies() != 0) {
+            throw new IllegalStateException("Unexpected reconciliation result: " + report);
+        }
+        return report;
+    }
+}
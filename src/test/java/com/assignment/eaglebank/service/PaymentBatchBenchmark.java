@@ -0,0 +1,99 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.BatchTransactionItem;
+import com.assignment.eaglebank.model.BatchTransactionResponse;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.util.BenchmarkApplication;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures posting a payroll-style run of deposits spread over a handful of accounts, either as
+ * one processTransaction call per payment or as a single processTransactionBatch call, with
+ * Hibernate JDBC batching switched off and on. Each operation posts the whole run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentBatchBenchmark {
+
+    private static final int ACCOUNTS = 8;
+
+    @Param({"100", "1000"})
+    private int payments;
+
+    @Param({"0", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private String userId;
+    private List<String> accountNumbers;
+    private List<BatchTransactionItem> batch;
+    private CreateTransactionRequest deposit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("payment-batch-" + payments + "-" + jdbcBatchSize,
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        paymentService = context.getBean(PaymentService.class);
+
+        UserEntity user = context.getBean(UserRepository.class).save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("bench-batch@example.com")
+                .build());
+        userId = user.getId();
+
+        accountNumbers = new ArrayList<>();
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            AccountEntity account = accountRepository.save(new AccountEntity("Payroll Account " + i, user, "personal"));
+            accountNumbers.add(account.getFormattedAccountNumber());
+        }
+
+        batch = new ArrayList<>(payments);
+        for (int i = 0; i < payments; i++) {
+            batch.add(new BatchTransactionItem()
+                    .accountNumber(accountNumbers.get(i % ACCOUNTS))
+                    .amount(1.0)
+                    .currency(BatchTransactionItem.CurrencyEnum.GBP)
+                    .type(BatchTransactionItem.TypeEnum.DEPOSIT)
+                    .reference("Payroll"));
+        }
+        deposit = new CreateTransactionRequest()
+                .amount(1.0)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(CreateTransactionRequest.TypeEnum.DEPOSIT)
+                .reference("Payroll");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void oneAtATime(Blackhole blackhole) {
+        for (int i = 0; i < payments; i++) {
+            blackhole.consume(paymentService.processTransaction(userId, accountNumbers.get(i % ACCOUNTS), deposit));
+        }
+    }
+
+    @Benchmark
+    public BatchTransactionResponse batch() {
+        return paymentService.processTransactionBatch(userId, batch);
+    }
+}
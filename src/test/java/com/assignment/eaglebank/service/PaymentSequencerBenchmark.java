@@ -0,0 +1,91 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.util.BenchmarkApplication;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures payment throughput on one hot account with many concurrent callers, comparing the plain row-locking
+ * path against the sequencer, which queues the callers on one lane and commits them in groups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class PaymentSequencerBenchmark {
+
+    private static final CreateTransactionRequest DEPOSIT = payment(CreateTransactionRequest.TypeEnum.DEPOSIT);
+    private static final CreateTransactionRequest WITHDRAWAL = payment(CreateTransactionRequest.TypeEnum.WITHDRAWAL);
+
+    @Param({"pessimistic", "sequenced"})
+    private String concurrencyMode;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private PaymentSequencer paymentSequencer;
+    private String userId;
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("payment-sequencer-" + concurrencyMode,
+                "eaglebank.payments.concurrency-mode=" + concurrencyMode,
+                "eaglebank.outbox.poll-interval-ms=200");
+        paymentService = context.getBean(PaymentService.class);
+        paymentSequencer = context.getBeanProvider(PaymentSequencer.class).getIfAvailable();
+
+        UserEntity user = context.getBean(UserRepository.class).save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("bench-sequencer@example.com")
+                .build());
+        AccountEntity account = new AccountEntity("Merchant Float", user, "personal");
+        account.setBalance(BigDecimal.valueOf(5000));
+        account = context.getBean(AccountRepository.class).save(account);
+
+        userId = user.getId();
+        accountNumber = account.getFormattedAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse processTransaction(Caller caller) {
+        caller.deposit = !caller.deposit;
+        CreateTransactionRequest request = caller.deposit ? DEPOSIT : WITHDRAWAL;
+        return paymentSequencer != null
+                ? paymentSequencer.processTransaction(userId, accountNumber, request)
+                : paymentService.processTransaction(userId, accountNumber, request);
+    }
+
+    /**
+     * Each caller alternates deposits and withdrawals, so the balance stays put whatever the interleaving
+     */
+    @State(Scope.Thread)
+    public static class Caller {
+        boolean deposit;
+    }
+
+    private static CreateTransactionRequest payment(CreateTransactionRequest.TypeEnum type) {
+        return new CreateTransactionRequest()
+                .amount(1.0)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(type)
+                .reference("Benchmark payment");
+    }
+}
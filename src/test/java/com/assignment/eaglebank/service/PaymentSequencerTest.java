@@ -0,0 +1,169 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.exception.InsufficientBalanceException;
+import com.assignment.eaglebank.exception.ResourceNotFoundException;
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentSequencerTest {
+
+    private static final String USER_ID = "usr-test123";
+    private static final String ACCOUNT_NUMBER = "01000001";
+
+    @Mock
+    private PaymentService paymentService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+    private PaymentSequencer paymentSequencer;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        callers.shutdownNow();
+        if (paymentSequencer != null) {
+            paymentSequencer.shutdown();
+        }
+    }
+
+    @Test
+    void processTransaction_QueuedBehindGroupInFlight_CommittedTogether() throws Exception {
+        paymentSequencer = new PaymentSequencer(paymentService, meterRegistry, 1, 100, 64);
+        CountDownLatch firstGroupStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstGroup = new CountDownLatch(1);
+        List<Integer> groupSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<SequencedPayment> group = invocation.getArgument(0);
+            groupSizes.add(group.size());
+            if (groupSizes.size() == 1) {
+                firstGroupStarted.countDown();
+                releaseFirstGroup.await(5, TimeUnit.SECONDS);
+            }
+            group.forEach(payment -> payment.posted(new TransactionResponse().id("tan-" + payment.request().getReference())));
+            return null;
+        }).when(paymentService).processTransactionGroup(anyList());
+
+        Future<TransactionResponse> first = callers.submit(() -> post("0"));
+        assertThat(firstGroupStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<TransactionResponse>> queued = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            String reference = String.valueOf(i);
+            queued.add(callers.submit(() -> post(reference)));
+        }
+        awaitQueued(5);
+
+        // Nobody is released before their group commits
+        assertThatThrownBy(() -> first.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        releaseFirstGroup.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getId()).isEqualTo("tan-0");
+        for (int i = 0; i < queued.size(); i++) {
+            assertThat(queued.get(i).get(5, TimeUnit.SECONDS).getId()).isEqualTo("tan-" + (i + 1));
+        }
+        assertThat(groupSizes).containsExactly(1, 5);
+        assertThat(meterRegistry.get("eaglebank.payments.sequencer.group.size").summary().totalAmount()).isEqualTo(6);
+    }
+
+    @Test
+    void processTransaction_RejectedInGroup_ThrowsSameException() {
+        paymentSequencer = new PaymentSequencer(paymentService, meterRegistry, 2, 100, 64);
+        doAnswer(invocation -> {
+            List<SequencedPayment> group = invocation.getArgument(0);
+            group.forEach(payment -> payment.rejected(new InsufficientBalanceException(BigDecimal.ZERO, BigDecimal.TEN)));
+            return null;
+        }).when(paymentService).processTransactionGroup(anyList());
+
+        assertThatThrownBy(() -> post("withdrawal")).isInstanceOf(InsufficientBalanceException.class);
+    }
+
+    @Test
+    void processTransaction_GroupFailsToCommit_PostsEachPaymentAlone() {
+        paymentSequencer = new PaymentSequencer(paymentService, meterRegistry, 1, 100, 64);
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(paymentService).processTransactionGroup(anyList());
+        when(paymentService.processTransaction(eq(USER_ID), eq(ACCOUNT_NUMBER), any(), any()))
+                .thenReturn(new TransactionResponse().id("tan-alone"));
+
+        assertThat(post("retry").getId()).isEqualTo("tan-alone");
+        assertThat(meterRegistry.get("eaglebank.payments.sequencer.group.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void processTransaction_LaneQueueFull_Rejected() throws Exception {
+        paymentSequencer = new PaymentSequencer(paymentService, meterRegistry, 1, 1, 1);
+        CountDownLatch groupStarted = new CountDownLatch(1);
+        CountDownLatch releaseGroup = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            groupStarted.countDown();
+            releaseGroup.await(5, TimeUnit.SECONDS);
+            List<SequencedPayment> group = invocation.getArgument(0);
+            group.forEach(payment -> payment.posted(new TransactionResponse().id("tan-1")));
+            return null;
+        }).when(paymentService).processTransactionGroup(anyList());
+
+        Future<TransactionResponse> inFlight = callers.submit(() -> post("in-flight"));
+        assertThat(groupStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<TransactionResponse> queued = callers.submit(() -> post("queued"));
+        awaitQueued(1);
+
+        assertThatThrownBy(() -> post("shed")).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(meterRegistry.get("eaglebank.payments.rejections").tag("reason", "sequencer_full").counter().count())
+                .isEqualTo(1);
+
+        releaseGroup.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void processTransaction_InvalidAccountNumber_RejectedWithoutQueueing() {
+        paymentSequencer = new PaymentSequencer(paymentService, meterRegistry, 1, 100, 64);
+
+        assertThatThrownBy(() -> paymentSequencer.processTransaction(USER_ID, "invalid", request("bad")))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(paymentService);
+    }
+
+    private void awaitQueued(int payments) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("eaglebank.payments.sequencer.queued").gauge().value() < payments) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private TransactionResponse post(String reference) {
+        return paymentSequencer.processTransaction(USER_ID, ACCOUNT_NUMBER, request(reference));
+    }
+
+    private static CreateTransactionRequest request(String reference) {
+        return new CreateTransactionRequest()
+                .amount(10.0)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(CreateTransactionRequest.TypeEnum.DEPOSIT)
+                .reference(reference);
+    }
+}
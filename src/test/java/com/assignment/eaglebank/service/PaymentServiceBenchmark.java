@@ -0,0 +1,83 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.repository.AccountRepository;
+import com.assignment.eaglebank.repository.UserRepository;
+import com.assignment.eaglebank.util.BenchmarkApplication;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end payment posting through the Spring proxy chain (retry, transaction)
+ * against an in-memory database, alternating deposits and withdrawals on one account.
+ * With the outbox on, each payment also writes its event and the dispatcher drains them in the background.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentServiceBenchmark {
+
+    private static final CreateTransactionRequest DEPOSIT = payment(CreateTransactionRequest.TypeEnum.DEPOSIT);
+    private static final CreateTransactionRequest WITHDRAWAL = payment(CreateTransactionRequest.TypeEnum.WITHDRAWAL);
+
+    @Param({"optimistic", "pessimistic"})
+    private String concurrencyMode;
+
+    @Param({"false", "true"})
+    private boolean outbox;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private String userId;
+    private String accountNumber;
+    private boolean deposit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("payment-service-" + concurrencyMode + "-" + outbox,
+                "eaglebank.payments.concurrency-mode=" + concurrencyMode,
+                "eaglebank.outbox.enabled=" + outbox,
+                "eaglebank.outbox.poll-interval-ms=200");
+        paymentService = context.getBean(PaymentService.class);
+
+        UserEntity user = context.getBean(UserRepository.class).save(TestDataBuilder.userEntity()
+                .withId(null)
+                .withEmail("bench-payments@example.com")
+                .build());
+        AccountEntity account = new AccountEntity("Benchmark Account", user, "personal");
+        account.setBalance(BigDecimal.valueOf(5000));
+        account = context.getBean(AccountRepository.class).save(account);
+
+        userId = user.getId();
+        accountNumber = account.getFormattedAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse processTransaction() {
+        deposit = !deposit;
+        return paymentService.processTransaction(userId, accountNumber, deposit ? DEPOSIT : WITHDRAWAL);
+    }
+
+    private static CreateTransactionRequest payment(CreateTransactionRequest.TypeEnum type) {
+        return new CreateTransactionRequest()
+                .amount(1.0)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(type)
+                .reference("Benchmark payment");
+    }
+}
@@ -1,32 +1,51 @@
 package com.assignment.eaglebank.service;
 
 import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.BalanceCheckpointEntity;
 import com.assignment.eaglebank.entity.TransactionEntity;
 import com.assignment.eaglebank.entity.TransactionType;
 import com.assignment.eaglebank.entity.UserEntity;
 import com.assignment.eaglebank.exception.ResourceNotFoundException;
 import com.assignment.eaglebank.exception.AccessDeniedException;
+import com.assignment.eaglebank.exception.BalanceLimitExceededException;
 import com.assignment.eaglebank.exception.InsufficientBalanceException;
+import com.assignment.eaglebank.model.BatchTransactionItem;
+import com.assignment.eaglebank.model.BatchTransactionResponse;
 import com.assignment.eaglebank.model.CreateTransactionRequest;
+import com.assignment.eaglebank.model.CreateTransferRequest;
 import com.assignment.eaglebank.model.ListTransactionsResponse;
 import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.outbox.TransactionOutbox;
 import com.assignment.eaglebank.repository.AccountRepository;
 import com.assignment.eaglebank.repository.TransactionRepository;
 import com.assignment.eaglebank.util.TestDataBuilder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,6 +61,18 @@ class PaymentServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionOutbox transactionOutbox;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -71,6 +102,9 @@ class PaymentServiceTest {
                 .withType(TransactionType.DEPOSIT)
                 .withReference("Test transaction")
                 .build();
+
+        // Field injection leaves the mode unset; use the configured default
+        ReflectionTestUtils.setField(paymentService, "concurrencyMode", PaymentConcurrencyMode.OPTIMISTIC);
     }
 
     // ==================== processTransaction Tests ====================
@@ -87,7 +121,6 @@ class PaymentServiceTest {
                 .reference("Salary deposit");
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
-        when(transactionRepository.existsById(anyString())).thenReturn(false);
         when(transactionRepository.save(any(TransactionEntity.class))).thenReturn(testTransaction);
         when(accountRepository.save(any(AccountEntity.class))).thenReturn(testAccount);
 
@@ -101,8 +134,12 @@ class PaymentServiceTest {
         assertThat(result.getUserId()).isEqualTo(userId);
 
         verify(accountRepository).findById(1L);
+        verify(transactionIdGenerator).nextId();
         verify(transactionRepository).save(any(TransactionEntity.class));
         verify(accountRepository).save(any(AccountEntity.class));
+        verify(transactionOutbox).transactionCreated(testTransaction);
+        assertThat(meterRegistry.get("eaglebank.payments.processing")
+                .tags("type", "deposit", "outcome", "committed").timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -124,7 +161,6 @@ class PaymentServiceTest {
                 .build();
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
-        when(transactionRepository.existsById(anyString())).thenReturn(false);
         when(transactionRepository.save(any(TransactionEntity.class))).thenReturn(withdrawalTransaction);
         when(accountRepository.save(any(AccountEntity.class))).thenReturn(testAccount);
 
@@ -162,6 +198,11 @@ class PaymentServiceTest {
         verify(accountRepository).findById(1L);
         verify(transactionRepository, never()).save(any());
         verify(accountRepository, never()).save(any());
+        verifyNoInteractions(transactionOutbox);
+        assertThat(meterRegistry.get("eaglebank.payments.rejections")
+                .tag("reason", "insufficient_balance").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("eaglebank.payments.processing")
+                .tags("type", "withdrawal", "outcome", "rejected").timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -224,6 +265,298 @@ class PaymentServiceTest {
         verify(accountRepository).findById(1L);
     }
 
+    // ==================== processTransactionBatch Tests ====================
+
+    @Test
+    void processTransactionBatch_MixedItems_ReportsEachResult() {
+        // Given
+        String userId = "usr-test123";
+        UserEntity otherUser = TestDataBuilder.userEntity().withId("usr-other").build();
+        AccountEntity otherAccount = TestDataBuilder.accountEntity()
+                .withAccountNumber(2L)
+                .withUser(otherUser)
+                .withBalance(BigDecimal.valueOf(500.00))
+                .build();
+        List<BatchTransactionItem> items = List.of(
+                batchItem("01000001", 600.0, BatchTransactionItem.TypeEnum.DEPOSIT),
+                batchItem("01000001", 1500.0, BatchTransactionItem.TypeEnum.WITHDRAWAL),
+                batchItem("01000001", 2000.0, BatchTransactionItem.TypeEnum.WITHDRAWAL),
+                batchItem("01000002", 10.0, BatchTransactionItem.TypeEnum.DEPOSIT),
+                batchItem("01000003", 10.0, BatchTransactionItem.TypeEnum.DEPOSIT));
+
+        when(accountRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(testAccount, otherAccount));
+        when(transactionIdGenerator.nextId()).thenReturn("tan-1", "tan-2");
+
+        // When
+        BatchTransactionResponse result = paymentService.processTransactionBatch(userId, items);
+
+        // Then
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getResults()).extracting("index").containsExactly(0, 1, 2, 3, 4);
+        assertThat(result.getResults()).extracting("status").containsExactly(201, 201, 422, 403, 404);
+        assertThat(result.getResults().get(0).getTransaction().getId()).isEqualTo("tan-1");
+        assertThat(result.getResults().get(1).getTransaction().getId()).isEqualTo("tan-2");
+        assertThat(result.getResults().get(2).getMessage()).contains("Insufficient balance");
+        assertThat(testAccount.getBalance()).isEqualByComparingTo("100.00");
+        assertThat(otherAccount.getBalance()).isEqualByComparingTo("500.00");
+
+        verify(entityManager, times(2)).persist(any(TransactionEntity.class));
+        verify(transactionRepository, never()).save(any());
+        assertThat(meterRegistry.get("eaglebank.payments.rejections")
+                .tag("reason", "insufficient_balance").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("eaglebank.payments.batch.processing")
+                .tag("outcome", "committed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void processTransactionBatch_SameAccountRepeated_LoadedOnce() {
+        // Given
+        List<BatchTransactionItem> items = List.of(
+                batchItem("01000001", 1.0, BatchTransactionItem.TypeEnum.DEPOSIT),
+                batchItem("01000001", 1.0, BatchTransactionItem.TypeEnum.DEPOSIT),
+                batchItem("01000001", 1.0, BatchTransactionItem.TypeEnum.DEPOSIT));
+
+        when(accountRepository.findAllById(Set.of(1L))).thenReturn(List.of(testAccount));
+
+        // When
+        BatchTransactionResponse result = paymentService.processTransactionBatch("usr-test123", items);
+
+        // Then
+        assertThat(result.getSucceeded()).isEqualTo(3);
+        assertThat(testAccount.getBalance()).isEqualByComparingTo("1003.00");
+        verify(accountRepository, times(1)).findAllById(any());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    void processTransactionBatch_SequencedMode_LocksAccounts() {
+        // Given
+        ReflectionTestUtils.setField(paymentService, "concurrencyMode", PaymentConcurrencyMode.SEQUENCED);
+        List<BatchTransactionItem> items = List.of(
+                batchItem("01000001", 1.0, BatchTransactionItem.TypeEnum.DEPOSIT));
+
+        when(accountRepository.findAllByIdForUpdate(Set.of(1L))).thenReturn(List.of(testAccount));
+
+        // When
+        BatchTransactionResponse result = paymentService.processTransactionBatch("usr-test123", items);
+
+        // Then
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        verify(accountRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void processTransactionBatch_CheckpointInterval_WritesBalanceEveryIntervalTransactions() {
+        // Given
+        ReflectionTestUtils.setField(paymentService, "checkpointInterval", 2);
+        List<BatchTransactionItem> items = List.of(
+                batchItem("01000001", 10.0, BatchTransactionItem.TypeEnum.DEPOSIT),
+                batchItem("01000001", 20.0, BatchTransactionItem.TypeEnum.DEPOSIT),
+                batchItem("01000001", 5.0, BatchTransactionItem.TypeEnum.WITHDRAWAL));
+
+        when(accountRepository.findAllById(Set.of(1L))).thenReturn(List.of(testAccount));
+        when(transactionIdGenerator.nextId()).thenReturn("tan-1", "tan-2", "tan-3");
+
+        // When
+        paymentService.processTransactionBatch("usr-test123", items);
+
+        // Then
+        ArgumentCaptor<BalanceCheckpointEntity> checkpoint = ArgumentCaptor.forClass(BalanceCheckpointEntity.class);
+        verify(entityManager).persist(checkpoint.capture());
+        assertThat(checkpoint.getValue().getAccountNumber()).isEqualTo(1L);
+        assertThat(checkpoint.getValue().getTransactionId()).isEqualTo("tan-2");
+        assertThat(checkpoint.getValue().getBalance()).isEqualByComparingTo("1030.00");
+        assertThat(testAccount.getTransactionsSinceCheckpoint()).isEqualTo(1);
+    }
+
+    // ==================== processTransfer Tests ====================
+
+    @Test
+    void processTransfer_ToLowerAccountNumber_LocksLowerFirstAndPostsBothLegs() {
+        // Given
+        AccountEntity payer = TestDataBuilder.accountEntity()
+                .withAccountNumber(2L)
+                .withUser(testUser)
+                .withBalance(BigDecimal.valueOf(500.00))
+                .build();
+        UserEntity otherUser = TestDataBuilder.userEntity().withId("usr-other456").build();
+        AccountEntity payee = TestDataBuilder.accountEntity()
+                .withAccountNumber(1L)
+                .withUser(otherUser)
+                .withBalance(BigDecimal.valueOf(10.00))
+                .build();
+
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(payee));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(payer));
+
+        // When
+        TransactionResponse result = paymentService.processTransfer("usr-test123", "01000002", transfer("01000001", 200.0));
+
+        // Then
+        InOrder lockOrder = inOrder(accountRepository);
+        lockOrder.verify(accountRepository).findByIdForUpdate(1L);
+        lockOrder.verify(accountRepository).findByIdForUpdate(2L);
+
+        assertThat(payer.getBalance()).isEqualByComparingTo("300.00");
+        assertThat(payee.getBalance()).isEqualByComparingTo("210.00");
+
+        ArgumentCaptor<TransactionEntity> legs = ArgumentCaptor.forClass(TransactionEntity.class);
+        verify(entityManager, times(2)).persist(legs.capture());
+        TransactionEntity debit = legs.getAllValues().get(0);
+        TransactionEntity credit = legs.getAllValues().get(1);
+        assertThat(debit.getType()).isEqualTo(TransactionType.TRANSFER_OUT);
+        assertThat(debit.getAccount()).isSameAs(payer);
+        assertThat(debit.getCounterpartyAccountNumber()).isEqualTo(1L);
+        assertThat(credit.getType()).isEqualTo(TransactionType.TRANSFER_IN);
+        assertThat(credit.getAccount()).isSameAs(payee);
+        assertThat(credit.getCounterpartyAccountNumber()).isEqualTo(2L);
+        assertThat(debit.getTransferId()).startsWith("tfr-").isEqualTo(credit.getTransferId());
+        verify(transactionOutbox).transactionCreated(debit);
+        verify(transactionOutbox).transactionCreated(credit);
+
+        assertThat(result.getType()).isEqualTo(TransactionResponse.TypeEnum.TRANSFER_OUT);
+        assertThat(result.getTransferId()).isEqualTo(debit.getTransferId());
+        assertThat(result.getCounterpartyAccountNumber()).isEqualTo("01000001");
+        assertThat(meterRegistry.get("eaglebank.payments.processing")
+                .tags("type", "transfer_out", "outcome", "committed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void processTransfer_InsufficientFunds_ThrowsException() {
+        // Given
+        AccountEntity payee = TestDataBuilder.accountEntity().withAccountNumber(2L).withUser(testUser).build();
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(payee));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processTransfer("usr-test123", "01000001", transfer("01000002", 2000.0)))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        assertThat(testAccount.getBalance()).isEqualByComparingTo("1000.00");
+        verify(entityManager, never()).persist(any());
+        assertThat(meterRegistry.get("eaglebank.payments.rejections")
+                .tag("reason", "insufficient_balance").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void processTransfer_PayeeOverBalanceLimit_ThrowsException() {
+        // Given
+        AccountEntity payee = TestDataBuilder.accountEntity()
+                .withAccountNumber(2L)
+                .withUser(testUser)
+                .withBalance(BigDecimal.valueOf(9950.00))
+                .build();
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(payee));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processTransfer("usr-test123", "01000001", transfer("01000002", 100.0)))
+                .isInstanceOf(BalanceLimitExceededException.class);
+
+        assertThat(testAccount.getBalance()).isEqualByComparingTo("1000.00");
+        assertThat(payee.getBalance()).isEqualByComparingTo("9950.00");
+        verify(entityManager, never()).persist(any());
+        assertThat(meterRegistry.get("eaglebank.payments.rejections")
+                .tag("reason", "balance_limit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void processTransfer_FromAnotherUsersAccount_ThrowsAccessDenied() {
+        // Given
+        AccountEntity payee = TestDataBuilder.accountEntity().withAccountNumber(2L).withUser(testUser).build();
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(payee));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processTransfer("usr-other456", "01000001", transfer("01000002", 100.0)))
+                .isInstanceOf(AccessDeniedException.class);
+
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void processTransfer_PayeeNotFound_ThrowsException() {
+        // Given
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(9L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processTransfer("usr-test123", "01000001", transfer("01000009", 100.0)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("01000009");
+
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void processTransfer_SameAccountOrInvalidAmount_ThrowsException() {
+        assertThatThrownBy(() -> paymentService.processTransfer("usr-test123", "01000001", transfer("01000001", 100.0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("same account");
+        assertThatThrownBy(() -> paymentService.processTransfer("usr-test123", "01000001", transfer("01000002", 0.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    // ==================== processTransactionGroup Tests ====================
+
+    @Test
+    void processTransactionGroup_AppliesInQueueOrderAndRecordsEachOutcome() {
+        // Given
+        UserEntity otherUser = TestDataBuilder.userEntity().withId("usr-other").build();
+        AccountEntity otherAccount = TestDataBuilder.accountEntity()
+                .withAccountNumber(2L)
+                .withUser(otherUser)
+                .withBalance(BigDecimal.valueOf(500.00))
+                .build();
+        List<SequencedPayment> group = List.of(
+                sequenced("01000002", 10.0, CreateTransactionRequest.TypeEnum.DEPOSIT),
+                sequenced("01000001", 600.0, CreateTransactionRequest.TypeEnum.DEPOSIT),
+                sequenced("01000001", 1500.0, CreateTransactionRequest.TypeEnum.WITHDRAWAL),
+                sequenced("01000001", 200.0, CreateTransactionRequest.TypeEnum.WITHDRAWAL),
+                sequenced("01000003", 10.0, CreateTransactionRequest.TypeEnum.DEPOSIT));
+
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testAccount, otherAccount));
+        when(transactionIdGenerator.nextId()).thenReturn("tan-1", "tan-2");
+
+        // When
+        paymentService.processTransactionGroup(group);
+        group.forEach(SequencedPayment::complete);
+
+        // Then
+        verify(accountRepository).findAllByIdForUpdate(argThat(ids -> List.copyOf(ids).equals(List.of(1L, 2L, 3L))));
+        assertThat(group.get(0).result()).isCompletedExceptionally();
+        assertThatThrownBy(() -> group.get(0).result().join()).hasCauseInstanceOf(AccessDeniedException.class);
+        assertThat(group.get(1).result().join().getId()).isEqualTo("tan-1");
+        assertThat(group.get(2).result().join().getId()).isEqualTo("tan-2");
+        assertThatThrownBy(() -> group.get(3).result().join()).hasCauseInstanceOf(InsufficientBalanceException.class);
+        assertThatThrownBy(() -> group.get(4).result().join()).hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThat(testAccount.getBalance()).isEqualByComparingTo("100.00");
+        assertThat(otherAccount.getBalance()).isEqualByComparingTo("500.00");
+
+        verify(entityManager, times(2)).persist(any(TransactionEntity.class));
+        verify(transactionOutbox, times(2)).transactionCreated(any());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    void processTransactionGroup_BeforeCommitFails_Propagates() {
+        // Given
+        SequencedPayment payment = new SequencedPayment("usr-test123", "01000001",
+                request(10.0, CreateTransactionRequest.TypeEnum.DEPOSIT),
+                response -> { throw new IllegalStateException("Record store unavailable"); },
+                Timer.start(meterRegistry));
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testAccount));
+        when(transactionIdGenerator.nextId()).thenReturn("tan-1");
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processTransactionGroup(List.of(payment)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(payment.result()).isNotDone();
+    }
+
     // ==================== getTransactionHistory Tests ====================
 
     @Test
@@ -235,20 +568,21 @@ class PaymentServiceTest {
         List<TransactionEntity> transactions = Arrays.asList(testTransaction);
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
-        when(transactionRepository.findByAccountNumberOrderByCreatedTimestampDesc(1L))
+        when(transactionRepository.findFirstPageByAccountNumber(1L, Limit.of(101)))
                 .thenReturn(transactions);
 
         // When
-        ListTransactionsResponse result = paymentService.getTransactionHistory(userId, accountNumber);
+        ListTransactionsResponse result = paymentService.getTransactionHistory(userId, accountNumber, null, 100);
 
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getTransactions()).hasSize(1);
         assertThat(result.getTransactions().get(0).getId()).isEqualTo("tan-abc123");
         assertThat(result.getTransactions().get(0).getUserId()).isEqualTo(userId);
+        assertThat(result.getNextCursor()).isNull();
 
         verify(accountRepository).findById(1L);
-        verify(transactionRepository).findByAccountNumberOrderByCreatedTimestampDesc(1L);
+        verify(transactionRepository).findFirstPageByAccountNumber(1L, Limit.of(101));
     }
 
     @Test
@@ -258,18 +592,66 @@ class PaymentServiceTest {
         String accountNumber = "01000001";
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
-        when(transactionRepository.findByAccountNumberOrderByCreatedTimestampDesc(1L))
+        when(transactionRepository.findFirstPageByAccountNumber(1L, Limit.of(101)))
                 .thenReturn(Collections.emptyList());
 
         // When
-        ListTransactionsResponse result = paymentService.getTransactionHistory(userId, accountNumber);
+        ListTransactionsResponse result = paymentService.getTransactionHistory(userId, accountNumber, null, 100);
 
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getTransactions()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
 
         verify(accountRepository).findById(1L);
-        verify(transactionRepository).findByAccountNumberOrderByCreatedTimestampDesc(1L);
+        verify(transactionRepository).findFirstPageByAccountNumber(1L, Limit.of(101));
+    }
+
+    @Test
+    void getTransactionHistory_MorePagesAvailable_ReturnsCursorForLastRow() {
+        // Given
+        String userId = "usr-test123";
+        String accountNumber = "01000001";
+        OffsetDateTime newest = OffsetDateTime.parse("2025-06-01T12:00:00.123456Z");
+        TransactionEntity first = transaction("tan-3", newest);
+        TransactionEntity second = transaction("tan-2", newest.minusSeconds(1));
+        TransactionEntity extra = transaction("tan-1", newest.minusSeconds(2));
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+        when(transactionRepository.findFirstPageByAccountNumber(1L, Limit.of(3)))
+                .thenReturn(Arrays.asList(first, second, extra));
+        when(transactionRepository.findPageByAccountNumberAfter(1L, second.getCreatedTimestamp(), "tan-2", Limit.of(3)))
+                .thenReturn(List.of(extra));
+
+        // When
+        ListTransactionsResponse firstPage = paymentService.getTransactionHistory(userId, accountNumber, null, 2);
+        ListTransactionsResponse secondPage = paymentService.getTransactionHistory(userId, accountNumber, firstPage.getNextCursor(), 2);
+
+        // Then
+        assertThat(firstPage.getTransactions()).extracting(TransactionResponse::getId).containsExactly("tan-3", "tan-2");
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        assertThat(secondPage.getTransactions()).extracting(TransactionResponse::getId).containsExactly("tan-1");
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTransactionHistory_InvalidCursorOrLimit_ThrowsException() {
+        // Given
+        String userId = "usr-test123";
+        String accountNumber = "01000001";
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.getTransactionHistory(userId, accountNumber, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> paymentService.getTransactionHistory(userId, accountNumber, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> paymentService.getTransactionHistory(userId, accountNumber, null, PaymentService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
@@ -281,11 +663,11 @@ class PaymentServiceTest {
         when(accountRepository.findById(1L)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> paymentService.getTransactionHistory(userId, accountNumber))
+        assertThatThrownBy(() -> paymentService.getTransactionHistory(userId, accountNumber, null, 100))
                 .isInstanceOf(ResourceNotFoundException.class);
 
         verify(accountRepository).findById(1L);
-        verify(transactionRepository, never()).findByAccountNumberOrderByCreatedTimestampDesc(anyLong());
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
@@ -297,12 +679,44 @@ class PaymentServiceTest {
         when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
 
         // When & Then
-        assertThatThrownBy(() -> paymentService.getTransactionHistory(userId, accountNumber))
+        assertThatThrownBy(() -> paymentService.getTransactionHistory(userId, accountNumber, null, 100))
                 .isInstanceOf(AccessDeniedException.class);
 
         verify(accountRepository).findById(1L);
     }
 
+    // ==================== exportTransactionHistory Tests ====================
+
+    @Test
+    void exportTransactionHistory_StreamsAndDetachesEachRow() {
+        // Given
+        String userId = "usr-test123";
+        String accountNumber = "01000001";
+        List<TransactionResponse> exported = new ArrayList<>();
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+        when(transactionRepository.streamByAccountNumber(1L)).thenReturn(Stream.of(testTransaction));
+
+        // When
+        paymentService.exportTransactionHistory(userId, accountNumber, exported::add);
+
+        // Then
+        assertThat(exported).extracting(TransactionResponse::getId).containsExactly("tan-abc123");
+        verify(entityManager).detach(testTransaction);
+    }
+
+    @Test
+    void exportTransactionHistory_AccessDenied_ThrowsException() {
+        // Given
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.exportTransactionHistory("usr-different", "01000001", response -> { }))
+                .isInstanceOf(AccessDeniedException.class);
+
+        verifyNoInteractions(transactionRepository);
+    }
+
     // ==================== retrieveTransaction Tests ====================
 
     @Test
@@ -378,4 +792,45 @@ class PaymentServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Invalid account number format");
     }
-} 
\ No newline at end of file
+
+    private TransactionEntity transaction(String id, OffsetDateTime createdTimestamp) {
+        TransactionEntity transaction = TestDataBuilder.transactionEntity()
+                .withId(id)
+                .withAccount(testAccount)
+                .withAmount(BigDecimal.valueOf(10.00))
+                .withType(TransactionType.DEPOSIT)
+                .build();
+        transaction.setCreatedTimestamp(createdTimestamp);
+        return transaction;
+    }
+
+    private static BatchTransactionItem batchItem(String accountNumber, double amount, BatchTransactionItem.TypeEnum type) {
+        return new BatchTransactionItem()
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .currency(BatchTransactionItem.CurrencyEnum.GBP)
+                .type(type)
+                .reference("Batch payment");
+    }
+
+    private static CreateTransferRequest transfer(String toAccountNumber, double amount) {
+        return new CreateTransferRequest()
+                .toAccountNumber(toAccountNumber)
+                .amount(amount)
+                .currency(CreateTransferRequest.CurrencyEnum.GBP)
+                .reference("Rent");
+    }
+
+    private SequencedPayment sequenced(String accountNumber, double amount, CreateTransactionRequest.TypeEnum type) {
+        return new SequencedPayment("usr-test123", accountNumber, request(amount, type), response -> { },
+                Timer.start(meterRegistry));
+    }
+
+    private static CreateTransactionRequest request(double amount, CreateTransactionRequest.TypeEnum type) {
+        return new CreateTransactionRequest()
+                .amount(amount)
+                .currency(CreateTransactionRequest.CurrencyEnum.GBP)
+                .type(type)
+                .reference("Sequenced payment");
+    }
+}
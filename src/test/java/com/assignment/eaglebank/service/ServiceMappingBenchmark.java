@@ -0,0 +1,85 @@
+package com.assignment.eaglebank.service;
+
+import com.assignment.eaglebank.entity.AccountEntity;
+import com.assignment.eaglebank.entity.TransactionEntity;
+import com.assignment.eaglebank.entity.TransactionType;
+import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.BankAccountResponse;
+import com.assignment.eaglebank.model.TransactionResponse;
+import com.assignment.eaglebank.model.UserResponse;
+import com.assignment.eaglebank.util.TestDataBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU-only service paths that run on every request: entity to DTO conversion
+ * and phone number validation. No Spring context or database is involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceMappingBenchmark {
+
+    private UserService userService;
+    private BankAccountService bankAccountService;
+    private PaymentService paymentService;
+
+    private UserEntity user;
+    private AccountEntity account;
+    private TransactionEntity transaction;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService(null, null, null, null);
+        bankAccountService = new BankAccountService();
+        paymentService = new PaymentService();
+
+        OffsetDateTime now = OffsetDateTime.now();
+        user = TestDataBuilder.userEntity().withId("usr-benchmark").build();
+        user.setCreatedTimestamp(now);
+        user.setUpdatedTimestamp(now);
+        account = TestDataBuilder.accountEntity()
+                .withAccountNumber(4321L)
+                .withUser(user)
+                .withBalance(BigDecimal.valueOf(1250.75))
+                .build();
+        account.setCreatedTimestamp(now);
+        account.setUpdatedTimestamp(now);
+        transaction = TestDataBuilder.transactionEntity()
+                .withId("tan-benchmark")
+                .withAccount(account)
+                .withAmount(BigDecimal.valueOf(42.50))
+                .withType(TransactionType.DEPOSIT)
+                .withReference("Benchmark payment")
+                .build();
+        transaction.setCreatedTimestamp(now);
+    }
+
+    @Benchmark
+    public UserResponse toUserResponse() {
+        return userService.toUserResponse(user);
+    }
+
+    @Benchmark
+    public BankAccountResponse convertToResponse() {
+        return bankAccountService.convertToResponse(account);
+    }
+
+    @Benchmark
+    public TransactionResponse buildTransactionResponse() {
+        return paymentService.buildTransactionResponse(transaction, "usr-benchmark");
+    }
+
+    @Benchmark
+    public String validatePhoneNumber() {
+        String phoneNumber = user.getPhoneNumber();
+        userService.validatePhoneNumber(phoneNumber);
+        return phoneNumber;
+    }
+}
@@ -0,0 +1,94 @@
+package com.assignment.eaglebank.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TimeOrderedTransactionIdGeneratorTest {
+
+    @Test
+    void nextId_MatchesApiPattern() {
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(7);
+
+        assertThat(generator.nextId()).matches("^tan-[a-z0-9]{13}$");
+    }
+
+    @Test
+    void nextId_MonotonicWithinSameMillisecond() {
+        Clock fixed = Clock.fixed(Instant.parse("2025-06-01T12:00:00Z"), ZoneOffset.UTC);
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1, fixed);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) { // more than one millisecond worth of sequence numbers
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void nextId_MonotonicWhenClockMovesBackwards() {
+        AtomicLong millis = new AtomicLong(Instant.parse("2025-06-01T12:00:00Z").toEpochMilli());
+        Clock clock = new Clock() {
+            @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+            @Override public Clock withZone(ZoneId zone) { return this; }
+            @Override public Instant instant() { return Instant.ofEpochMilli(millis.get()); }
+        };
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1, clock);
+
+        String beforeAdjustment = generator.nextId();
+        millis.addAndGet(-5_000);
+        String afterAdjustment = generator.nextId();
+
+        assertThat(afterAdjustment).isGreaterThan(beforeAdjustment);
+    }
+
+    @Test
+    void nextId_DistinctAcrossNodes() {
+        Clock fixed = Clock.fixed(Instant.parse("2025-06-01T12:00:00Z"), ZoneOffset.UTC);
+
+        assertThat(new TimeOrderedTransactionIdGenerator(1, fixed).nextId())
+                .isNotEqualTo(new TimeOrderedTransactionIdGenerator(2, fixed).nextId());
+    }
+
+    @Test
+    void nextId_UniqueAcrossThreads() throws Exception {
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(0);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(ids).hasSize(8 * 20_000);
+    }
+
+    @Test
+    void constructor_RejectsOutOfRangeNode() {
+        assertThatThrownBy(() -> new TimeOrderedTransactionIdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.assignment.eaglebank.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of transaction ID generation across thread counts. The legacy UUID-prefix
+ * generator is included as a baseline; it additionally needed an existsById query per ID.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionIdGeneratorBenchmark {
+
+    private final TransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1);
+
+    @Benchmark
+    @Threads(1)
+    public String timeOrdered_1Thread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeOrdered_4Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String timeOrdered_16Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String legacyUuidPrefix_1Thread() {
+        return "tan-" + UUID.randomUUID().toString().substring(0, 6).replace("-", "");
+    }
+}
@@ -4,10 +4,13 @@ import com.assignment.eaglebank.entity.UserEntity;
 import com.assignment.eaglebank.exception.AccessDeniedException;
 import com.assignment.eaglebank.exception.BusinessRuleViolationException;
 import com.assignment.eaglebank.exception.ResourceNotFoundException;
+import com.assignment.eaglebank.exception.ServiceOverloadedException;
 import com.assignment.eaglebank.model.AuthenticationResponse;
 import com.assignment.eaglebank.model.UserResponse;
 import com.assignment.eaglebank.repository.UserRepository;
 import com.assignment.eaglebank.security.TokenManager;
+import com.assignment.eaglebank.security.TokenPrincipal;
+import com.assignment.eaglebank.security.TokenRevocationList;
 import com.assignment.eaglebank.util.TestDataBuilder;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -37,6 +41,9 @@ class UserServiceTest {
     @Mock
     private TokenManager tokenManager;
 
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
     @InjectMocks
     private UserService userService;
 
@@ -105,12 +112,16 @@ class UserServiceTest {
         when(userRepository.findByEmailAndDeletedFalse("test@example.com")).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches("SecurePassword123", testUser.getPasswordHash())).thenReturn(true);
         when(tokenManager.createAuthToken("usr-test123", "test@example.com")).thenReturn("jwt-token");
+        when(tokenManager.createRefreshToken("usr-test123", "test@example.com")).thenReturn("refresh-token");
+        when(tokenManager.getAuthTokenLifetimeSeconds()).thenReturn(900L);
 
         // When
         AuthenticationResponse result = userService.validateCredentials("test@example.com", "SecurePassword123");
 
         // Then
         assertThat(result.getToken()).isEqualTo("jwt-token");
+        assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
+        assertThat(result.getExpiresIn()).isEqualTo(900L);
         assertThat(result.getUserId()).isEqualTo("usr-test123");
 
         verify(userRepository).findByEmailAndDeletedFalse("test@example.com");
@@ -118,6 +129,58 @@ class UserServiceTest {
         verify(tokenManager).createAuthToken("usr-test123", "test@example.com");
     }
 
+    @Test
+    void validateCredentials_OutdatedHash_ReEncodedAfterLogin() {
+        // Given
+        String oldHash = testUser.getPasswordHash();
+        when(userRepository.findByEmailAndDeletedFalse("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("SecurePassword123", oldHash)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(oldHash)).thenReturn(true);
+        when(passwordEncoder.encode("SecurePassword123")).thenReturn("{bcrypt}$2a$12$newHash");
+        when(userRepository.updatePasswordHash("usr-test123", oldHash, "{bcrypt}$2a$12$newHash")).thenReturn(1);
+        when(tokenManager.createAuthToken("usr-test123", "test@example.com")).thenReturn("jwt-token");
+
+        // When
+        AuthenticationResponse result = userService.validateCredentials("test@example.com", "SecurePassword123");
+
+        // Then
+        assertThat(result.getToken()).isEqualTo("jwt-token");
+        verify(userRepository).updatePasswordHash("usr-test123", oldHash, "{bcrypt}$2a$12$newHash");
+    }
+
+    @Test
+    void validateCredentials_CurrentHash_NotReEncoded() {
+        // Given
+        when(userRepository.findByEmailAndDeletedFalse("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("SecurePassword123", testUser.getPasswordHash())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(testUser.getPasswordHash())).thenReturn(false);
+        when(tokenManager.createAuthToken("usr-test123", "test@example.com")).thenReturn("jwt-token");
+
+        // When
+        userService.validateCredentials("test@example.com", "SecurePassword123");
+
+        // Then
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).updatePasswordHash(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void validateCredentials_ReEncodingShedUnderLoad_LoginStillSucceeds() {
+        // Given
+        when(userRepository.findByEmailAndDeletedFalse("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("SecurePassword123", testUser.getPasswordHash())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(testUser.getPasswordHash())).thenReturn(true);
+        when(passwordEncoder.encode("SecurePassword123")).thenThrow(new ServiceOverloadedException("overloaded"));
+        when(tokenManager.createAuthToken("usr-test123", "test@example.com")).thenReturn("jwt-token");
+
+        // When
+        AuthenticationResponse result = userService.validateCredentials("test@example.com", "SecurePassword123");
+
+        // Then
+        assertThat(result.getToken()).isEqualTo("jwt-token");
+        verify(userRepository, never()).updatePasswordHash(anyString(), anyString(), anyString());
+    }
+
     @Test
     void validateCredentials_UserNotFound_ThrowsResourceNotFoundException() {
         // Given
@@ -149,6 +212,88 @@ class UserServiceTest {
         verify(tokenManager, never()).createAuthToken(anyString(), anyString());
     }
 
+    @Test
+    void refreshTokens_ValidRefreshToken_RevokedAndNewPairIssued() {
+        // Given
+        TokenPrincipal refresh = tokenPrincipal("refresh-jti");
+        when(tokenManager.validateRefreshToken("refresh-token")).thenReturn(Optional.of(refresh));
+        when(tokenRevocationList.isRevoked("refresh-jti")).thenReturn(false);
+        when(userRepository.findByIdAndDeletedFalse("usr-test123")).thenReturn(Optional.of(testUser));
+        when(tokenRevocationList.revoke(refresh)).thenReturn(true);
+        when(tokenManager.createAuthToken("usr-test123", "test@example.com")).thenReturn("new-jwt-token");
+        when(tokenManager.createRefreshToken("usr-test123", "test@example.com")).thenReturn("new-refresh-token");
+
+        // When
+        AuthenticationResponse result = userService.refreshTokens("refresh-token");
+
+        // Then
+        assertThat(result.getToken()).isEqualTo("new-jwt-token");
+        assertThat(result.getRefreshToken()).isEqualTo("new-refresh-token");
+        verify(tokenRevocationList).revoke(refresh);
+    }
+
+    @Test
+    void refreshTokens_RevokedRefreshToken_ThrowsIllegalArgumentException() {
+        // Given
+        when(tokenManager.validateRefreshToken("refresh-token")).thenReturn(Optional.of(tokenPrincipal("refresh-jti")));
+        when(tokenRevocationList.isRevoked("refresh-jti")).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.refreshTokens("refresh-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid credentials");
+
+        verify(userRepository, never()).findByIdAndDeletedFalse(anyString());
+        verify(tokenManager, never()).createAuthToken(anyString(), anyString());
+    }
+
+    @Test
+    void refreshTokens_ConcurrentlyUsedRefreshToken_ThrowsIllegalArgumentException() {
+        // Given
+        TokenPrincipal refresh = tokenPrincipal("refresh-jti");
+        when(tokenManager.validateRefreshToken("refresh-token")).thenReturn(Optional.of(refresh));
+        when(tokenRevocationList.isRevoked("refresh-jti")).thenReturn(false);
+        when(userRepository.findByIdAndDeletedFalse("usr-test123")).thenReturn(Optional.of(testUser));
+        when(tokenRevocationList.revoke(refresh)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.refreshTokens("refresh-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid credentials");
+
+        verify(tokenManager, never()).createAuthToken(anyString(), anyString());
+    }
+
+    @Test
+    void logout_RevokesAccessAndOwnRefreshToken() {
+        // Given
+        TokenPrincipal access = tokenPrincipal("access-jti");
+        TokenPrincipal refresh = tokenPrincipal("refresh-jti");
+        when(tokenManager.validateRefreshToken("refresh-token")).thenReturn(Optional.of(refresh));
+
+        // When
+        userService.logout(access, "refresh-token");
+
+        // Then
+        verify(tokenRevocationList).revoke(access);
+        verify(tokenRevocationList).revoke(refresh);
+    }
+
+    @Test
+    void logout_RefreshTokenOfOtherUser_NotRevoked() {
+        // Given
+        TokenPrincipal access = tokenPrincipal("access-jti");
+        TokenPrincipal otherRefresh = new TokenPrincipal("usr-other", "other@example.com", Instant.now().plusSeconds(60), "other-jti");
+        when(tokenManager.validateRefreshToken("refresh-token")).thenReturn(Optional.of(otherRefresh));
+
+        // When
+        userService.logout(access, "refresh-token");
+
+        // Then
+        verify(tokenRevocationList).revoke(access);
+        verify(tokenRevocationList, never()).revoke(otherRefresh);
+    }
+
     @Test
     void validatePhoneNumber_ValidFormat_DoesNotThrow() {
         // Given
@@ -234,4 +379,8 @@ class UserServiceTest {
         verify(userRepository).save(testUser);
         assertThat(testUser.isDeleted()).isTrue();
     }
-} 
\ No newline at end of file
+
+    private static TokenPrincipal tokenPrincipal(String tokenId) {
+        return new TokenPrincipal("usr-test123", "test@example.com", Instant.now().plusSeconds(60), tokenId);
+    }
+}
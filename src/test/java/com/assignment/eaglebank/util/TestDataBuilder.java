@@ -4,6 +4,8 @@ import com.assignment.eaglebank.entity.AccountEntity;
 import com.assignment.eaglebank.entity.TransactionEntity;
 import com.assignment.eaglebank.entity.TransactionType;
 import com.assignment.eaglebank.entity.UserEntity;
+import com.assignment.eaglebank.model.CreateUserRequest;
+import com.assignment.eaglebank.model.CreateUserRequestAddress;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -189,6 +191,41 @@ public class TestDataBuilder {
         }
     }
 
+    public static class CreateUserRequestBuilder {
+        private CreateUserRequest request = new CreateUserRequest();
+
+        public CreateUserRequestBuilder() {
+            request.setName("John Doe");
+            request.setEmail("john.doe@test.com");
+            request.setPhoneNumber("+447123456789");
+            request.setPassword("MySecurePassword123");
+            request.setAddress(new CreateUserRequestAddress()
+                    .line1("123 Main Street")
+                    .town("London")
+                    .county("Greater London")
+                    .postcode("SW1A 1AA"));
+        }
+
+        public CreateUserRequestBuilder withEmail(String email) {
+            request.setEmail(email);
+            return this;
+        }
+
+        public CreateUserRequestBuilder withName(String name) {
+            request.setName(name);
+            return this;
+        }
+
+        public CreateUserRequestBuilder withPassword(String password) {
+            request.setPassword(password);
+            return this;
+        }
+
+        public CreateUserRequest build() {
+            return request;
+        }
+    }
+
     // Factory methods
     public static UserEntityBuilder userEntity() {
         return new UserEntityBuilder();
@@ -205,4 +242,8 @@ public class TestDataBuilder {
     public static LoginTestRequestBuilder loginRequest() {
         return new LoginTestRequestBuilder();
     }
+
+    public static CreateUserRequestBuilder createUserRequest() {
+        return new CreateUserRequestBuilder();
+    }
 } 
\ No newline at end of file